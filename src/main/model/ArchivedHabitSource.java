@@ -0,0 +1,15 @@
+package model;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Represents archived habits of a habit manager that are kept in storage until they are first needed
+public interface ArchivedHabitSource {
+
+    // EFFECTS: returns the ids of the archived habits that have not been loaded
+    Set<UUID> getIds();
+
+    // EFFECTS: loads the archived habits and returns them
+    List<Habit> load();
+}
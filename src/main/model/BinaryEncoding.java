@@ -0,0 +1,47 @@
+package model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Converts times and integers to and from the binary form shared by completion logs and the save files, times are
+// kept as minutes since the epoch with local date times treated as UTC, and integers are written seven bits at a time
+// so that small values take a single byte
+public class BinaryEncoding {
+
+    // EFFECTS: returns dateTime as minutes since the epoch, local date times are treated as UTC
+    public static int toEpochMinutes(LocalDateTime dateTime) {
+        return (int) Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    // EFFECTS: returns the local date time that is the given number of minutes after the epoch
+    public static LocalDateTime fromEpochMinutes(long epochMinutes) {
+        return LocalDateTime.ofEpochSecond(epochMinutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes value seven bits at a time, small values take a single byte and negative values take five
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads value written by writeVarInt and returns it; throws IOException if it is malformed
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length int");
+    }
+}
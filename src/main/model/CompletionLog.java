@@ -0,0 +1,209 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Represents the append-only history of when a habit was completed, kept as columns: the completion times as minutes
+// since the epoch in a primitive array in time order, and a bit set marking completions that were undone,
+// range queries binary search the time column, and the log is encoded as blocks of delta encoded times
+public class CompletionLog {
+    public static final int BLOCK_SIZE = 128;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] minutes;
+    private final BitSet tombstones;
+    private int size;
+
+    // EFFECTS: constructs an empty completion log
+    public CompletionLog() {
+        this.minutes = new int[INITIAL_CAPACITY];
+        this.tombstones = new BitSet();
+    }
+
+    // EFFECTS: returns the number of entries in the log, including those that were undone
+    public int getEntryCount() {
+        return this.size;
+    }
+
+    // EFFECTS: returns the number of completions in the log that were not undone
+    public int getCompletionCount() {
+        return size - tombstones.cardinality();
+    }
+
+    // REQUIRES: 0 <= index < getEntryCount()
+    // EFFECTS: returns the time of the entry at index as minutes since the epoch
+    public int getMinute(int index) {
+        return minutes[index];
+    }
+
+    // REQUIRES: 0 <= index < getEntryCount()
+    // EFFECTS: returns true if the entry at index was undone
+    public boolean isUndone(int index) {
+        return tombstones.get(index);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a completion at dateTime, a time earlier than the last entry is inserted in time order
+    public void append(LocalDateTime dateTime) {
+        append(toEpochMinutes(dateTime), false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: marks the most recent completion that was not undone as undone and returns true,
+    //          or returns false if there is none
+    public boolean undo() {
+        int last = tombstones.previousClearBit(size - 1);
+        if (last < 0) {
+            return false;
+        }
+        tombstones.set(last);
+        return true;
+    }
+
+    // EFFECTS: returns the number of completions that were not undone from start inclusive to end exclusive
+    public int count(LocalDateTime start, LocalDateTime end) {
+        int from = lowerBound(toEpochMinutes(start));
+        int to = Math.max(from, lowerBound(toEpochMinutes(end)));
+        return to - from - tombstones.get(from, to).cardinality();
+    }
+
+    // EFFECTS: returns the times of the completions that were not undone from start inclusive to end exclusive,
+    //          as minutes since the epoch in time order
+    public int[] getMinutes(LocalDateTime start, LocalDateTime end) {
+        int from = lowerBound(toEpochMinutes(start));
+        int to = Math.max(from, lowerBound(toEpochMinutes(end)));
+        int[] range = new int[to - from - tombstones.get(from, to).cardinality()];
+        int next = 0;
+        for (int i = tombstones.nextClearBit(from); i < to; i = tombstones.nextClearBit(i + 1)) {
+            range[next++] = minutes[i];
+        }
+        return range;
+    }
+
+    // REQUIRES: days >= 0
+    // EFFECTS: returns the number of completions that were not undone on each of the given number of days from
+    //          start, in a single pass over the entries of those days
+    public int[] countPerDay(LocalDate start, int days) {
+        int[] counts = new int[days];
+        int first = toEpochMinutes(start.atStartOfDay());
+        long end = first + (long) days * 24 * 60;
+        for (int i = lowerBound(first); i < size && minutes[i] < end; i++) {
+            if (!tombstones.get(i)) {
+                counts[(minutes[i] - first) / (24 * 60)]++;
+            }
+        }
+        return counts;
+    }
+
+    // EFFECTS: returns this log encoded as its entry count followed by blocks of BLOCK_SIZE entries, each block holds
+    //          its times as variable length deltas from the time before and then a bitmap of its undone entries
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(size * 2 + 8);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            writeBlocks(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode completion log", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the entry count and the blocks of this log as described in encode
+    private void writeBlocks(DataOutputStream out) throws IOException {
+        BinaryEncoding.writeVarInt(out, size);
+        int previous = 0;
+        for (int block = 0; block < size; block += BLOCK_SIZE) {
+            int end = Math.min(size, block + BLOCK_SIZE);
+            for (int i = block; i < end; i++) {
+                BinaryEncoding.writeVarInt(out, minutes[i] - previous);
+                previous = minutes[i];
+            }
+            byte[] bitmap = new byte[(end - block + 7) / 8];
+            for (int i = tombstones.nextSetBit(block); i >= 0 && i < end; i = tombstones.nextSetBit(i + 1)) {
+                bitmap[(i - block) / 8] |= 1 << ((i - block) % 8);
+            }
+            out.write(bitmap, 0, bitmap.length);
+        }
+    }
+
+    // EFFECTS: returns the log encoded in bytes by encode;
+    //          throws IllegalArgumentException if bytes are not an encoded completion log
+    public static CompletionLog decode(byte[] bytes) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        CompletionLog log = new CompletionLog();
+        try {
+            int size = BinaryEncoding.readVarInt(in);
+            int previous = 0;
+            for (int block = 0; block < size; block += BLOCK_SIZE) {
+                int end = Math.min(size, block + BLOCK_SIZE);
+                for (int i = block; i < end; i++) {
+                    previous += BinaryEncoding.readVarInt(in);
+                    log.append(previous, false);
+                }
+                byte[] bitmap = new byte[(end - block + 7) / 8];
+                in.readFully(bitmap);
+                for (int i = block; i < end; i++) {
+                    log.tombstones.set(i, (bitmap[(i - block) / 8] & (1 << ((i - block) % 8))) != 0);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated or malformed completion log", e);
+        }
+        return log;
+    }
+
+    // EFFECTS: returns dateTime as minutes since the epoch, local date times are treated as UTC
+    public static int toEpochMinutes(LocalDateTime dateTime) {
+        return BinaryEncoding.toEpochMinutes(dateTime);
+    }
+
+    // EFFECTS: returns the local date time that is the given number of minutes after the epoch
+    public static LocalDateTime fromEpochMinutes(long epochMinutes) {
+        return BinaryEncoding.fromEpochMinutes(epochMinutes);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds an entry at the given minute in time order after any entries at the same minute,
+    //          marked as undone if isUndone
+    private void append(int minute, boolean isUndone) {
+        if (size == minutes.length) {
+            minutes = Arrays.copyOf(minutes, size * 2);
+        }
+        int index = size == 0 || minutes[size - 1] <= minute ? size : upperBound(minute);
+        System.arraycopy(minutes, index, minutes, index + 1, size - index);
+        for (int i = size; i > index; i--) {
+            tombstones.set(i, tombstones.get(i - 1));
+        }
+        minutes[index] = minute;
+        tombstones.set(index, isUndone);
+        size++;
+    }
+
+    // EFFECTS: returns the index of the first entry at or after minute
+    private int lowerBound(int minute) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (minutes[middle] < minute) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // EFFECTS: returns the index of the first entry after minute
+    private int upperBound(int minute) {
+        return minute == Integer.MAX_VALUE ? size : lowerBound(minute + 1);
+    }
+}
@@ -10,33 +10,38 @@ import model.reminder.WeeklyReminder;
 import org.json.JSONObject;
 
 import java.time.Clock;
-import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static model.achievement.AchievementManager.getAchieved;
 
 // Represents a habit with a name, description, period, frequency, number of successes, habit statistics,
-// habit notifications, and habit achievements
+// habit notifications, and habit achievements, every method that modifies a habit holds the lock of that habit so
+// habits can be modified on many threads at once, while fields are volatile so that reading them never waits
 public class Habit {
-    private String name;
-    private String description;
-    private Period period;
-    private int frequency;
+    private volatile String name;
+    private volatile String description;
+    private volatile Period period;
+    private volatile int frequency;
     private final UUID id;
-    private boolean notifyEnabled;
-    private int numSuccess;
-    private LocalDateTime currentPeriodEnd;
-    private LocalDateTime nextPeriodEnd;
-    private Clock clock;
-    private boolean isPreviousComplete;
+    private volatile boolean notifyEnabled;
+    private volatile int numSuccess;
+    private volatile LocalDateTime currentPeriodEnd;
+    private volatile LocalDateTime nextPeriodEnd;
+    private volatile Clock clock;
+    private volatile boolean isPreviousComplete;
     private final HabitStatistics habitStats;
-    private HabitReminder habitReminder;
-    private List<Achievement> achievements;
-    private boolean isArchived;
+    private volatile CompletionLog completionLog;
+    private volatile HabitReminder habitReminder;
+    private volatile List<Achievement> achievements;
+    private volatile boolean isArchived;
+    private final AtomicLong version = new AtomicLong(1);
+    private volatile long cleanVersion;
+    private volatile HabitManager manager;
 
     // REQUIRES: 0 < frequency < 16
     // EFFECTS: initializes habit
@@ -51,6 +56,7 @@ public class Habit {
         this.clock = clock;
         this.isPreviousComplete = false;
         this.habitStats = new HabitStatistics();
+        this.completionLog = new CompletionLog();
         this.habitReminder = this.notifyEnabled ? getNewReminder() : null;
         this.achievements = new ArrayList<>();
         this.isArchived = false;
@@ -75,33 +81,98 @@ public class Habit {
         this.clock = c;
         this.isPreviousComplete = ipc;
         this.habitStats = hs;
+        this.completionLog = new CompletionLog();
         this.habitReminder = hr;
         this.achievements = getAchieved(habitStats, period);
         this.isArchived = isArchived;
     }
 
-    public void setHabitReminder(HabitReminder habitReminder) {
+    // MODIFIES: this
+    // EFFECTS: sets this.completionLog to the given history of completions, used when loading a saved habit
+    public synchronized void setCompletionLog(CompletionLog completionLog) {
+        this.completionLog = completionLog;
+        markDirty();
+    }
+
+    public synchronized void setHabitReminder(HabitReminder habitReminder) {
         this.habitReminder = habitReminder;
+        markDirty();
+    }
+
+    // EFFECTS: returns the habit manager this is in, or null if it is in none
+    HabitManager getManager() {
+        return this.manager;
+    }
+
+    // EFFECTS: returns the profile of the user whose habit manager this is in, or null if it is in none
+    public UserProfile getProfile() {
+        return manager == null ? null : manager.getProfile();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this was last added to manager, or that it is in none if manager is null
+    void setManager(HabitManager manager) {
+        this.manager = manager;
+    }
+
+    // EFFECTS: moves this in the indexes of the habit manager it was last added to after its period or archived state
+    //          changed
+    private void reindex() {
+        if (manager != null) {
+            manager.reindex(this);
+        }
+    }
+
+    // EFFECTS: returns the version of this, which grows every time this is modified, so a copy of this taken at one
+    //          version is known to be stale once the version has moved on, whichever thread made the change
+    public long getVersion() {
+        return this.version.get();
+    }
+
+    // EFFECTS: returns true if this has been modified since markClean was last called
+    public boolean isDirty() {
+        return this.version.get() != this.cleanVersion;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this has been modified since it was last saved
+    public void markDirty() {
+        this.version.incrementAndGet();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this has been saved as it is now
+    public void markClean() {
+        markClean(this.version.get());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that this has been saved as it was at the given version, this stays dirty if it has been
+    //          modified since
+    public synchronized void markClean(long savedVersion) {
+        this.cleanVersion = Math.max(this.cleanVersion, savedVersion);
     }
 
     // MODIFIES: this
     // EFFECTS: sets this.name to given name
-    public void setName(String name) {
+    public synchronized void setName(String name) {
         this.name = name;
+        markDirty();
         EventLog.getInstance().logEvent(new Event("Name of habit with id " + id + " changed to \"" + name + "\""));
     }
 
     // MODIFIES: this
     // EFFECTS: sets this.description to given description
-    public void setDescription(String description) {
+    public synchronized void setDescription(String description) {
         this.description = description;
+        markDirty();
         EventLog.getInstance().logEvent(
                 new Event("Description of habit with id " + id + " changed to \"" + description + "\""));
     }
 
     // MODIFIES: this
     // EFFECTS: set this.clock, and habitReminder.clock, solely for testing purposes
-    public void setClock(Clock clock) {
+    public synchronized void setClock(Clock clock) {
         this.clock = clock;
         if (isNotifyEnabled()) {
             habitReminder.setClock(clock);
@@ -110,16 +181,18 @@ public class Habit {
 
     // MODIFIES: this
     // EFFECTS: set this.numSuccess, solely for testing purposes
-    public void setNumSuccess(int numSuccess) {
+    public synchronized void setNumSuccess(int numSuccess) {
         this.numSuccess = numSuccess;
+        markDirty();
     }
 
     // MODIFIES: this
     // EFFECTS: toggles this.notifyEnabled
     //          if this.notifyEnabled is true, then habitReminder is reinitialized to a new reminder
     //          if this.notifyEnabled is false, then all reminders are cancelled and habitReminder is set to null
-    public void toggleNotifyEnabled() {
+    public synchronized void toggleNotifyEnabled() {
         this.notifyEnabled = !this.notifyEnabled;
+        markDirty();
         if (this.notifyEnabled) {
             habitReminder = getNewReminder();
         } else {
@@ -138,11 +211,12 @@ public class Habit {
     //          update achievements
     //          if isNotifyEnabled, then reminders are updated
     //          returns whether frequency was changed
-    public boolean setFrequency(int frequency) {
+    public synchronized boolean setFrequency(int frequency) {
         if (this.frequency == frequency) {
             return false;
         }
         this.frequency = frequency;
+        markDirty();
         if (isNotifyEnabled()) {
             habitReminder.updateReminders();
         }
@@ -159,11 +233,13 @@ public class Habit {
     //          achievements
     //          if notifyEnabled, then reminders are cancelled and a new reminder with default notifications is created
     //          returns whether period was changed
-    public boolean setPeriod(Period period) {
+    public synchronized boolean setPeriod(Period period) {
         if (this.period == period) {
             return false;
         }
         this.period = period;
+        reindex();
+        markDirty();
         resetProgress();
         updateDateTime();
         if (isNotifyEnabled()) {
@@ -178,8 +254,10 @@ public class Habit {
 
     // MODIFIES: this
     // EFFECTS: toggles isArchived, if archived, cancels reminders, if unarchived, updates habit
-    public void toggleIsArchived() {
+    public synchronized void toggleIsArchived() {
         this.isArchived = !this.isArchived;
+        reindex();
+        markDirty();
         if (this.isArchived && isNotifyEnabled()) {
             habitReminder.cancelReminders();
         } else {
@@ -234,6 +312,10 @@ public class Habit {
         return this.habitStats;
     }
 
+    public CompletionLog getCompletionLog() {
+        return this.completionLog;
+    }
+
     public HabitReminder getHabitReminder() {
         return this.habitReminder;
     }
@@ -270,12 +352,14 @@ public class Habit {
     }
 
     // MODIFIES: this
-    // EFFECTS: if numSuccess < frequency, increments numSuccess,
+    // EFFECTS: if numSuccess < frequency, increments numSuccess, records the completion in completionLog,
     //          updates habit statistics, reminders, and achievements, returns whether habit was incremented
-    public boolean finishHabit() {
+    public synchronized boolean finishHabit() {
         if (numSuccess < frequency) {
             numSuccess++;
+            markDirty();
             habitStats.incrementTotalNumSuccess();
+            completionLog.append(LocalDateTime.now(clock));
             EventLog.getInstance().logEvent(new Event("Habit \"" + name + "\" with id " + id + " completed"));
             checkPeriodComplete();
             achievements = getAchieved(habitStats, period);
@@ -287,10 +371,11 @@ public class Habit {
     // MODIFIES: this
     // EFFECTS: if numSuccess > 0, decrements numSuccess and habitStats.totalNumSuccess,
     //          if isPeriodComplete(), then decrements habitStats.numPeriodSuccess and habitStats.streak,
-    //          if notifyEnabled, then updates reminders,
+    //          marks the most recent completion in completionLog as undone, if notifyEnabled, then updates reminders,
     //          updates achievements, returns whether habit was decremented
-    public boolean undoFinishHabit() {
+    public synchronized boolean undoFinishHabit() {
         if (numSuccess > 0) {
+            markDirty();
             if (isPeriodComplete()) {
                 habitStats.decrementNumPeriodSuccess();
                 habitStats.decrementStreak();
@@ -298,6 +383,7 @@ public class Habit {
             }
             numSuccess--;
             habitStats.decrementTotalNumSuccess();
+            completionLog.undo();
             if (isNotifyEnabled()) {
                 habitReminder.updateReminders();
             }
@@ -311,9 +397,10 @@ public class Habit {
     // MODIFIES: this
     // EFFECTS: if isPeriodComplete(), then increments both habitStats.numPeriodSuccess
     //          a habitStats.streak, sets isPreviousComplete to true, and cancels reminders if isNotifyEnabled()
-    public void checkPeriodComplete() {
+    public synchronized void checkPeriodComplete() {
         if (isPeriodComplete()) {
             isPreviousComplete = true;
+            markDirty();
             habitStats.incrementNumPeriodSuccess();
             habitStats.incrementStreak();
             if (isNotifyEnabled()) {
@@ -327,16 +414,25 @@ public class Habit {
     // REQUIRES: LocalDateTime.now(clock) is after currentPeriodEnd
     // MODIFIES: this
     // EFFECTS: updates currentPeriodEnd and nextPeriodEnd, resets numSuccess to 0, increments numPeriod
-    public void nextHabitPeriod() {
+    public synchronized void nextHabitPeriod() {
+        nextHabitPeriods(1);
+    }
+
+    // REQUIRES: count > 0, count periods have ended since currentPeriodEnd was set
+    // MODIFIES: this
+    // EFFECTS: updates currentPeriodEnd and nextPeriodEnd, resets numSuccess to 0, adds count to numPeriod
+    public synchronized void nextHabitPeriods(long count) {
         updateDateTime();
         numSuccess = 0;
-        habitStats.incrementNumPeriod();
+        habitStats.incrementNumPeriod((int) count);
+        markDirty();
     }
 
     // MODIFIES: this
     // EFFECTS: resets numSuccess to 0, isPreviousComplete to false, and resets habit statistics
-    public void resetProgress() {
+    public synchronized void resetProgress() {
         numSuccess = 0;
+        markDirty();
         isPreviousComplete = false;
         habitStats.resetStats();
     }
@@ -350,82 +446,84 @@ public class Habit {
     //          switch to next period, then reset streak,
     //          if now is between currentPeriodEnd and nextPeriodEnd and isPreviousComplete(),
     //          switch to next period and reset isPreviousComplete to false,
-    //          if now is after nextPeriodEnd, switch to next period, reset streak, and reset isPreviousComplete
-    //          returns whether this was modified
+    //          if now is after nextPeriodEnd, switch to the current period, counting every period missed since
+    //          currentPeriodEnd, reset streak, and reset isPreviousComplete
+    //          updates achievements if this was modified, returns whether this was modified
+    //          archived habits do not get updated
+    public synchronized boolean updateHabit() {
+        boolean changeMade = catchUpPeriods();
+        rescheduleReminders();
+        return changeMade;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates currentPeriodEnd, nextPeriodEnd, and habit statistics based on current date time as in
+    //          updateHabit, but leaves reminders untouched, returns whether this was modified
     //          archived habits do not get updated
-    public boolean updateHabit() {
+    //          the period boundaries are shared with other habits, so a habit whose period has not ended does not
+    //          compute any dates
+    public synchronized boolean catchUpPeriods() {
         if (isArchived) {
             return false;
         }
-        boolean changeMade = false;
-        LocalDateTime now = LocalDateTime.now(clock);
-        if (!now.isBefore(currentPeriodEnd.plusMinutes(1)) && now.isBefore(nextPeriodEnd.plusMinutes(1))) {
-            nextHabitPeriod();
-            if (!isPreviousComplete()) {
+        long ended = PeriodBoundaries.at(clock).countEnded(period, currentPeriodEnd);
+        boolean changeMade = ended > 0;
+        if (changeMade) {
+            if (ended > 1 || !isPreviousComplete()) {
                 habitStats.resetStreak();
             }
+            nextHabitPeriods(ended);
             isPreviousComplete = false;
-            changeMade = true;
-        } else if (!now.isBefore(nextPeriodEnd.plusMinutes(1))) {
-            nextHabitPeriod();
-            habitStats.resetStreak();
-            isPreviousComplete = false;
-            changeMade = true;
+            achievements = getAchieved(habitStats, period);
         }
-        if (isNotifyEnabled()) {
+        return changeMade;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if isNotifyEnabled() and this is not archived, cancels reminders and schedules them again based on
+    //          current date time
+    public synchronized void rescheduleReminders() {
+        if (!isArchived && isNotifyEnabled()) {
             habitReminder.updateReminders();
         }
-        achievements = getAchieved(habitStats, period);
-        return changeMade;
     }
 
     // MODIFIES: this
     // EFFECTS: updates currentPeriodEnd and nextPeriodEnd based on period
-    public void updateDateTime() {
-        switch (period) {
-            case DAILY:
-                updateDaily();
-                break;
-            case WEEKLY:
-                updateWeekly();
-                break;
-            default:
-                updateMonthly();
-                break;
-        }
+    public synchronized void updateDateTime() {
+        markDirty();
+        setPeriodEnds(period);
     }
 
     // REQUIRES: this.getPeriod() == Period.DAILY
     // MODIFIES: this
     // EFFECTS: sets currentPeriodEnd to 23:59 today nextPeriodEnd to 23:59 tomorrow
-    public void updateDaily() {
-        LocalDateTime now = LocalDateTime.now(clock);
-        currentPeriodEnd = now.withHour(23).withMinute(59).withSecond(0).withNano(0);
-        nextPeriodEnd = now.plusDays(1).withHour(23).withMinute(59).withSecond(0).withNano(0);
+    public synchronized void updateDaily() {
+        setPeriodEnds(Period.DAILY);
     }
 
     // REQUIRES: this.getPeriod() == Period.WEEKLY
     // MODIFIES: this
     // EFFECTS: sets currentPeriodEnd to 23:59 this Saturday and sets nextPeriodEnd to 23:59 next Saturday
-    public void updateWeekly() {
-        LocalDateTime now = LocalDateTime.now(clock);
-        LocalDateTime nextSaturday = now.with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
-        LocalDateTime nextNextSaturday = nextSaturday.plusDays(7);
-        currentPeriodEnd = nextSaturday.withHour(23).withMinute(59).withSecond(0).withNano(0);
-        nextPeriodEnd = nextNextSaturday.withHour(23).withMinute(59).withSecond(0).withNano(0);
+    public synchronized void updateWeekly() {
+        setPeriodEnds(Period.WEEKLY);
     }
 
     // REQUIRES: this.getPeriod() == Period.MONTHLY
     // MODIFIES: this
     // EFFECTS: sets currentPeriodEnd to 23:59 on the last day of the month
     //          and sets nextPeriodEnd to 23:59 on the last day of next month
-    public void updateMonthly() {
-        LocalDateTime now = LocalDateTime.now(clock);
-        LocalDateTime lastDayOfMonth = now.with(TemporalAdjusters.lastDayOfMonth());
-        currentPeriodEnd = lastDayOfMonth.withHour(23).withMinute(59).withSecond(0).withNano(0);
-        LocalDateTime firstDayOfNextMonth = now.with(TemporalAdjusters.firstDayOfNextMonth());
-        LocalDateTime lastDayOfNextMonth = firstDayOfNextMonth.with(TemporalAdjusters.lastDayOfMonth());
-        nextPeriodEnd = lastDayOfNextMonth.withHour(23).withMinute(59).withSecond(0).withNano(0);
+    public synchronized void updateMonthly() {
+        setPeriodEnds(Period.MONTHLY);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets currentPeriodEnd and nextPeriodEnd to the ends of the current and next period of the given length,
+    //          which are shared with every other habit updated on the same day
+    private void setPeriodEnds(Period period) {
+        PeriodBoundaries boundaries = PeriodBoundaries.at(clock);
+        currentPeriodEnd = boundaries.getCurrentEnd(period);
+        nextPeriodEnd = boundaries.getNextEnd(period);
     }
 
     // EFFECTS: returns habit as a JSONObject
@@ -445,6 +543,9 @@ public class Habit {
         if (habitReminder != null) {
             json.put("habitReminder", habitReminder.toJson());
         }
+        if (completionLog.getEntryCount() > 0) {
+            json.put("completions", Base64.getEncoder().encodeToString(completionLog.encode()));
+        }
         json.put("isArchived", isArchived);
         return json;
     }
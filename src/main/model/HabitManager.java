@@ -5,105 +5,179 @@ import model.log.EventLog;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
-// Represents list of the user's habits
+// Represents list of the user's habits, habits are kept in the order they were added under increasing sequence
+// numbers and indexed by id, period and whether they are archived, so a habit is found by id in constant time,
+// replaced or deleted in logarithmic time, and the habits of a period or archived state are listed in order without
+// a scan, replacing a habit keeps its sequence number so the sequence numbers in order are only listed again after
+// habits are added or removed;
+// habits are added and removed one thread at a time while holding the lock of the habit manager, but reading never
+// waits as the indexes are concurrent maps and the list of habits is an immutable snapshot, the lock of a habit may
+// be held when taking the lock of its habit manager but never the other way around
 public class HabitManager {
+    public static final int JSON_VERSION = 2;
 
-    private final List<Habit> habits;
-    private static String username;
-    private static boolean isAutoSave;
-    private static boolean achievementToastsEnabled;
-    private static boolean hideOnClose;
+    private final NavigableMap<Long, Habit> habits = new ConcurrentSkipListMap<>();
+    private final Map<Habit, Long> sequences = new IdentityHashMap<>();
+    private final Map<UUID, Habit> byId = new ConcurrentHashMap<>();
+    private final Map<Period, NavigableMap<Long, Habit>> byPeriod = new EnumMap<>(Period.class);
+    private final NavigableMap<Long, Habit> active = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Long, Habit> archived = new ConcurrentSkipListMap<>();
+    private final List<Habit> view = new HabitListView();
+    private volatile List<Habit> order;
+    private volatile int size;
+    private long[] orderSequences;
+    private long nextSequence;
+    private final UserProfile profile;
+    private volatile ArchivedHabitSource archivedSource;
 
-    // EFFECTS: constructs a habit manager with an empty list of habits,
+    // EFFECTS: constructs a habit manager with an empty list of habits and a profile with no username,
     //          by default auto save is off and achievement toasts are enabled
     public HabitManager() {
-        habits = new ArrayList<>();
-        isAutoSave = false;
-        achievementToastsEnabled = true;
-        hideOnClose = true;
+        this(new UserProfile());
     }
 
     // EFFECTS: constructs a habit manager with an empty list of habits for a returning user
     public HabitManager(String username, boolean isAutoSave, boolean achievementToastsEnabled, boolean hideOnClose) {
-        habits = new ArrayList<>();
-        HabitManager.username = username;
-        HabitManager.isAutoSave = isAutoSave;
-        HabitManager.achievementToastsEnabled = achievementToastsEnabled;
-        HabitManager.hideOnClose = hideOnClose;
+        this(new UserProfile(username, isAutoSave, achievementToastsEnabled, hideOnClose));
     }
 
+    // EFFECTS: constructs a habit manager with an empty list of habits for the user with the given profile
+    public HabitManager(UserProfile profile) {
+        this.profile = profile;
+        for (Period period : Period.values()) {
+            byPeriod.put(period, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    public UserProfile getProfile() {
+        return this.profile;
+    }
+
+    // EFFECTS: returns the habits in order as a read-only list that always reflects the current habits, iterating it
+    //          goes through the habits as they were when iteration started
     public List<Habit> getHabits() {
-        return this.habits;
+        return this.view;
     }
 
-    // EFFECTS: returns size of habits, solely for testing purposes
-    public int getSize() {
-        return this.habits.size();
+    // EFFECTS: returns the habit with the given id, or null if there is none
+    public Habit getHabit(UUID id) {
+        return byId.get(id);
     }
 
-    public static String getUsername() {
-        return HabitManager.username;
+    // EFFECTS: returns the habits with the given period in order, as a read-only view of the current habits
+    public Collection<Habit> getHabits(Period period) {
+        NavigableMap<Long, Habit> indexed = byPeriod.get(period);
+        return indexed == null ? Collections.emptyList() : Collections.unmodifiableCollection(indexed.values());
     }
 
-    // EFFECTS: returns whether auto save is enabled
-    public static boolean isAutoSave() {
-        return HabitManager.isAutoSave;
+    // EFFECTS: returns the habits that are not archived in order, as a read-only view of the current habits
+    public Collection<Habit> getActiveHabits() {
+        return Collections.unmodifiableCollection(active.values());
     }
 
-    // EFFECTS: returns whether achievement toasts are enabled
-    public static boolean isAchievementToastsEnabled() {
-        return HabitManager.achievementToastsEnabled;
+    // EFFECTS: returns the archived habits that have been loaded in order, as a read-only view of the current habits
+    public Collection<Habit> getArchivedHabits() {
+        return Collections.unmodifiableCollection(archived.values());
     }
 
-    // EFFECTS: returns true if application will hide on close, false if application will exit on close
-    public static boolean isHideOnClose() {
-        return HabitManager.hideOnClose;
+    // EFFECTS: returns size of habits, solely for testing purposes
+    public int getSize() {
+        return this.size;
     }
 
     // MODIFIES: this
-    // EFFECTS: setups HabitManager.username to given username
-    public static void setUsername(String username) {
-        HabitManager.username = username;
-        EventLog.getInstance().logEvent(new Event("Username set to \"" + username + "\""));
+    // EFFECTS: sets the archived habits that are only loaded once they are first needed
+    public synchronized void setArchivedHabitSource(ArchivedHabitSource archivedSource) {
+        this.archivedSource = archivedSource;
+    }
+
+    // EFFECTS: returns true if every archived habit has been loaded
+    public boolean isArchivedLoaded() {
+        return archivedSource == null;
+    }
+
+    // EFFECTS: returns the ids of archived habits that have not been loaded yet
+    public Set<UUID> getUnloadedArchivedIds() {
+        return archivedSource == null ? Collections.emptySet() : archivedSource.getIds();
     }
 
     // MODIFIES: this
-    // EFFECTS: toggles HabitManager.isAutoSave
-    public static void toggleAutoSave() {
-        HabitManager.isAutoSave = !HabitManager.isAutoSave;
-        EventLog.getInstance().logEvent(new Event("Auto save turned " + (HabitManager.isAutoSave ? "on" : "off")));
+    // EFFECTS: loads archived habits that have not been loaded yet and adds them after the other habits
+    public synchronized void loadArchivedHabits() {
+        if (archivedSource != null) {
+            List<Habit> loaded = archivedSource.load();
+            archivedSource = null;
+            for (Habit habit : loaded) {
+                addHabit(habit);
+            }
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: toggles HabitManager.achievementToastsEnabled
-    public static void toggleAchievementToastsEnabled() {
-        HabitManager.achievementToastsEnabled = !HabitManager.achievementToastsEnabled;
-        EventLog.getInstance().logEvent(
-                new Event("Achievement toasts turned " + (HabitManager.achievementToastsEnabled ? "on" : "off")));
+    // EFFECTS: habit added to list of habits
+    public synchronized void addHabit(Habit habit) {
+        index(habit, nextSequence++);
+        orderSequences = null;
     }
 
+    // REQUIRES: 0 <= index < getSize()
     // MODIFIES: this
-    // EFFECTS: toggles HabitManager.hideOnClose
-    public static void toggleHideOnClose() {
-        HabitManager.hideOnClose = !HabitManager.hideOnClose;
-        EventLog.getInstance().logEvent(
-                new Event("Application set to " + (HabitManager.hideOnClose ? "hide on close" : "exit on close")));
+    // EFFECTS: replaces the habit at index with habit, reminders of the replaced habit are cancelled if it has any,
+    //          the habit at index is found by its sequence number without copying the habits
+    public void setHabit(int index, Habit habit) {
+        Habit replaced;
+        synchronized (this) {
+            replaced = habits.get(getOrderSequences()[index]);
+            swap(replaced, habit);
+        }
+        cancelReplaced(replaced, habit);
     }
 
+    // REQUIRES: a habit with the given id is in this
     // MODIFIES: this
-    // EFFECTS: habit added to list of habits
-    public void addHabit(Habit habit) {
-        habits.add(habit);
+    // EFFECTS: replaces the habit with the given id with habit in its place in order, reminders of the replaced habit
+    //          are cancelled if it has any
+    public void replaceHabit(UUID id, Habit habit) {
+        Habit replaced;
+        synchronized (this) {
+            replaced = byId.get(id);
+            swap(replaced, habit);
+        }
+        cancelReplaced(replaced, habit);
+    }
+
+    // MODIFIES: replaced
+    // EFFECTS: cancels the reminders of replaced if it has any and logs that it was replaced with habit
+    private void cancelReplaced(Habit replaced, Habit habit) {
+        if (replaced.isNotifyEnabled()) {
+            replaced.getHabitReminder().cancelReminders();
+        }
+        EventLog.getInstance().logEvent(new Event(
+                "Replaced habit \"" + replaced.getName() + "\" with id " + habit.getId() + " in habit manager"));
     }
 
     // REQUIRES: habit is in this.habits
     // MODIFIES: this, habit
     // EFFECTS: habit deleted from list of habits and reminders are cancelled if habit.isNotifyEnabled()
     public void deleteHabit(Habit habit) {
-        habits.remove(habit);
+        synchronized (this) {
+            unindex(habit);
+            orderSequences = null;
+        }
         if (habit.isNotifyEnabled()) {
             habit.getHabitReminder().cancelReminders();
         }
@@ -114,20 +188,25 @@ public class HabitManager {
     // MODIFIES: this
     // EFFECTS: disables reminders for all habits
     public void turnOffReminders() {
-        for (Habit h : habits) {
+        loadArchivedHabits();
+        for (Habit h : view) {
             if (h.isNotifyEnabled()) {
                 h.toggleNotifyEnabled();
             }
         }
     }
 
-    // EFFECTS: returns habit manager as a JSONObject
+    // MODIFIES: this
+    // EFFECTS: returns habit manager as a JSONObject stamped with JSON_VERSION, archived habits are loaded first if
+    //          they have not been
     public JSONObject toJson() {
+        loadArchivedHabits();
         JSONObject json = new JSONObject();
-        json.put("username", username);
-        json.put("isAutoSave", HabitManager.isAutoSave);
-        json.put("achievementToastsEnabled", achievementToastsEnabled);
-        json.put("hideOnClose", hideOnClose);
+        json.put("version", JSON_VERSION);
+        json.put("username", profile.getUsername());
+        json.put("isAutoSave", profile.isAutoSave());
+        json.put("achievementToastsEnabled", profile.isAchievementToastsEnabled());
+        json.put("hideOnClose", profile.isHideOnClose());
         json.put("habits", habitsToJson());
         return json;
     }
@@ -135,9 +214,122 @@ public class HabitManager {
     // EFFECTS: returns habits habits as a JSONArray
     private JSONArray habitsToJson() {
         JSONArray jsonArray = new JSONArray();
-        for (Habit h : habits) {
+        for (Habit h : view) {
             jsonArray.put(h.toJson());
         }
         return jsonArray;
     }
-}
\ No newline at end of file
+
+    // MODIFIES: this
+    // EFFECTS: moves habit to the indexes of its current period and archived state after either changed, keeping its
+    //          place in order, nothing happens if habit is not in this
+    synchronized void reindex(Habit habit) {
+        Long sequence = sequences.get(habit);
+        if (sequence != null) {
+            removeFromIndexes(sequence);
+            addToIndexes(habit, sequence);
+        }
+    }
+
+    // MODIFIES: this, replaced, habit
+    // EFFECTS: puts habit in the place of replaced in order and in every index
+    private void swap(Habit replaced, Habit habit) {
+        long sequence = sequences.get(replaced);
+        unindex(replaced);
+        index(habit, sequence);
+    }
+
+    // MODIFIES: this, habit
+    // EFFECTS: adds habit at the place in order given by sequence and to every index
+    private void index(Habit habit, long sequence) {
+        habit.setManager(this);
+        sequences.put(habit, sequence);
+        habits.put(sequence, habit);
+        byId.put(habit.getId(), habit);
+        addToIndexes(habit, sequence);
+        size++;
+        order = null;
+    }
+
+    // MODIFIES: this, habit
+    // EFFECTS: removes habit from its place in order and from every index, if it is in this
+    private void unindex(Habit habit) {
+        Long sequence = sequences.remove(habit);
+        if (sequence == null) {
+            return;
+        }
+        if (habit.getManager() == this) {
+            habit.setManager(null);
+        }
+        habits.remove(sequence);
+        byId.remove(habit.getId(), habit);
+        removeFromIndexes(sequence);
+        size--;
+        order = null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds habit under sequence to the indexes of its period and archived state
+    private void addToIndexes(Habit habit, long sequence) {
+        byPeriod.get(habit.getPeriod()).put(sequence, habit);
+        (habit.isArchived() ? archived : active).put(sequence, habit);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the habit under sequence from the period and archived state indexes
+    private void removeFromIndexes(long sequence) {
+        for (NavigableMap<Long, Habit> indexed : byPeriod.values()) {
+            indexed.remove(sequence);
+        }
+        active.remove(sequence);
+        archived.remove(sequence);
+    }
+
+    // REQUIRES: the lock of this is held
+    // MODIFIES: this
+    // EFFECTS: returns the sequence numbers of the habits in order, which are only listed again after habits are
+    //          added or removed
+    private long[] getOrderSequences() {
+        if (orderSequences == null) {
+            orderSequences = habits.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+        return orderSequences;
+    }
+
+    // EFFECTS: returns the habits in order as an immutable list, which is only copied out of the ordered habits the
+    //          first time it is needed after habits are added or removed
+    private List<Habit> getOrder() {
+        List<Habit> current = order;
+        if (current == null) {
+            synchronized (this) {
+                if (order == null) {
+                    order = List.copyOf(habits.values());
+                }
+                current = order;
+            }
+        }
+        return current;
+    }
+
+    // Represents the habits of this habit manager as a read-only list in order, backed by the latest snapshot
+    private final class HabitListView extends AbstractList<Habit> {
+
+        // EFFECTS: returns the habit at index in order
+        @Override
+        public Habit get(int index) {
+            return getOrder().get(index);
+        }
+
+        // EFFECTS: returns the number of habits
+        @Override
+        public int size() {
+            return getOrder().size();
+        }
+
+        // EFFECTS: returns an iterator over the habits as they are now, later changes are not seen by it
+        @Override
+        public Iterator<Habit> iterator() {
+            return getOrder().iterator();
+        }
+    }
+}
@@ -5,13 +5,14 @@ import org.json.JSONObject;
 // Statistics for a habit, with the number of consecutive period completions,
 // the all-time best streak, the number of times the habit was
 // marked as complete, the total number of successful periods,
-// and the number of periods tracked
+// and the number of periods tracked, every method that modifies statistics holds their lock while fields are
+// volatile so that reading them never waits
 public class HabitStatistics {
-    private int streak;
-    private int bestStreak;
-    private int totalNumSuccess;
-    private int numPeriodSuccess;
-    private int numPeriod;
+    private volatile int streak;
+    private volatile int bestStreak;
+    private volatile int totalNumSuccess;
+    private volatile int numPeriodSuccess;
+    private volatile int numPeriod;
 
     // EFFECTS: constructs habit statistics with all fields set to 0
     public HabitStatistics() {
@@ -66,19 +67,19 @@ public class HabitStatistics {
 
     // MODIFIES: this
     // EFFECTS: resets this.streak to 0
-    public void resetStreak() {
+    public synchronized void resetStreak() {
         streak = 0;
     }
 
     // MODIFIES: this
     // EFFECTS: resets all fields to 0
-    public void resetStats() {
+    public synchronized void resetStats() {
         streak = bestStreak = totalNumSuccess = numPeriodSuccess = numPeriod = 0;
     }
 
     // MODIFIES: this
     // EFFECTS: increments streak, if streak > bestStreak, then increments bestStreak too
-    public void incrementStreak() {
+    public synchronized void incrementStreak() {
         streak++;
         if (streak > bestStreak) {
             bestStreak++;
@@ -87,26 +88,33 @@ public class HabitStatistics {
 
     // MODIFIES: this
     // EFFECTS: increments totalNumSuccess
-    public void incrementTotalNumSuccess() {
+    public synchronized void incrementTotalNumSuccess() {
         totalNumSuccess++;
     }
 
     // MODIFIES: this
     // EFFECTS: increments numPeriodSuccess
-    public void incrementNumPeriodSuccess() {
+    public synchronized void incrementNumPeriodSuccess() {
         numPeriodSuccess++;
     }
 
     // MODIFIES: this
     // EFFECTS: increments numPeriod
-    public void incrementNumPeriod() {
+    public synchronized void incrementNumPeriod() {
         numPeriod++;
     }
 
+    // REQUIRES: count >= 0
+    // MODIFIES: this
+    // EFFECTS: adds count to numPeriod
+    public synchronized void incrementNumPeriod(int count) {
+        numPeriod += count;
+    }
+
     // REQUIRES: streak > 0
     // MODIFIES: this
     // EFFECTS: decrements streak, if streak == bestStreak, then decrement bestStreak too
-    public void decrementStreak() {
+    public synchronized void decrementStreak() {
         if (streak == bestStreak) {
             bestStreak--;
         }
@@ -116,14 +124,14 @@ public class HabitStatistics {
     // REQUIRES: totalNumSuccess > 0
     // MODIFIES: this
     // EFFECTS: decrements totalNumSuccess
-    public void decrementTotalNumSuccess() {
+    public synchronized void decrementTotalNumSuccess() {
         totalNumSuccess--;
     }
 
     // REQUIRES: numPeriodSuccess > 0
     // MODIFIES: this
     // EFFECTS: decrements numPeriodSuccess
-    public void decrementNumPeriodSuccess() {
+    public synchronized void decrementNumPeriodSuccess() {
         numPeriodSuccess--;
     }
 
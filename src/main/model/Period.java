@@ -1,8 +1,38 @@
 package model;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
 // Represents daily, weekly, or monthly habits
 public enum Period {
     DAILY,
     WEEKLY,
-    MONTHLY
-}
\ No newline at end of file
+    MONTHLY;
+
+    // REQUIRES: periodEnd is at 23:59 on the last day of a period of this length
+    // EFFECTS: returns how many periods of this length have ended by now, counting the period ending at periodEnd and
+    //          every period after it, a period ends one minute after 23:59 on its last day; the count takes constant
+    //          time however far apart periodEnd and now are
+    public long countEnded(LocalDateTime periodEnd, LocalDateTime now) {
+        return countEnded(periodEnd.toLocalDate(), now.toLocalDate());
+    }
+
+    // REQUIRES: lastDay is the last day of a period of this length
+    // EFFECTS: returns how many periods of this length have ended by today, counting the period ending on lastDay
+    //          and every period after it
+    public long countEnded(LocalDate lastDay, LocalDate today) {
+        if (!today.isAfter(lastDay)) {
+            return 0;
+        }
+        switch (this) {
+            case DAILY:
+                return ChronoUnit.DAYS.between(lastDay, today);
+            case WEEKLY:
+                return (ChronoUnit.DAYS.between(lastDay, today) + 6) / 7;
+            default:
+                return ChronoUnit.MONTHS.between(YearMonth.from(lastDay), YearMonth.from(today));
+        }
+    }
+}
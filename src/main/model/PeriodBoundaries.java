@@ -0,0 +1,97 @@
+package model;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Represents the ends of the current and next day, week and month as seen from one day in one time zone, each end
+// is at 23:59, the current ends are also kept in epoch minutes so that a period end can be checked against them with
+// a single comparison, the boundaries last computed are shared by every habit whose clock reads a time in the same
+// day and zone, so that updating many habits computes the boundaries once per day instead of once per habit
+public final class PeriodBoundaries {
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int END_OF_DAY = MINUTES_PER_DAY - 1;
+    private static final int SATURDAY = 5;
+    private static volatile PeriodBoundaries latest;
+
+    private final ZoneId zone;
+    private final LocalDate today;
+    private final long validFromMillis;
+    private final long validUntilMillis;
+    private final long[] currentEndMinutes;
+    private final LocalDateTime[] currentEnds;
+    private final LocalDateTime[] nextEnds;
+
+    // EFFECTS: constructs the boundaries seen from today in zone
+    private PeriodBoundaries(ZoneId zone, LocalDate today) {
+        this.zone = zone;
+        this.today = today;
+        this.validFromMillis = today.atStartOfDay(zone).toInstant().toEpochMilli();
+        this.validUntilMillis = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        this.currentEndMinutes = new long[Period.values().length];
+        this.currentEnds = new LocalDateTime[Period.values().length];
+        this.nextEnds = new LocalDateTime[Period.values().length];
+        long day = today.toEpochDay();
+        long saturday = day + Math.floorMod(SATURDAY - Math.floorMod(day + 3, 7), 7);
+        long lastOfMonth = today.withDayOfMonth(today.lengthOfMonth()).toEpochDay();
+        LocalDate nextMonth = today.plusMonths(1);
+        long lastOfNextMonth = nextMonth.withDayOfMonth(nextMonth.lengthOfMonth()).toEpochDay();
+        setEnds(Period.DAILY, day, day + 1);
+        setEnds(Period.WEEKLY, saturday, saturday + 7);
+        setEnds(Period.MONTHLY, lastOfMonth, lastOfNextMonth);
+    }
+
+    // EFFECTS: returns the boundaries seen from the day clock reads now, the boundaries last computed are returned
+    //          without reading the date if clock is in the same zone and their day has not ended
+    public static PeriodBoundaries at(Clock clock) {
+        long millis = clock.millis();
+        ZoneId zone = clock.getZone();
+        PeriodBoundaries cached = latest;
+        if (cached != null && cached.contains(zone, millis)) {
+            return cached;
+        }
+        PeriodBoundaries computed = new PeriodBoundaries(zone, LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone));
+        latest = computed;
+        return computed;
+    }
+
+    public LocalDate getToday() {
+        return this.today;
+    }
+
+    // EFFECTS: returns the end of the current period of the given length
+    public LocalDateTime getCurrentEnd(Period period) {
+        return currentEnds[period.ordinal()];
+    }
+
+    // EFFECTS: returns the end of the period of the given length after the current one
+    public LocalDateTime getNextEnd(Period period) {
+        return nextEnds[period.ordinal()];
+    }
+
+    // REQUIRES: periodEnd is at 23:59 on the last day of a period of the given length
+    // EFFECTS: returns how many periods of the given length have ended by today, counting the period ending at
+    //          periodEnd and every period after it, a periodEnd that is not before the end of the current period is
+    //          recognised in epoch minutes without any date being computed
+    public long countEnded(Period period, LocalDateTime periodEnd) {
+        if (BinaryEncoding.toEpochMinutes(periodEnd) >= currentEndMinutes[period.ordinal()]) {
+            return 0;
+        }
+        return period.countEnded(periodEnd.toLocalDate(), today);
+    }
+
+    // EFFECTS: returns true if these are the boundaries for the time millis in zone
+    private boolean contains(ZoneId zone, long millis) {
+        return millis >= validFromMillis && millis < validUntilMillis && this.zone.equals(zone);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the ends of the current and next period of the given length to 23:59 on the given epoch days
+    private void setEnds(Period period, long currentLastDay, long nextLastDay) {
+        currentEndMinutes[period.ordinal()] = currentLastDay * MINUTES_PER_DAY + END_OF_DAY;
+        currentEnds[period.ordinal()] = BinaryEncoding.fromEpochMinutes(currentEndMinutes[period.ordinal()]);
+        nextEnds[period.ordinal()] = BinaryEncoding.fromEpochMinutes(nextLastDay * MINUTES_PER_DAY + END_OF_DAY);
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import model.log.Event;
+import model.log.EventLog;
+
+// Represents the settings of a user, which are username, whether auto save is on, whether achievement toasts are
+// shown and whether the application hides on close, every habit manager has a profile of its own so that habit
+// managers of many users can be held at once, settings are read by the save and reminder threads as well as the
+// event dispatch thread so every change is seen by them at once
+public class UserProfile {
+    private volatile String username;
+    private volatile boolean isAutoSave;
+    private volatile boolean achievementToastsEnabled;
+    private volatile boolean hideOnClose;
+
+    // EFFECTS: constructs a profile with no username, by default auto save is off, achievement toasts are enabled
+    //          and the application hides on close
+    public UserProfile() {
+        this(null, false, true, true);
+    }
+
+    // EFFECTS: constructs a profile with the given settings
+    public UserProfile(String username, boolean isAutoSave, boolean achievementToastsEnabled, boolean hideOnClose) {
+        this.username = username;
+        this.isAutoSave = isAutoSave;
+        this.achievementToastsEnabled = achievementToastsEnabled;
+        this.hideOnClose = hideOnClose;
+    }
+
+    public String getUsername() {
+        return this.username;
+    }
+
+    // EFFECTS: returns whether auto save is enabled
+    public boolean isAutoSave() {
+        return this.isAutoSave;
+    }
+
+    // EFFECTS: returns whether achievement toasts are enabled
+    public boolean isAchievementToastsEnabled() {
+        return this.achievementToastsEnabled;
+    }
+
+    // EFFECTS: returns true if application will hide on close, false if application will exit on close
+    public boolean isHideOnClose() {
+        return this.hideOnClose;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets this.username to given username
+    public void setUsername(String username) {
+        this.username = username;
+        EventLog.getInstance().logEvent(new Event("Username set to \"" + username + "\""));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: toggles this.isAutoSave
+    public synchronized void toggleAutoSave() {
+        this.isAutoSave = !this.isAutoSave;
+        EventLog.getInstance().logEvent(new Event("Auto save turned " + (this.isAutoSave ? "on" : "off")));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: toggles this.achievementToastsEnabled
+    public synchronized void toggleAchievementToastsEnabled() {
+        this.achievementToastsEnabled = !this.achievementToastsEnabled;
+        EventLog.getInstance().logEvent(
+                new Event("Achievement toasts turned " + (this.achievementToastsEnabled ? "on" : "off")));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: toggles this.hideOnClose
+    public synchronized void toggleHideOnClose() {
+        this.hideOnClose = !this.hideOnClose;
+        EventLog.getInstance().logEvent(
+                new Event("Application set to " + (this.hideOnClose ? "hide on close" : "exit on close")));
+    }
+}
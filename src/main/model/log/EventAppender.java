@@ -0,0 +1,14 @@
+package model.log;
+
+// Represents a destination events are handed to as they are logged, such as a log file written on another thread
+public interface EventAppender {
+    // EFFECTS: accepts event to be recorded, returns without waiting for it to be written
+    void append(Event event);
+
+    // EFFECTS: waits until every event appended so far has been written
+    void flush();
+
+    // MODIFIES: this
+    // EFFECTS: writes every event appended so far and releases the destination, later events are ignored
+    void close();
+}
@@ -1,7 +1,8 @@
 package model.log;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
 
 // Taken from https://github.students.cs.ubc.ca/CPSC210/AlarmSystem
@@ -10,18 +11,23 @@ import java.util.Iterator;
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ * Only the most recent TAIL_SIZE events are kept in memory, every
+ * event is also handed to the appender, if there is one, to be kept.
  */
 public class EventLog implements Iterable<Event> {
+    /** the number of most recent events kept in memory */
+    public static final int TAIL_SIZE = 1000;
     /** the only EventLog in the system (Singleton Design Pattern) */
     private static EventLog theLog;
-    private Collection<Event> events;
+    private Deque<Event> events;
+    private EventAppender appender;
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<>();
+        events = new ArrayDeque<>();
     }
 
     /**
@@ -30,7 +36,7 @@ public class EventLog implements Iterable<Event> {
      * (Singleton Design Pattern)
      * @return  instance of EventLog
      */
-    public static EventLog getInstance() {
+    public static synchronized EventLog getInstance() {
         if (theLog == null) {
             theLog = new EventLog();
         }
@@ -39,23 +45,59 @@ public class EventLog implements Iterable<Event> {
     }
 
     /**
-     * Adds an event to the event log.
+     * Sets the appender every event logged from now on is handed to,
+     * closing the previous appender if there was one.
+     * @param appender the appender, or null to only keep events in memory
+     */
+    public synchronized void setAppender(EventAppender appender) {
+        if (this.appender != null) {
+            this.appender.close();
+        }
+        this.appender = appender;
+    }
+
+    /**
+     * Adds an event to the event log, dropping the oldest event in
+     * memory once there are more than TAIL_SIZE, and hands it to the appender.
      * @param e the event to be added
      */
-    public void logEvent(Event e) {
-        events.add(e);
+    public synchronized void logEvent(Event e) {
+        if (events.size() == TAIL_SIZE) {
+            events.removeFirst();
+        }
+        events.addLast(e);
+        if (appender != null) {
+            appender.append(e);
+        }
+    }
+
+    /**
+     * Waits until the appender, if there is one, has written every event logged so far.
+     */
+    public void flush() {
+        EventAppender current;
+        synchronized (this) {
+            current = appender;
+        }
+        if (current != null) {
+            current.flush();
+        }
     }
 
     /**
      * Clears the event log and logs the event.
      */
-    public void clear() {
+    public synchronized void clear() {
         events.clear();
         logEvent(new Event("Event log cleared."));
     }
 
+    /**
+     * Iterates over a copy of the events in memory, so events may be
+     * logged by other threads while iterating.
+     */
     @Override
-    public Iterator<Event> iterator() {
-        return events.iterator();
+    public synchronized Iterator<Event> iterator() {
+        return new ArrayList<>(events).iterator();
     }
-}
\ No newline at end of file
+}
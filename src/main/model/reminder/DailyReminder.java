@@ -45,7 +45,7 @@ public class DailyReminder extends HabitReminder {
             reminders.add(reminderDateTime);
             reminderDateTime = reminderDateTime.plusHours(hours).plusMinutes(minutes);
         }
-        reminderScheduler.scheduleReminders(getActiveReminders(), habit);
+        getReminderScheduler().scheduleReminders(getActiveReminders(), habit);
     }
 
     // REQUIRES: no reminders scheduled yet for this period, isDefault is false
@@ -59,7 +59,7 @@ public class DailyReminder extends HabitReminder {
             newReminders.add(newDateTime);
         }
         reminders = newReminders;
-        reminderScheduler.scheduleReminders(getActiveReminders(), habit);
+        getReminderScheduler().scheduleReminders(getActiveReminders(), habit);
     }
 
     // EFFECTS: returns a LocalDateTime object representing the reminder at the given time today
@@ -44,14 +44,28 @@ public abstract class HabitReminder {
         return this.clock;
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns the reminder scheduler, binding a new one first if this was loaded without one
     public ReminderScheduler getReminderScheduler() {
+        if (reminderScheduler == null) {
+            reminderScheduler = new ReminderScheduler();
+        }
         return this.reminderScheduler;
     }
 
+    // EFFECTS: returns true if a reminder scheduler has been bound to this
+    public boolean hasReminderScheduler() {
+        return this.reminderScheduler != null;
+    }
+
     public void setClock(Clock clock) {
         this.clock = clock;
     }
 
+    public void setReminderScheduler(ReminderScheduler reminderScheduler) {
+        this.reminderScheduler = reminderScheduler;
+    }
+
     // EFFECTS: returns true if the reminder is default, false if it is custom
     public boolean isDefault() {
         return this.isDefault;
@@ -62,10 +76,11 @@ public abstract class HabitReminder {
     // EFFECTS: distributes default reminders into this.reminders
     public abstract void updateDefaultReminders();
 
-    // MODIFIES: this
-    // EFFECTS: cancels existing reminders, then updates reminders based on current time
+    // MODIFIES: this, habit
+    // EFFECTS: cancels existing reminders, then updates reminders based on current time, marks habit as dirty
     public void updateReminders() {
         cancelReminders();
+        markHabitDirty();
         if (isDefault) {
             updateDefaultReminders();
         } else {
@@ -96,7 +111,8 @@ public abstract class HabitReminder {
         cancelReminders();
         isDefault = false;
         reminders = newReminders;
-        reminderScheduler.scheduleReminders(getActiveReminders(), habit);
+        markHabitDirty();
+        getReminderScheduler().scheduleReminders(getActiveReminders(), habit);
     }
 
     // MODIFIES: this
@@ -112,7 +128,15 @@ public abstract class HabitReminder {
         for (LocalDateTime reminder : reminders) {
             String jobId = reminder.toString();
             String groupId = habit.getId().toString();
-            reminderScheduler.cancelReminder(jobId, groupId);
+            getReminderScheduler().cancelReminder(jobId, groupId);
+        }
+    }
+
+    // MODIFIES: habit
+    // EFFECTS: records that habit needs to be saved again since its reminders changed
+    protected void markHabitDirty() {
+        if (habit != null) {
+            habit.markDirty();
         }
     }
 
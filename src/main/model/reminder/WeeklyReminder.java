@@ -41,7 +41,7 @@ public class WeeklyReminder extends HabitReminder {
             reminders.add(reminderDateTime);
             reminderDateTime = reminderDateTime.plusDays(1);
         }
-        reminderScheduler.scheduleReminders(getActiveReminders(), habit);
+        getReminderScheduler().scheduleReminders(getActiveReminders(), habit);
     }
 
     // REQUIRES: no reminders scheduled yet for this period, isDefault is false
@@ -55,7 +55,7 @@ public class WeeklyReminder extends HabitReminder {
             newReminders.add(newDateTime);
         }
         reminders = newReminders;
-        reminderScheduler.scheduleReminders(getActiveReminders(), habit);
+        getReminderScheduler().scheduleReminders(getActiveReminders(), habit);
     }
 
     // EFFECTS: returns a LocalDateTime object representing the reminder for the given day and time
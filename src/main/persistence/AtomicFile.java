@@ -0,0 +1,96 @@
+package persistence;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Represents a file that is only ever replaced as a whole, new content is written to a temporary file next to it,
+// forced to disk and then renamed over the file, so a crash part way through a save leaves the previous content
+public class AtomicFile {
+    private final String path;
+    private final String tempPath;
+
+    // EFFECTS: constructs an atomic file at the given path
+    public AtomicFile(String path) {
+        this.path = path;
+        this.tempPath = path + ".tmp";
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    // EFFECTS: writes bytes to the file atomically; throws IOException if the file cannot be written
+    public static void write(String path, byte[] bytes) throws IOException {
+        AtomicFile file = new AtomicFile(path);
+        FileOutputStream out = file.startWrite();
+        try {
+            out.write(bytes);
+        } catch (IOException e) {
+            file.failWrite(out);
+            throw e;
+        }
+        file.finishWrite(out);
+    }
+
+    // EFFECTS: opens the temporary file for writing and returns its stream, the file itself is left untouched;
+    //          throws FileNotFoundException if the temporary file cannot be opened
+    public FileOutputStream startWrite() throws FileNotFoundException {
+        return new FileOutputStream(tempPath);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: forces everything written to out to disk, closes it and renames the temporary file over the file;
+    //          throws IOException if any of these fail, in which case the file keeps its previous content
+    public void finishWrite(FileOutputStream out) throws IOException {
+        try {
+            out.flush();
+            out.getFD().sync();
+            out.close();
+            move(Paths.get(tempPath), Paths.get(path));
+        } catch (IOException e) {
+            failWrite(out);
+            throw e;
+        }
+        syncDirectory();
+    }
+
+    // MODIFIES: out
+    // EFFECTS: closes out and deletes the temporary file, the file keeps its previous content, returns false if the
+    //          temporary file could not be closed or deleted
+    public boolean failWrite(FileOutputStream out) {
+        try {
+            out.close();
+            Files.deleteIfExists(Paths.get(tempPath));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // EFFECTS: renames source over target, atomically if the file system supports it
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // EFFECTS: forces the rename to disk by syncing the parent directory, where the platform allows it
+    private void syncDirectory() {
+        Path directory = Paths.get(path).toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // directories cannot be opened for syncing on every platform, the rename itself has already happened
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package persistence;
+
+import model.Habit;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Represents an auto save scheduler that merges bursts of changes into a single write, changes are written once
+// none have been made for the quiet period, or once the oldest unwritten change is as old as the maximum delay
+public class AutoSaveScheduler {
+    private final long quietMillis;
+    private final long maxDelayMillis;
+    private final Consumer<PendingChanges> writer;
+    private final Executor writerExecutor;
+    private final ScheduledExecutorService timer;
+    private PendingChanges pending;
+    private ScheduledFuture<?> scheduled;
+    private long firstChangeAt;
+    private int changeCount;
+    private int writeCount;
+
+    // REQUIRES: 0 <= quietMillis <= maxDelayMillis
+    // EFFECTS: constructs a scheduler that hands merged changes to writer, writer is always run by writerExecutor
+    public AutoSaveScheduler(long quietMillis, long maxDelayMillis,
+                             Consumer<PendingChanges> writer, Executor writerExecutor) {
+        this.quietMillis = quietMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.writer = writer;
+        this.writerExecutor = writerExecutor;
+        this.pending = new PendingChanges();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "habit-auto-save");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public synchronized int getChangeCount() {
+        return this.changeCount;
+    }
+
+    public synchronized int getWriteCount() {
+        return this.writeCount;
+    }
+
+    // EFFECTS: returns the number of writes avoided by merging changes
+    public synchronized int getWritesSaved() {
+        return this.changeCount - this.writeCount;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records mutation of habit and schedules a write
+    public synchronized void changeMade(Habit habit, HabitMutation mutation) {
+        pending.add(habit, mutation);
+        schedule();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a change that needs the whole habit manager to be saved and schedules a write
+    public synchronized void changeMade() {
+        pending.addFullSave();
+        schedule();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes any pending changes right away on the calling thread
+    public void flush() {
+        PendingChanges changes = takePending();
+        if (changes != null) {
+            writer.accept(changes);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes any pending changes and stops the scheduler
+    public void close() {
+        flush();
+        timer.shutdownNow();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts a change and reschedules the write to after the quiet period, but no later than
+    //          the maximum delay after the first change that has not been written yet
+    private void schedule() {
+        long now = System.currentTimeMillis();
+        if (scheduled == null) {
+            firstChangeAt = now;
+        } else {
+            scheduled.cancel(false);
+        }
+        changeCount++;
+        long delay = Math.max(0, Math.min(quietMillis, firstChangeAt + maxDelayMillis - now));
+        scheduled = timer.schedule(this::write, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hands pending changes to writer on the writer executor
+    private void write() {
+        PendingChanges changes = takePending();
+        if (changes != null) {
+            writerExecutor.execute(() -> writer.accept(changes));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the pending changes and starts a new set of them, or returns null if there are none,
+    //          counts a write if there were changes
+    private synchronized PendingChanges takePending() {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+        if (pending.isEmpty()) {
+            return null;
+        }
+        PendingChanges changes = pending;
+        pending = new PendingChanges();
+        writeCount++;
+        return changes;
+    }
+}
@@ -0,0 +1,343 @@
+package persistence;
+
+import model.log.Event;
+import model.log.EventLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Represents rolling backups kept in a directory as chains, each chain starts with a full base snapshot followed by
+// deltas that only hold the settings and the habits, keyed by id, added, changed or deleted since the previous backup,
+// a new chain is started once a chain has too many deltas or its deltas outgrow its base and only the newest chains
+// are kept, any backup can be restored by replaying the deltas of its chain onto its base
+public class BackupStore {
+    public static final byte[] MAGIC = {'H', 'H', 'B', 'D'};
+    public static final int VERSION = 1;
+    public static final int DEFAULT_MAX_DELTAS = 50;
+    public static final int DEFAULT_KEEP_CHAINS = 3;
+    private static final String BASE_EXTENSION = ".base";
+    private static final String DELTA_EXTENSION = ".delta";
+    private static final int HAS_SETTINGS = 1;
+
+    private final Path directory;
+    private final SnapshotStore source;
+    private final Clock clock;
+    private final int maxDeltas;
+    private final int keepChains;
+    private Map<UUID, Integer> checksums;
+    private int settingsChecksum;
+    private int chainDeltas;
+    private long chainBytes;
+    private long baseBytes;
+    private long lastTime;
+
+    // EFFECTS: constructs a backup store in the given directory with the default retention policy,
+    //          records of deferred habits are read from source
+    public BackupStore(String directory, SnapshotStore source) {
+        this(directory, source, Clock.systemUTC(), DEFAULT_MAX_DELTAS, DEFAULT_KEEP_CHAINS);
+    }
+
+    // REQUIRES: maxDeltas >= 0, keepChains >= 1
+    // EFFECTS: constructs a backup store in the given directory that timestamps backups with clock, starts a new chain
+    //          once a chain has maxDeltas deltas and keeps the newest keepChains chains,
+    //          records of deferred habits are read from source
+    public BackupStore(String directory, SnapshotStore source, Clock clock, int maxDeltas, int keepChains) {
+        this.directory = Paths.get(directory);
+        this.source = source;
+        this.clock = clock;
+        this.maxDeltas = maxDeltas;
+        this.keepChains = keepChains;
+    }
+
+    // EFFECTS: returns the times of all kept backups, oldest first; throws IOException if the directory cannot be read
+    public synchronized List<Instant> getBackupTimes() throws IOException {
+        List<Instant> times = new ArrayList<>();
+        for (Backup backup : listBackups()) {
+            times.add(Instant.ofEpochMilli(backup.time));
+        }
+        return times;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: backs up records as a new base if a new chain is due, otherwise as a delta against the previous backup,
+    //          returns false without writing anything if nothing changed since the previous backup;
+    //          throws IOException if the backup cannot be written
+    public synchronized boolean backup(SnapshotRecords records) throws IOException {
+        if (checksums == null) {
+            recoverState();
+        }
+        long time = Math.max(clock.millis(), lastTime + 1);
+        if (checksums == null || chainDeltas >= maxDeltas || chainBytes >= baseBytes) {
+            writeBase(records, time);
+            prune();
+            return true;
+        }
+        return writeDelta(records, time);
+    }
+
+    // EFFECTS: returns the records of the newest backup taken at or before time;
+    //          throws IOException if there is no such backup or it cannot be read
+    public synchronized SnapshotRecords restore(Instant time) throws IOException {
+        List<Backup> backups = listBackups();
+        int base = findBase(backups, time.toEpochMilli());
+        if (base < 0) {
+            throw new IOException("No backup at or before " + time);
+        }
+        return replay(backups, base, time.toEpochMilli());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the state of the newest backup so the next backup can be taken against it,
+    //          nothing is remembered if there is no backup yet
+    private void recoverState() throws IOException {
+        List<Backup> backups = listBackups();
+        int base = findBase(backups, Long.MAX_VALUE);
+        if (!backups.isEmpty()) {
+            lastTime = backups.get(backups.size() - 1).time;
+        }
+        if (base < 0) {
+            return;
+        }
+        remember(replay(backups, base, Long.MAX_VALUE));
+        baseBytes = Files.size(backups.get(base).path);
+        chainDeltas = backups.size() - base - 1;
+        chainBytes = 0;
+        for (Backup delta : backups.subList(base + 1, backups.size())) {
+            chainBytes += Files.size(delta.path);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes records as the base of a new chain, deferred habits are read from source, a deferred habit
+    //          whose record is corrupt is left out, source having set it aside, so the rest are still backed up
+    private void writeBase(SnapshotRecords records, long time) throws IOException {
+        SnapshotRecords full = new SnapshotRecords(records.getSettings());
+        for (byte[] record : records.getHabits().values()) {
+            full.putHabit(record);
+        }
+        for (UUID id : records.getDeferred()) {
+            try {
+                full.putHabit(source.readRecord(id));
+            } catch (CorruptRecordException e) {
+                EventLog.getInstance().logEvent(new Event(e.getMessage()));
+            }
+        }
+        Files.createDirectories(directory);
+        Path path = directory.resolve(time + BASE_EXTENSION);
+        full.write(path.toString());
+        remember(full);
+        baseBytes = Files.size(path);
+        chainDeltas = 0;
+        chainBytes = 0;
+        lastTime = time;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the changes from the previous backup to records as a delta and returns true,
+    //          or returns false if there are none
+    private boolean writeDelta(SnapshotRecords records, long time) throws IOException {
+        Map<UUID, Integer> changed = getChanged(records);
+        Set<UUID> deleted = getDeleted(records);
+        int settings = BinaryCodec.checksum(records.getSettings());
+        if (changed.isEmpty() && deleted.isEmpty() && settings == settingsChecksum) {
+            return false;
+        }
+        byte[] body = encodeDelta(records, changed.keySet(), deleted, settings != settingsChecksum);
+        Files.createDirectories(directory);
+        Path path = directory.resolve(time + DELTA_EXTENSION);
+        AtomicFile.write(path.toString(), frame(body));
+        checksums.putAll(changed);
+        checksums.keySet().removeAll(deleted);
+        settingsChecksum = settings;
+        chainDeltas++;
+        chainBytes += Files.size(path);
+        lastTime = time;
+        return true;
+    }
+
+    // EFFECTS: returns the checksums of the habit records in records that differ from the previous backup, by id
+    private Map<UUID, Integer> getChanged(SnapshotRecords records) {
+        Map<UUID, Integer> changed = new LinkedHashMap<>();
+        for (Map.Entry<UUID, byte[]> entry : records.getHabits().entrySet()) {
+            int checksum = BinaryCodec.checksum(entry.getValue());
+            if (!Integer.valueOf(checksum).equals(checksums.get(entry.getKey()))) {
+                changed.put(entry.getKey(), checksum);
+            }
+        }
+        return changed;
+    }
+
+    // EFFECTS: returns the ids of habits in the previous backup that are neither held nor deferred in records
+    private Set<UUID> getDeleted(SnapshotRecords records) {
+        Set<UUID> deleted = new HashSet<>(checksums.keySet());
+        deleted.removeAll(records.getHabits().keySet());
+        deleted.removeAll(records.getDeferred());
+        return deleted;
+    }
+
+    // EFFECTS: returns the body of a delta holding the settings of records if hasSettings, the records of the changed
+    //          habits and the ids of the deleted habits
+    private static byte[] encodeDelta(SnapshotRecords records, Set<UUID> changed, Set<UUID> deleted,
+                                      boolean hasSettings) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(hasSettings ? HAS_SETTINGS : 0);
+        if (hasSettings) {
+            BinaryCodec.writeRecord(out, records.getSettings());
+        }
+        BinaryCodec.writeVarInt(out, changed.size());
+        for (UUID id : changed) {
+            BinaryCodec.writeRecord(out, records.getHabits().get(id));
+        }
+        BinaryCodec.writeVarInt(out, deleted.size());
+        for (UUID id : deleted) {
+            BinaryCodec.writeUuid(out, id);
+        }
+        return bytes.toByteArray();
+    }
+
+    // EFFECTS: returns body framed by the magic bytes and version before it and its CRC32 checksum after it
+    private static byte[] frame(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(MAGIC.length + 1 + body.length + Integer.BYTES);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.write(body);
+        out.writeInt(BinaryCodec.checksum(body));
+        return bytes.toByteArray();
+    }
+
+    // MODIFIES: records
+    // EFFECTS: applies the delta at path to records;
+    //          throws IOException if the delta cannot be read or is corrupt
+    private static void applyDelta(Path path, SnapshotRecords records) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int start = MAGIC.length + 1;
+        int end = bytes.length - Integer.BYTES;
+        if (end < start || !BinaryCodec.hasMagic(bytes, MAGIC) || bytes[MAGIC.length] != VERSION
+                || ByteBuffer.wrap(bytes, end, Integer.BYTES).getInt()
+                != BinaryCodec.checksum(Arrays.copyOfRange(bytes, start, end))) {
+            throw new IOException("Corrupt backup delta: " + path);
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, start, end - start));
+        if ((in.readByte() & HAS_SETTINGS) != 0) {
+            records.apply(HabitMutation.SETTINGS_CHANGED, BinaryCodec.readRecord(in));
+        }
+        int changed = BinaryCodec.readVarInt(in);
+        for (int i = 0; i < changed; i++) {
+            records.putHabit(BinaryCodec.readRecord(in));
+        }
+        int deleted = BinaryCodec.readVarInt(in);
+        for (int i = 0; i < deleted; i++) {
+            records.removeHabit(BinaryCodec.readUuid(in));
+        }
+    }
+
+    // EFFECTS: returns the records of the base at index base of backups with the deltas of its chain taken at or
+    //          before until applied to them
+    private static SnapshotRecords replay(List<Backup> backups, int base, long until) throws IOException {
+        SnapshotRecords records = SnapshotRecords.read(backups.get(base).path.toString());
+        for (int i = base + 1; i < backups.size() && !backups.get(i).isBase && backups.get(i).time <= until; i++) {
+            applyDelta(backups.get(i).path, records);
+        }
+        return records;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the checksums of the settings and habit records of records as the previous backup
+    private void remember(SnapshotRecords records) {
+        checksums = new HashMap<>();
+        for (Map.Entry<UUID, byte[]> entry : records.getHabits().entrySet()) {
+            checksums.put(entry.getKey(), BinaryCodec.checksum(entry.getValue()));
+        }
+        settingsChecksum = BinaryCodec.checksum(records.getSettings());
+    }
+
+    // EFFECTS: deletes every backup older than the base of the oldest chain to keep
+    private void prune() throws IOException {
+        List<Backup> backups = listBackups();
+        List<Backup> bases = backups.stream().filter(backup -> backup.isBase).collect(Collectors.toList());
+        if (bases.size() <= keepChains) {
+            return;
+        }
+        long oldestKept = bases.get(bases.size() - keepChains).time;
+        for (Backup backup : backups) {
+            if (backup.time < oldestKept) {
+                Files.deleteIfExists(backup.path);
+            }
+        }
+    }
+
+    // EFFECTS: returns the index in backups of the newest base taken at or before until, or -1 if there is none
+    private static int findBase(List<Backup> backups, long until) {
+        int base = -1;
+        for (int i = 0; i < backups.size() && backups.get(i).time <= until; i++) {
+            if (backups.get(i).isBase) {
+                base = i;
+            }
+        }
+        return base;
+    }
+
+    // EFFECTS: returns the bases and deltas in the directory, oldest first, other files are ignored
+    private List<Backup> listBackups() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Backup::parse)
+                    .filter(backup -> backup != null)
+                    .sorted(Comparator.comparingLong(backup -> backup.time))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Represents a base or delta file and the time it was taken
+    private static final class Backup {
+        private final Path path;
+        private final long time;
+        private final boolean isBase;
+
+        // EFFECTS: constructs a backup file at path taken at time
+        private Backup(Path path, long time, boolean isBase) {
+            this.path = path;
+            this.time = time;
+            this.isBase = isBase;
+        }
+
+        // EFFECTS: returns the backup file at path, or null if path is not named like a base or delta
+        private static Backup parse(Path path) {
+            String name = path.getFileName().toString();
+            boolean isBase = name.endsWith(BASE_EXTENSION);
+            if (!isBase && !name.endsWith(DELTA_EXTENSION)) {
+                return null;
+            }
+            String time = name.substring(0, name.lastIndexOf('.'));
+            if (time.isEmpty() || !time.chars().allMatch(Character::isDigit)) {
+                return null;
+            }
+            return new Backup(path, Long.parseLong(time), isBase);
+        }
+    }
+}
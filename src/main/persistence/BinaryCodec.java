@@ -0,0 +1,395 @@
+package persistence;
+
+import javafx.util.Pair;
+import model.BinaryEncoding;
+import model.CompletionLog;
+import model.Habit;
+import model.HabitManager;
+import model.UserProfile;
+import model.HabitStatistics;
+import model.Period;
+import model.reminder.DailyReminder;
+import model.reminder.HabitReminder;
+import model.reminder.MonthlyReminder;
+import model.reminder.WeeklyReminder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+// Encodes and decodes habits in the compact binary snapshot format,
+// UUIDs are stored as two longs, date times as minutes since the epoch, and enums as ordinals,
+// since version 2 the settings and every habit are length prefixed records that can be copied without decoding
+public class BinaryCodec {
+    public static final byte[] MAGIC = {'H', 'H', 'B', 'F'};
+    public static final int VERSION = 2;
+    private static final int NOTIFY_ENABLED = 1;
+    private static final int PREVIOUS_COMPLETE = 1 << 1;
+    private static final int ARCHIVED = 1 << 2;
+    private static final int HAS_REMINDER = 1 << 3;
+    private static final int DEFAULT_REMINDER = 1 << 4;
+    private static final int HAS_CUSTOM_REMINDERS = 1 << 5;
+    private static final int HAS_COMPLETIONS = 1 << 6;
+    private static final int AUTO_SAVE = 1;
+    private static final int ACHIEVEMENT_TOASTS = 1 << 1;
+    private static final int HIDE_ON_CLOSE = 1 << 2;
+    private static final int HAS_USERNAME = 1 << 3;
+    private final Clock clock;
+
+    // EFFECTS: constructs a codec that gives decoded habits the given clock
+    public BinaryCodec(Clock clock) {
+        this.clock = clock;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the magic bytes and format version
+    public static void writeHeader(DataOutput out) throws IOException {
+        out.write(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the magic bytes and format version and returns the version;
+    //          throws IOException if the magic bytes do not match or the version is not supported
+    public static int readHeader(DataInput in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!hasMagic(magic)) {
+            throw new IOException("Not a binary habit manager snapshot");
+        }
+        int version = in.readUnsignedShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported snapshot version " + version);
+        }
+        return version;
+    }
+
+    // EFFECTS: returns true if bytes start with the magic bytes of this format
+    public static boolean hasMagic(byte[] bytes) {
+        return hasMagic(bytes, MAGIC);
+    }
+
+    // EFFECTS: returns true if bytes start with the given magic bytes
+    public static boolean hasMagic(byte[] bytes, byte[] magic) {
+        if (bytes.length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (bytes[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes record prefixed by its length
+    public static void writeRecord(DataOutput out, byte[] record) throws IOException {
+        writeVarInt(out, record.length);
+        out.write(record);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads record written by writeRecord and returns it; throws IOException if the length is invalid
+    public static byte[] readRecord(DataInput in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0) {
+            throw new IOException("Invalid record length " + length);
+        }
+        byte[] record = new byte[length];
+        in.readFully(record);
+        return record;
+    }
+
+    // EFFECTS: returns the user settings of profile encoded as a record
+    public static byte[] encodeSettings(UserProfile profile) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeSettings(new DataOutputStream(bytes), profile);
+        return bytes.toByteArray();
+    }
+
+    // EFFECTS: decodes a settings record and returns an empty habit manager with those settings
+    public static HabitManager decodeSettings(byte[] record) throws IOException {
+        return readSettings(new DataInputStream(new ByteArrayInputStream(record)));
+    }
+
+    // EFFECTS: returns habit encoded as a record
+    public byte[] encodeHabit(Habit habit) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeHabit(new DataOutputStream(bytes), habit);
+        return bytes.toByteArray();
+    }
+
+    // EFFECTS: decodes a habit record and returns the habit, its reminder has no reminder scheduler yet
+    public Habit decodeHabit(byte[] record) throws IOException {
+        return readHabit(new DataInputStream(new ByteArrayInputStream(record)));
+    }
+
+    // REQUIRES: record was returned by encodeHabit
+    // EFFECTS: returns true if the habit encoded in record is archived, without decoding the rest of it
+    public static boolean isArchivedRecord(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.position(2 * Long.BYTES);
+        for (int i = 0; i < 2; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort());
+            buffer.position(buffer.position() + length);
+        }
+        return (buffer.get(buffer.position() + 2) & ARCHIVED) != 0;
+    }
+
+    // REQUIRES: record was returned by encodeHabit
+    // EFFECTS: returns the id of the habit encoded in record without decoding the rest of it
+    public static UUID getRecordId(byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes the user settings of profile as a flags byte followed by the username if there is one
+    public static void writeSettings(DataOutput out, UserProfile profile) throws IOException {
+        String username = profile.getUsername();
+        int flags = profile.isAutoSave() ? AUTO_SAVE : 0;
+        flags |= profile.isAchievementToastsEnabled() ? ACHIEVEMENT_TOASTS : 0;
+        flags |= profile.isHideOnClose() ? HIDE_ON_CLOSE : 0;
+        flags |= username != null ? HAS_USERNAME : 0;
+        out.writeByte(flags);
+        if (username != null) {
+            out.writeUTF(username);
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads user settings written by writeSettings and returns an empty habit manager with those settings
+    public static HabitManager readSettings(DataInput in) throws IOException {
+        int flags = in.readUnsignedByte();
+        String username = (flags & HAS_USERNAME) != 0 ? in.readUTF() : null;
+        return new HabitManager(username, (flags & AUTO_SAVE) != 0, (flags & ACHIEVEMENT_TOASTS) != 0,
+                (flags & HIDE_ON_CLOSE) != 0);
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes habit, its statistics, its reminder, and its completion log if it has any entries
+    public void writeHabit(DataOutput out, Habit habit) throws IOException {
+        writeUuid(out, habit.getId());
+        out.writeUTF(habit.getName());
+        out.writeUTF(habit.getDescription());
+        out.writeByte(habit.getPeriod().ordinal());
+        out.writeByte(habit.getFrequency());
+        out.writeByte(getFlags(habit));
+        writeVarInt(out, habit.getNumSuccess());
+        writeDateTime(out, habit.getCurrentPeriodEnd());
+        writeDateTime(out, habit.getNextPeriodEnd());
+        writeHabitStatistics(out, habit.getHabitStats());
+        if (habit.getHabitReminder() != null) {
+            writeHabitReminder(out, habit.getHabitReminder());
+        }
+        if (habit.getCompletionLog().getEntryCount() > 0) {
+            byte[] completions = habit.getCompletionLog().encode();
+            writeVarInt(out, completions.length);
+            out.write(completions);
+        }
+    }
+
+    // EFFECTS: returns the flags byte of habit
+    private int getFlags(Habit habit) {
+        HabitReminder reminder = habit.getHabitReminder();
+        int flags = habit.isNotifyEnabled() ? NOTIFY_ENABLED : 0;
+        flags |= habit.isPreviousComplete() ? PREVIOUS_COMPLETE : 0;
+        flags |= habit.isArchived() ? ARCHIVED : 0;
+        flags |= habit.getCompletionLog().getEntryCount() > 0 ? HAS_COMPLETIONS : 0;
+        if (reminder != null) {
+            flags |= HAS_REMINDER;
+            flags |= reminder.isDefault() ? DEFAULT_REMINDER : 0;
+            boolean hasCustom = reminder instanceof MonthlyReminder
+                    && ((MonthlyReminder) reminder).getCustomReminders() != null;
+            flags |= hasCustom ? HAS_CUSTOM_REMINDERS : 0;
+        }
+        return flags;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes habit statistics as five variable length ints
+    private void writeHabitStatistics(DataOutput out, HabitStatistics stats) throws IOException {
+        writeVarInt(out, stats.getStreak());
+        writeVarInt(out, stats.getBestStreak());
+        writeVarInt(out, stats.getTotalNumSuccess());
+        writeVarInt(out, stats.getNumPeriodSuccess());
+        writeVarInt(out, stats.getNumPeriod());
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes reminder date times, followed by custom monthly reminders if there are any
+    private void writeHabitReminder(DataOutput out, HabitReminder reminder) throws IOException {
+        writeVarInt(out, reminder.getReminders().size());
+        for (LocalDateTime dateTime : reminder.getReminders()) {
+            writeDateTime(out, dateTime);
+        }
+        if (reminder instanceof MonthlyReminder && ((MonthlyReminder) reminder).getCustomReminders() != null) {
+            Set<Pair<Integer, LocalTime>> customReminders = ((MonthlyReminder) reminder).getCustomReminders();
+            writeVarInt(out, customReminders.size());
+            for (Pair<Integer, LocalTime> pair : customReminders) {
+                out.writeByte(pair.getKey());
+                out.writeShort(pair.getValue().toSecondOfDay() / 60);
+            }
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads habit written by writeHabit and returns it, its reminder has no reminder scheduler yet
+    public Habit readHabit(DataInput in) throws IOException {
+        UUID id = readUuid(in);
+        String name = in.readUTF();
+        String description = in.readUTF();
+        Period period = readPeriod(in);
+        int frequency = in.readUnsignedByte();
+        int flags = in.readUnsignedByte();
+        int numSuccess = readVarInt(in);
+        LocalDateTime currentPeriodEnd = readDateTime(in);
+        LocalDateTime nextPeriodEnd = readDateTime(in);
+        HabitStatistics stats = readHabitStatistics(in);
+        Habit habit = new Habit(name, description, period, frequency, id, (flags & NOTIFY_ENABLED) != 0,
+                numSuccess, currentPeriodEnd, nextPeriodEnd, (flags & PREVIOUS_COMPLETE) != 0, clock, stats,
+                null, (flags & ARCHIVED) != 0);
+        if ((flags & HAS_REMINDER) != 0) {
+            habit.setHabitReminder(readHabitReminder(in, flags, habit));
+        }
+        if ((flags & HAS_COMPLETIONS) != 0) {
+            habit.setCompletionLog(readCompletionLog(in));
+        }
+        return habit;
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the length prefixed completion log written by writeHabit and returns it;
+    //          throws IOException if it is malformed
+    private CompletionLog readCompletionLog(DataInput in) throws IOException {
+        byte[] completions = new byte[readVarInt(in)];
+        in.readFully(completions);
+        try {
+            return CompletionLog.decode(completions);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed completion log", e);
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads period ordinal and returns the period; throws IOException if the ordinal is unknown
+    private Period readPeriod(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= Period.values().length) {
+            throw new IOException("Unknown period ordinal " + ordinal);
+        }
+        return Period.values()[ordinal];
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads habit statistics and returns it
+    private HabitStatistics readHabitStatistics(DataInput in) throws IOException {
+        int streak = readVarInt(in);
+        int bestStreak = readVarInt(in);
+        int totalNumSuccess = readVarInt(in);
+        int numPeriodSuccess = readVarInt(in);
+        int numPeriod = readVarInt(in);
+        return new HabitStatistics(streak, bestStreak, totalNumSuccess, numPeriodSuccess, numPeriod);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads habit reminder of habit's period and returns it without a reminder scheduler
+    private HabitReminder readHabitReminder(DataInput in, int flags, Habit habit) throws IOException {
+        boolean isDefault = (flags & DEFAULT_REMINDER) != 0;
+        Set<LocalDateTime> reminders = new HashSet<>();
+        int size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            reminders.add(readDateTime(in));
+        }
+        switch (habit.getPeriod()) {
+            case DAILY:
+                return new DailyReminder(reminders, clock, isDefault, habit, null);
+            case WEEKLY:
+                return new WeeklyReminder(reminders, clock, isDefault, habit, null);
+            default:
+                Set<Pair<Integer, LocalTime>> customReminders =
+                        (flags & HAS_CUSTOM_REMINDERS) != 0 ? readCustomReminders(in) : null;
+                return new MonthlyReminder(customReminders, reminders, clock, isDefault, habit, null);
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads custom monthly reminders and returns them
+    private Set<Pair<Integer, LocalTime>> readCustomReminders(DataInput in) throws IOException {
+        Set<Pair<Integer, LocalTime>> customReminders = new HashSet<>();
+        int size = readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            int day = in.readUnsignedByte();
+            LocalTime time = LocalTime.ofSecondOfDay(in.readUnsignedShort() * 60L);
+            customReminders.add(new Pair<>(day, time));
+        }
+        return customReminders;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes id as its most and least significant longs
+    public static void writeUuid(DataOutput out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads id written by writeUuid and returns it
+    public static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes dateTime as minutes since the epoch, seconds are dropped
+    public static void writeDateTime(DataOutput out, LocalDateTime dateTime) throws IOException {
+        out.writeInt(toEpochMinutes(dateTime));
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads date time written by writeDateTime and returns it
+    public static LocalDateTime readDateTime(DataInput in) throws IOException {
+        return fromEpochMinutes(in.readInt());
+    }
+
+    // EFFECTS: returns dateTime as minutes since the epoch, local date times are treated as UTC
+    public static int toEpochMinutes(LocalDateTime dateTime) {
+        return BinaryEncoding.toEpochMinutes(dateTime);
+    }
+
+    // EFFECTS: returns the local date time that is the given number of minutes after the epoch
+    public static LocalDateTime fromEpochMinutes(long epochMinutes) {
+        return BinaryEncoding.fromEpochMinutes(epochMinutes);
+    }
+
+    // EFFECTS: returns the CRC32 checksum of bytes
+    public static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes value seven bits at a time, small values take a single byte and negative values take five
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        BinaryEncoding.writeVarInt(out, value);
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads value written by writeVarInt and returns it; throws IOException if it is malformed
+    public static int readVarInt(DataInput in) throws IOException {
+        return BinaryEncoding.readVarInt(in);
+    }
+}
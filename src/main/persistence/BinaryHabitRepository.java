@@ -0,0 +1,97 @@
+package persistence;
+
+import javafx.util.Pair;
+import model.Habit;
+import model.HabitManager;
+import model.UserProfile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Represents habits kept as a binary snapshot with a journal of changes after it, a write is encoded as soon as it
+// is made and appended to the journal when flushed, so a change to one habit only ever writes that habit
+public class BinaryHabitRepository implements HabitRepository {
+    private final HabitJournal journal;
+    private final Object flushLock;
+    private SnapshotRecords snapshot;
+    private List<Pair<HabitMutation, byte[]>> entries;
+
+    // EFFECTS: constructs a repository kept by journal
+    public BinaryHabitRepository(HabitJournal journal) {
+        this.journal = journal;
+        this.flushLock = new Object();
+        this.entries = new ArrayList<>();
+    }
+
+    @Override
+    public boolean exists() {
+        return journal.hasSnapshot();
+    }
+
+    // EFFECTS: reads the snapshot with the journal replayed on top of it and returns the habit manager, archived
+    //          habits are left in storage until they are needed if the snapshot store supports it
+    @Override
+    public HabitManager loadAll() throws IOException {
+        return journal.load();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes habit to be appended to the journal as an ADDED entry, which replaces any earlier record
+    @Override
+    public void upsert(Habit habit) throws IOException {
+        upsert(habit, HabitMutation.ADDED);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes habit to be appended to the journal as an entry of the given mutation
+    @Override
+    public synchronized void upsert(Habit habit, HabitMutation mutation) throws IOException {
+        entries.add(new Pair<>(mutation, journal.encode(mutation, habit)));
+    }
+
+    @Override
+    public synchronized void delete(UUID id) {
+        entries.add(new Pair<>(HabitMutation.DELETED, HabitJournal.encodeId(id)));
+    }
+
+    @Override
+    public synchronized void saveSettings(UserProfile profile) throws IOException {
+        entries.add(new Pair<>(HabitMutation.SETTINGS_CHANGED, BinaryCodec.encodeSettings(profile)));
+    }
+
+    // MODIFIES: this, hm
+    // EFFECTS: encodes hm to be written as a new snapshot, only habits that changed since they were last encoded are
+    //          encoded again, journal entries not flushed yet are dropped as the snapshot holds them
+    @Override
+    public synchronized void saveAll(HabitManager hm) throws IOException {
+        snapshot = journal.encode(hm);
+        entries = new ArrayList<>();
+    }
+
+    // REQUIRES: exists() or saveAll has been called since the last flush, if any habit has been written
+    // MODIFIES: this
+    // EFFECTS: writes the new snapshot if there is one, then appends the other writes to the journal and forces them
+    //          to disk together, writes made while flushing are left for the next flush;
+    //          throws IOException if the snapshot or journal cannot be written, in which case the writes are dropped
+    @Override
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            SnapshotRecords records;
+            List<Pair<HabitMutation, byte[]>> pending;
+            synchronized (this) {
+                records = snapshot;
+                pending = entries;
+                snapshot = null;
+                entries = new ArrayList<>();
+            }
+            if (records != null) {
+                journal.checkpoint(records);
+            }
+            if (!pending.isEmpty()) {
+                journal.appendAll(pending);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a reader that reads habits from a binary snapshot stored in file
+public class BinaryReader {
+    private String source;
+    private Clock clock;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+        this.clock = Clock.systemDefaultZone();
+    }
+
+    // EFFECTS: reads habit manager from file and returns it;
+    //          throws IOException if an error occurs reading data from file or the file is not a valid snapshot
+    public HabitManager read() throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                Compression.open(source))) {
+            int version = BinaryCodec.readHeader(in);
+            return version == 1 ? readVersion1(in) : readRecords(in);
+        }
+    }
+
+    // EFFECTS: reads the length prefixed settings and habit records of a current snapshot,
+    //          the habit records are decoded in parallel once they have all been read
+    private HabitManager readRecords(DataInputStream in) throws IOException {
+        HabitManager hm = BinaryCodec.decodeSettings(BinaryCodec.readRecord(in));
+        BinaryCodec codec = new BinaryCodec(clock);
+        int size = BinaryCodec.readVarInt(in);
+        List<byte[]> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            records.add(BinaryCodec.readRecord(in));
+        }
+        for (Habit habit : new ParallelHabitDecoder<>(codec::decodeHabit).decodeAll(records)) {
+            hm.addHabit(habit);
+        }
+        return hm;
+    }
+
+    // EFFECTS: reads the settings and habits of a version 1 snapshot, which are not length prefixed
+    private HabitManager readVersion1(DataInputStream in) throws IOException {
+        HabitManager hm = BinaryCodec.readSettings(in);
+        BinaryCodec codec = new BinaryCodec(clock);
+        int size = BinaryCodec.readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            hm.addHabit(codec.readHabit(in));
+        }
+        return hm;
+    }
+}
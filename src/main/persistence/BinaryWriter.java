@@ -0,0 +1,68 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.Clock;
+import java.util.zip.GZIPOutputStream;
+
+// Represents a writer that writes a compact binary snapshot of habitManager to file,
+// the file is gzip compressed if its name ends with ".gz" and is replaced atomically when the writer is closed
+public class BinaryWriter {
+    private final BinaryCodec codec;
+    private DataOutputStream writer;
+    private FileOutputStream out;
+    private GZIPOutputStream compressed;
+    private AtomicFile destination;
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = new AtomicFile(destination);
+        this.codec = new BinaryCodec(Clock.systemDefaultZone());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        out = destination.startWrite();
+        if (Compression.isCompressedPath(destination.getPath())) {
+            compressed = Compression.compress(out);
+            writer = new DataOutputStream(new BufferedOutputStream(compressed));
+        } else {
+            writer = new DataOutputStream(new BufferedOutputStream(out));
+        }
+    }
+
+    // MODIFIES: this, hm
+    // EFFECTS: writes header, settings record, and a record for every habit of hm to file,
+    //          archived habits of hm are loaded first if they have not been
+    public void write(HabitManager hm) throws IOException {
+        hm.loadArchivedHabits();
+        BinaryCodec.writeHeader(writer);
+        BinaryCodec.writeRecord(writer, BinaryCodec.encodeSettings(hm.getProfile()));
+        BinaryCodec.writeVarInt(writer, hm.getSize());
+        for (Habit habit : hm.getHabits()) {
+            BinaryCodec.writeRecord(writer, codec.encodeHabit(habit));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces written data to disk, closes writer and replaces destination file with it;
+    //          throws IOException if this fails, in which case destination file is left unchanged
+    public void close() throws IOException {
+        try {
+            writer.flush();
+            if (compressed != null) {
+                compressed.finish();
+            }
+        } catch (IOException e) {
+            destination.failWrite(out);
+            throw e;
+        }
+        destination.finishWrite(out);
+    }
+}
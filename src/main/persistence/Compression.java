@@ -0,0 +1,54 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Represents the gzip compression of save files and exports, compressed files are recognized by the gzip magic bytes
+// when loading, so any save file may be compressed, and are written compressed when their name ends with ".gz"
+public class Compression {
+    public static final String EXTENSION = ".gz";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] MAGIC = {(byte) 0x1f, (byte) 0x8b};
+
+    // EFFECTS: returns a buffered stream of the contents of the file at path, decompressed if the file is gzip
+    //          compressed; throws IOException if the file cannot be read
+    public static InputStream open(String path) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(Paths.get(path)), BUFFER_SIZE);
+        try {
+            return isCompressed(in) ? new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE) : in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    // EFFECTS: returns a stream that compresses everything written to it into out
+    public static GZIPOutputStream compress(OutputStream out) throws IOException {
+        return new GZIPOutputStream(out, BUFFER_SIZE);
+    }
+
+    // EFFECTS: returns true if a file at path should be written compressed, based on its extension
+    public static boolean isCompressedPath(String path) {
+        return path.toLowerCase().endsWith(EXTENSION);
+    }
+
+    // EFFECTS: returns path without a trailing ".gz" extension
+    public static String stripExtension(String path) {
+        return isCompressedPath(path) ? path.substring(0, path.length() - EXTENSION.length()) : path;
+    }
+
+    // REQUIRES: in supports mark
+    // EFFECTS: returns true if in starts with the gzip magic bytes, without consuming them
+    private static boolean isCompressed(InputStream in) throws IOException {
+        in.mark(MAGIC.length);
+        byte[] header = in.readNBytes(MAGIC.length);
+        in.reset();
+        return BinaryCodec.hasMagic(header, MAGIC);
+    }
+}
@@ -0,0 +1,13 @@
+package persistence;
+
+import java.io.IOException;
+
+// Represents the failure to read a record whose checksum does not match its content
+public class CorruptRecordException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    // EFFECTS: constructs an exception with the given message
+    public CorruptRecordException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,48 @@
+package persistence;
+
+import model.ArchivedHabitSource;
+import model.Habit;
+import model.log.Event;
+import model.log.EventLog;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Represents archived habits that were deferred when a snapshot store was read, their records are read from the
+// store and decoded when they are first needed
+public class DeferredArchivedHabits implements ArchivedHabitSource {
+    private final SnapshotStore store;
+    private final Set<UUID> ids;
+    private final BinaryCodec codec;
+
+    // EFFECTS: constructs the deferred archived habits with the given ids, read from store and decoded with codec
+    public DeferredArchivedHabits(SnapshotStore store, Set<UUID> ids, BinaryCodec codec) {
+        this.store = store;
+        this.ids = Collections.unmodifiableSet(new LinkedHashSet<>(ids));
+        this.codec = codec;
+    }
+
+    @Override
+    public Set<UUID> getIds() {
+        return this.ids;
+    }
+
+    // EFFECTS: reads and decodes the deferred habits, a habit that cannot be read is reported and left out
+    @Override
+    public List<Habit> load() {
+        List<Habit> habits = new ArrayList<>();
+        for (UUID id : ids) {
+            try {
+                habits.add(codec.decodeHabit(store.readRecord(id)));
+            } catch (IOException e) {
+                EventLog.getInstance().logEvent(new Event("Unable to load archived habit: " + id));
+            }
+        }
+        return habits;
+    }
+}
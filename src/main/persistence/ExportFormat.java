@@ -0,0 +1,18 @@
+package persistence;
+
+// Represents the line based formats habits can be exported to and imported from in bulk, one habit per line,
+// unlike a save file they carry no user settings and are read and written one habit at a time
+public enum ExportFormat {
+    NDJSON,
+    CSV;
+
+    // EFFECTS: returns the bulk format of a file at path based on its extension, ignoring any ".gz",
+    //          or null if path is not a bulk export file
+    public static ExportFormat forPath(String path) {
+        String name = Compression.stripExtension(path).toLowerCase();
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return name.endsWith(".csv") ? CSV : null;
+    }
+}
@@ -0,0 +1,222 @@
+package persistence;
+
+import model.log.Event;
+import model.log.EventLog;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Represents a watcher of the directories holding the save files that notices when another program changes them,
+// once the files have been quiet for a moment their records are compared by habit id with the records last read or
+// written by this app, records whose stored checksum is already known are not read at all, only habits whose records
+// differ are decoded, and the habits added, changed or removed elsewhere are handed to a listener on the watcher's own
+// daemon thread, nothing else is reloaded
+public class ExternalChangeWatcher {
+    public static final long DEFAULT_QUIET_MILLIS = 500;
+    private static final int KNOWN_RECORDS = 4;
+
+    private final List<Path> directories;
+    private final RecordSource source;
+    private final BinaryCodec codec;
+    private final Consumer<ExternalChanges> listener;
+    private final long quietMillis;
+    private final Map<UUID, Deque<Integer>> known;
+    private final Object checkLock;
+    private Set<UUID> lastSeen;
+    private WatchService watchService;
+    private Thread thread;
+
+    // REQUIRES: quietMillis > 0
+    // EFFECTS: constructs a watcher of the save files in directories that reads their records from source, decodes
+    //          changed habits with codec and hands them to listener once the files are quiet for quietMillis
+    public ExternalChangeWatcher(List<Path> directories, RecordSource source, BinaryCodec codec,
+                                 Consumer<ExternalChanges> listener, long quietMillis) {
+        this.directories = directories;
+        this.source = source;
+        this.codec = codec;
+        this.listener = listener;
+        this.quietMillis = quietMillis;
+        this.known = new HashMap<>();
+        this.checkLock = new Object();
+        this.lastSeen = new HashSet<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts watching the directories, creating them if they do not exist, and takes the records they hold
+    //          now as the records this app knows about, records whose checksum is stored apart from them are not
+    //          read; throws IOException if a directory cannot be watched
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        for (Path directory : directories) {
+            Files.createDirectories(directory);
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+        try {
+            seed();
+        } catch (IOException e) {
+            EventLog.getInstance().logEvent(new Event("Unable to read save files: " + e.getMessage()));
+        }
+        thread = new Thread(this::run, "habit-file-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers record as written by this app, so that it is not taken for an external change once it is
+    //          read back, only the last few records of each habit are remembered
+    public synchronized void recordWritten(byte[] record) {
+        remember(BinaryCodec.getRecordId(record), BinaryCodec.checksum(record));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the records saved now and returns the habits added, changed or removed since they were last read
+    //          that were not written by this app, records whose stored checksum is known are not read, a record that
+    //          cannot be decoded is skipped until it changes again; throws IOException if the records cannot be read
+    public ExternalChanges checkNow() throws IOException {
+        synchronized (checkLock) {
+            return compare(source.read(this::isKnown));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the habits of records added, changed or removed since the records were last read that were not
+    //          written by this app, deferred habits are unchanged
+    private synchronized ExternalChanges compare(SnapshotRecords records) {
+        ExternalChanges changes = new ExternalChanges();
+        for (Map.Entry<UUID, byte[]> entry : records.getHabits().entrySet()) {
+            int checksum = BinaryCodec.checksum(entry.getValue());
+            Deque<Integer> checksums = known.get(entry.getKey());
+            if (checksums == null || !checksums.contains(checksum)) {
+                try {
+                    changes.addHabit(codec.decodeHabit(entry.getValue()));
+                } catch (IOException | RuntimeException e) {
+                    EventLog.getInstance().logEvent(new Event("Unable to read changed habit: " + entry.getKey()));
+                }
+            }
+            remember(entry.getKey(), checksum);
+        }
+        for (UUID id : lastSeen) {
+            if (!records.getHabits().containsKey(id) && !records.getDeferred().contains(id)) {
+                changes.removeHabit(id);
+                known.remove(id);
+            }
+        }
+        lastSeen = getIds(records);
+        return changes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes the records saved now as known without reading those whose checksum is stored apart from them;
+    //          throws IOException if the records cannot be read
+    private void seed() throws IOException {
+        synchronized (checkLock) {
+            SnapshotRecords records = source.read((id, checksum) -> {
+                synchronized (this) {
+                    remember(id, checksum);
+                }
+                return true;
+            });
+            synchronized (this) {
+                records.getHabits().forEach((id, record) -> remember(id, BinaryCodec.checksum(record)));
+                lastSeen = getIds(records);
+            }
+        }
+    }
+
+    // EFFECTS: returns true if checksum is one of the known records of the habit with the given id
+    private synchronized boolean isKnown(UUID id, int checksum) {
+        Deque<Integer> checksums = known.get(id);
+        return checksums != null && checksums.contains(checksum);
+    }
+
+    // EFFECTS: returns the ids of the habits in records, whether their records are held or deferred
+    private static Set<UUID> getIds(SnapshotRecords records) {
+        Set<UUID> ids = new HashSet<>(records.getHabits().keySet());
+        ids.addAll(records.getDeferred());
+        return ids;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops watching the directories
+    public void close() {
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException e) {
+            EventLog.getInstance().logEvent(new Event("Unable to stop watching save files"));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for the directories to change, then for them to be quiet, and hands any external changes to
+    //          listener, until the watcher is closed
+    private void run() {
+        try {
+            while (true) {
+                drain(watchService.take());
+                for (WatchKey key = poll(); key != null; key = poll()) {
+                    drain(key);
+                }
+                checkAndNotify();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks for external changes and hands them to listener if there are any, reporting rather than throwing
+    //          an error reading the records, which are read again on the next change
+    private void checkAndNotify() {
+        try {
+            ExternalChanges changes = checkNow();
+            if (!changes.isEmpty()) {
+                listener.accept(changes);
+            }
+        } catch (IOException e) {
+            EventLog.getInstance().logEvent(new Event("Unable to read changed save files: " + e.getMessage()));
+        }
+    }
+
+    // EFFECTS: waits up to quietMillis for another change and returns its key, or null if there is none
+    private WatchKey poll() throws InterruptedException {
+        return watchService.poll(quietMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: key
+    // EFFECTS: discards the events of key and resets it to receive more
+    private static void drain(WatchKey key) {
+        key.pollEvents();
+        key.reset();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds checksum to the known records of the habit with the given id, forgetting the oldest of them if
+    //          there are more than KNOWN_RECORDS
+    private void remember(UUID id, int checksum) {
+        Deque<Integer> checksums = known.computeIfAbsent(id, key -> new ArrayDeque<>());
+        checksums.remove(checksum);
+        checksums.addLast(checksum);
+        if (checksums.size() > KNOWN_RECORDS) {
+            checksums.removeFirst();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+// Represents the habits another program changed in the save files since they were last read, the habits it added
+// or changed are held decoded and the habits it removed only by id
+public class ExternalChanges {
+    private final List<Habit> habits;
+    private final Set<UUID> removedIds;
+
+    // EFFECTS: constructs changes with no habits changed or removed
+    public ExternalChanges() {
+        this.habits = new ArrayList<>();
+        this.removedIds = new LinkedHashSet<>();
+    }
+
+    public List<Habit> getHabits() {
+        return Collections.unmodifiableList(this.habits);
+    }
+
+    public Set<UUID> getRemovedIds() {
+        return Collections.unmodifiableSet(this.removedIds);
+    }
+
+    // EFFECTS: returns true if no habit was changed or removed
+    public boolean isEmpty() {
+        return habits.isEmpty() && removedIds.isEmpty();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that habit was added or changed
+    public void addHabit(Habit habit) {
+        habits.add(habit);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the habit with the given id was removed
+    public void removeHabit(UUID id) {
+        removedIds.add(id);
+    }
+
+    // MODIFIES: hm
+    // EFFECTS: replaces the habits of hm that have the id of a changed habit with it in place and adds the rest after
+    //          them, deletes the removed habits that hm still has, and returns the habits replaced or added, archived
+    //          habits of hm are only loaded if one of them was changed or removed
+    public List<Habit> applyTo(HabitManager hm) {
+        if (touchesUnloaded(hm)) {
+            hm.loadArchivedHabits();
+        }
+        for (Habit habit : habits) {
+            if (hm.getHabit(habit.getId()) == null) {
+                hm.addHabit(habit);
+            } else {
+                hm.replaceHabit(habit.getId(), habit);
+            }
+        }
+        for (UUID id : removedIds) {
+            Habit removed = hm.getHabit(id);
+            if (removed != null) {
+                hm.deleteHabit(removed);
+            }
+        }
+        return getHabits();
+    }
+
+    // EFFECTS: returns true if a habit changed or removed is an archived habit hm has not loaded yet
+    private boolean touchesUnloaded(HabitManager hm) {
+        Set<UUID> unloaded = hm.getUnloadedArchivedIds();
+        if (unloaded.isEmpty()) {
+            return false;
+        }
+        for (Habit habit : habits) {
+            if (unloaded.contains(habit.getId())) {
+                return true;
+            }
+        }
+        return !Collections.disjoint(unloaded, removedIds);
+    }
+}
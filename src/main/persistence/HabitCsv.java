@@ -0,0 +1,247 @@
+package persistence;
+
+import javafx.util.Pair;
+import model.Habit;
+import model.HabitStatistics;
+import model.reminder.HabitReminder;
+import model.reminder.MonthlyReminder;
+import org.json.JSONException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+// Converts habits to and from rows of comma separated values, one habit per row with its statistics, reminders and
+// completion log flattened into columns, fields are quoted as in RFC 4180 so names may hold commas, quotes and
+// line breaks, and a row is turned back into a habit record of the same shape as one in a JSON save file
+public class HabitCsv {
+    private static final String[] STRING_COLUMNS = {"id", "name", "description", "period", "currentPeriodEnd",
+            "nextPeriodEnd"};
+    private static final String[] INT_COLUMNS = {"frequency", "numSuccess"};
+    private static final String[] BOOLEAN_COLUMNS = {"notifyEnabled", "isPreviousComplete", "isArchived"};
+    private static final String[] STAT_COLUMNS = {"streak", "bestStreak", "totalNumSuccess", "numPeriodSuccess",
+            "numPeriod"};
+    private static final String[] OTHER_COLUMNS = {"isDefaultReminder", "reminders", "customReminders",
+            "completions"};
+    private static final String SEPARATOR = ";";
+
+    // EFFECTS: returns the names of the columns in the order rows are written
+    public static List<String> getHeader() {
+        List<String> header = new ArrayList<>();
+        for (String[] columns : new String[][]{STRING_COLUMNS, INT_COLUMNS, BOOLEAN_COLUMNS, STAT_COLUMNS,
+                OTHER_COLUMNS}) {
+            Collections.addAll(header, columns);
+        }
+        return header;
+    }
+
+    // EFFECTS: returns habit as the fields of a row in header order, reminder columns are empty if habit has
+    //          no reminder and the completion log is base64 encoded as it is in a JSON save file
+    public static List<String> toRow(Habit habit) {
+        HabitStatistics stats = habit.getHabitStats();
+        List<String> row = new ArrayList<>();
+        Collections.addAll(row, habit.getId().toString(), habit.getName(), habit.getDescription(),
+                habit.getPeriod().toString(), habit.getCurrentPeriodEnd().toString(),
+                habit.getNextPeriodEnd().toString(), String.valueOf(habit.getFrequency()),
+                String.valueOf(habit.getNumSuccess()), String.valueOf(habit.isNotifyEnabled()),
+                String.valueOf(habit.isPreviousComplete()), String.valueOf(habit.isArchived()),
+                String.valueOf(stats.getStreak()), String.valueOf(stats.getBestStreak()),
+                String.valueOf(stats.getTotalNumSuccess()), String.valueOf(stats.getNumPeriodSuccess()),
+                String.valueOf(stats.getNumPeriod()));
+        addReminderFields(row, habit.getHabitReminder());
+        row.add(habit.getCompletionLog().getEntryCount() == 0
+                ? "" : Base64.getEncoder().encodeToString(habit.getCompletionLog().encode()));
+        return row;
+    }
+
+    // REQUIRES: columns maps every name of getHeader() to its index in row
+    // EFFECTS: returns row as a habit record of the same shape as one in a JSON save file;
+    //          throws JSONException if a number or boolean field is not valid
+    public static JsonRecord toRecord(Map<String, Integer> columns, List<String> row) {
+        JsonRecord record = new JsonRecord();
+        for (String column : STRING_COLUMNS) {
+            record.put(column, row.get(columns.get(column)));
+        }
+        for (String column : INT_COLUMNS) {
+            record.put(column, parseInt(column, row.get(columns.get(column))));
+        }
+        for (String column : BOOLEAN_COLUMNS) {
+            record.put(column, parseBoolean(column, row.get(columns.get(column))));
+        }
+        JsonRecord stats = new JsonRecord();
+        for (String column : STAT_COLUMNS) {
+            stats.put(column, parseInt(column, row.get(columns.get(column))));
+        }
+        record.put("habitStats", stats);
+        if (!row.get(columns.get("isDefaultReminder")).isEmpty()) {
+            record.put("habitReminder", toReminderRecord(columns, row));
+        }
+        if (!row.get(columns.get("completions")).isEmpty()) {
+            record.put("completions", row.get(columns.get("completions")));
+        }
+        return record;
+    }
+
+    // EFFECTS: returns the index of every column of getHeader() in header;
+    //          throws JSONException if header is missing a column
+    public static Map<String, Integer> getColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        for (String column : getHeader()) {
+            if (!columns.containsKey(column)) {
+                throw new JSONException("CSV header is missing column \"" + column + "\"");
+            }
+        }
+        return columns;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: writes fields as a row ending in a line break, quoting any field holding a comma, quote or line break
+    public static void writeRow(PrintWriter out, List<String> fields) {
+        StringJoiner row = new StringJoiner(",");
+        for (String field : fields) {
+            boolean isQuoted = field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                    || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0;
+            row.add(isQuoted ? '"' + field.replace("\"", "\"\"") + '"' : field);
+        }
+        out.print(row);
+        out.print('\n');
+    }
+
+    // MODIFIES: in
+    // EFFECTS: reads the next row and returns its fields, or null at the end of in;
+    //          throws IOException if in cannot be read, throws JSONException if a quoted field is not closed
+    public static List<String> readRow(BufferedReader in) throws IOException {
+        in.mark(1);
+        if (in.read() == -1) {
+            return null;
+        }
+        in.reset();
+        List<String> row = new ArrayList<>();
+        int end;
+        do {
+            StringBuilder field = new StringBuilder();
+            end = readField(in, field);
+            row.add(field.toString());
+        } while (end == ',');
+        return row;
+    }
+
+    // MODIFIES: in, field
+    // EFFECTS: reads the next field into field and returns what ended it, ',' or '\n' or -1 at the end of in,
+    //          a "\r\n" line break is read as one
+    private static int readField(BufferedReader in, StringBuilder field) throws IOException {
+        boolean isQuoted = false;
+        for (int c = in.read(); c != -1; c = in.read()) {
+            if (c == '"' && isQuoted) {
+                in.mark(1);
+                isQuoted = in.read() == '"';
+                if (isQuoted) {
+                    field.append('"');
+                } else {
+                    in.reset();
+                }
+            } else if (c == '"' && field.length() == 0) {
+                isQuoted = true;
+            } else if (!isQuoted && (c == ',' || c == '\n' || c == '\r')) {
+                return c == '\r' ? skipLineFeed(in) : c;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (isQuoted) {
+            throw new JSONException("CSV field is missing its closing quote");
+        }
+        return -1;
+    }
+
+    // MODIFIES: in
+    // EFFECTS: consumes a line feed if it is the next character of in, and returns '\n'
+    private static int skipLineFeed(BufferedReader in) throws IOException {
+        in.mark(1);
+        if (in.read() != '\n') {
+            in.reset();
+        }
+        return '\n';
+    }
+
+    // MODIFIES: row
+    // EFFECTS: adds the isDefaultReminder, reminders and customReminders fields of reminder to row, reminder date
+    //          times and custom monthly reminders as "day@time" are separated by SEPARATOR
+    private static void addReminderFields(List<String> row, HabitReminder reminder) {
+        if (reminder == null) {
+            Collections.addAll(row, "", "", "");
+            return;
+        }
+        StringJoiner reminders = new StringJoiner(SEPARATOR);
+        for (LocalDateTime dateTime : reminder.getReminders()) {
+            reminders.add(dateTime.toString());
+        }
+        StringJoiner customReminders = new StringJoiner(SEPARATOR);
+        if (reminder instanceof MonthlyReminder && ((MonthlyReminder) reminder).getCustomReminders() != null) {
+            for (Pair<Integer, LocalTime> pair : ((MonthlyReminder) reminder).getCustomReminders()) {
+                customReminders.add(pair.getKey() + "@" + pair.getValue());
+            }
+        }
+        Collections.addAll(row, String.valueOf(reminder.isDefault()), reminders.toString(),
+                customReminders.toString());
+    }
+
+    // EFFECTS: returns the reminder fields of row as a habit reminder record
+    private static JsonRecord toReminderRecord(Map<String, Integer> columns, List<String> row) {
+        JsonRecord reminder = new JsonRecord();
+        reminder.put("isDefault", parseBoolean("isDefaultReminder", row.get(columns.get("isDefaultReminder"))));
+        List<Object> reminders = new ArrayList<>();
+        for (String dateTime : split(row.get(columns.get("reminders")))) {
+            JsonRecord record = new JsonRecord();
+            record.put("dateTime", dateTime);
+            reminders.add(record);
+        }
+        reminder.put("reminders", reminders);
+        String custom = row.get(columns.get("customReminders"));
+        if (!custom.isEmpty()) {
+            List<Object> customReminders = new ArrayList<>();
+            for (String pair : split(custom)) {
+                JsonRecord record = new JsonRecord();
+                record.put("day", parseInt("customReminders", pair.substring(0, Math.max(0, pair.indexOf('@')))));
+                record.put("time", pair.substring(pair.indexOf('@') + 1));
+                customReminders.add(record);
+            }
+            reminder.put("customReminders", customReminders);
+        }
+        return reminder;
+    }
+
+    // EFFECTS: returns the values of field separated by SEPARATOR, none if field is empty
+    private static String[] split(String field) {
+        return field.isEmpty() ? new String[0] : field.split(SEPARATOR);
+    }
+
+    // EFFECTS: returns value as an int; throws JSONException if it is not one
+    private static int parseInt(String column, String value) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new JSONException("CSV column \"" + column + "\" is not a number: " + value);
+        }
+    }
+
+    // EFFECTS: returns value as a boolean; throws JSONException if it is neither "true" nor "false"
+    private static boolean parseBoolean(String column, String value) {
+        if (!value.trim().equalsIgnoreCase("true") && !value.trim().equalsIgnoreCase("false")) {
+            throw new JSONException("CSV column \"" + column + "\" is not a boolean: " + value);
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+}
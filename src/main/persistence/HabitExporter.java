@@ -0,0 +1,105 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+// Represents a writer that exports habits to an NDJSON or CSV file one habit per line, each habit is written as soon
+// as it is given so a file of any size is written in constant memory, NDJSON lines are checksummed habit records as
+// in a JSON save file and CSV files start with a header row, the file is gzip compressed if its name ends with ".gz"
+// and is replaced atomically when the exporter is closed
+public class HabitExporter {
+    private final AtomicFile destination;
+    private final ExportFormat format;
+    private PrintWriter writer;
+    private FileOutputStream out;
+    private GZIPOutputStream compressed;
+    private JsonTokenWriter json;
+    private int count;
+
+    // EFFECTS: constructs an exporter writing to destination in the format of its extension;
+    //          throws IllegalArgumentException if destination is not an NDJSON or CSV file
+    public HabitExporter(String destination) {
+        this(destination, ExportFormat.forPath(destination));
+    }
+
+    // EFFECTS: constructs an exporter writing to destination in the given format;
+    //          throws IllegalArgumentException if format is null
+    public HabitExporter(String destination, ExportFormat format) {
+        if (format == null) {
+            throw new IllegalArgumentException("Not an NDJSON or CSV file: " + destination);
+        }
+        this.destination = new AtomicFile(destination);
+        this.format = format;
+    }
+
+    // EFFECTS: returns the number of habits written since the exporter was opened
+    public int getCount() {
+        return this.count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens exporter and writes the CSV header if exporting to CSV;
+    //          throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        out = destination.startWrite();
+        OutputStream stream = out;
+        if (Compression.isCompressedPath(destination.getPath())) {
+            compressed = Compression.compress(out);
+            stream = compressed;
+        }
+        writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+        json = new JsonTokenWriter(writer, 0);
+        count = 0;
+        if (format == ExportFormat.CSV) {
+            HabitCsv.writeRow(writer, HabitCsv.getHeader());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes habit as the next line
+    public void write(Habit habit) {
+        if (format == ExportFormat.CSV) {
+            HabitCsv.writeRow(writer, HabitCsv.toRow(habit));
+        } else {
+            JsonWriter.writeHabit(json, habit);
+            writer.print('\n');
+        }
+        count++;
+    }
+
+    // MODIFIES: this, hm
+    // EFFECTS: writes every habit of hm in order, archived habits are loaded first if they have not been
+    public void write(HabitManager hm) {
+        hm.loadArchivedHabits();
+        for (Habit habit : hm.getHabits()) {
+            write(habit);
+        }
+    }
+
+    // EFFECTS: forces written data to disk, closes exporter and replaces destination file with it;
+    //          throws IOException if writing failed, in which case destination file is left unchanged
+    public void close() throws IOException {
+        writer.flush();
+        try {
+            if (writer.checkError()) {
+                throw new IOException("Unable to write to file: " + destination.getPath());
+            }
+            if (compressed != null) {
+                compressed.finish();
+            }
+        } catch (IOException e) {
+            destination.failWrite(out);
+            throw e;
+        }
+        destination.finishWrite(out);
+    }
+}
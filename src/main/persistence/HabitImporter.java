@@ -0,0 +1,163 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import org.json.JSONException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Represents a reader that imports habits from an NDJSON or CSV file written by HabitExporter one line at a time,
+// reading with next holds only the habit being read so a file of any size is read in constant memory, habits can be
+// merged into an existing habit manager by id or replace its habits, which reads the file twice so that every line
+// is checked before the habit manager is changed without holding the habits in memory, and corrupt NDJSON records
+// are set aside in the quarantine
+public class HabitImporter {
+    private final String source;
+    private final ExportFormat format;
+    private final JsonReader decoder;
+    private BufferedReader reader;
+    private Map<String, Integer> columns;
+    private int headerSize;
+    private int line;
+
+    // EFFECTS: constructs an importer reading from source in the format of its extension;
+    //          throws IllegalArgumentException if source is not an NDJSON or CSV file
+    public HabitImporter(String source) {
+        this(source, null);
+    }
+
+    // EFFECTS: constructs an importer reading from source in the format of its extension and setting corrupt records
+    //          aside in quarantine, corrupt records are only skipped if quarantine is null;
+    //          throws IllegalArgumentException if source is not an NDJSON or CSV file
+    public HabitImporter(String source, Quarantine quarantine) {
+        this.source = source;
+        this.format = ExportFormat.forPath(source);
+        if (format == null) {
+            throw new IllegalArgumentException("Not an NDJSON or CSV file: " + source);
+        }
+        this.decoder = new JsonReader(source, JsonMigrations.standard(), quarantine);
+    }
+
+    // EFFECTS: returns the corrupt habit records skipped so far, in no particular order
+    public List<JsonRecord> getQuarantined() {
+        return decoder.getQuarantined();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens importer, decompressing source if it is gzip compressed, and reads the CSV header if importing
+    //          from CSV; throws IOException if source cannot be read, throws JSONException if the header is not valid
+    public void open() throws IOException {
+        reader = new BufferedReader(new InputStreamReader(Compression.open(source), StandardCharsets.UTF_8));
+        line = 0;
+        if (format == ExportFormat.CSV) {
+            List<String> header = HabitCsv.readRow(reader);
+            if (header == null) {
+                throw new JSONException("CSV file is missing its header row");
+            }
+            line++;
+            headerSize = header.size();
+            columns = HabitCsv.getColumns(header);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next habit, or null once every line has been read, blank lines and corrupt
+    //          records are skipped, its reminder has no reminder scheduler yet;
+    //          throws IOException if source cannot be read, throws JSONException if a line is not a valid habit
+    public Habit next() throws IOException {
+        return next(decoder);
+    }
+
+    // MODIFIES: this, hm
+    // EFFECTS: reads every remaining habit into hm and returns the number read, archived habits of hm are loaded
+    //          first, if isMerge then a habit with the id of one already in hm replaces it in place and other habits
+    //          are added after it, otherwise every habit of hm is deleted first, every remaining line is checked
+    //          before hm is changed and then read again, so hm is left as it was if a line is not valid;
+    //          throws IOException if source cannot be read, throws JSONException if a line is not a valid habit
+    public int importInto(HabitManager hm, boolean isMerge) throws IOException {
+        int start = line;
+        int count = 0;
+        while (next() != null) {
+            count++;
+        }
+        reopenAt(start);
+        hm.loadArchivedHabits();
+        if (!isMerge) {
+            new ArrayList<>(hm.getHabits()).forEach(hm::deleteHabit);
+        }
+        JsonReader applier = new JsonReader(source, JsonMigrations.standard(), null);
+        for (Habit habit = next(applier); habit != null; habit = next(applier)) {
+            if (hm.getHabit(habit.getId()) == null) {
+                hm.addHabit(habit);
+            } else {
+                hm.replaceHabit(habit.getId(), habit);
+            }
+        }
+        return count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes importer; throws IOException if source cannot be closed
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads and returns the next habit decoded with decoder, or null once every line has been read;
+    //          throws IOException if source cannot be read, throws JSONException if a line is not a valid habit
+    private Habit next(JsonReader decoder) throws IOException {
+        for (JsonRecord record = nextRecord(); record != null; record = nextRecord()) {
+            try {
+                Habit habit = decoder.readHabit(record, JsonMigrations.CURRENT_VERSION);
+                if (habit != null) {
+                    return habit;
+                }
+            } catch (DateTimeException | IllegalArgumentException e) {
+                throw new JSONException("Invalid habit on line " + line + ": " + e.getMessage(), e);
+            }
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes and opens importer again, then skips the lines before line start;
+    //          throws IOException if source cannot be read
+    private void reopenAt(int start) throws IOException {
+        close();
+        open();
+        while (line < start) {
+            nextRecord();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next line that is not blank and returns it as a habit record, or null at the end of source;
+    //          throws JSONException if it is not a valid record or CSV row
+    private JsonRecord nextRecord() throws IOException {
+        if (format == ExportFormat.CSV) {
+            List<String> row;
+            do {
+                row = HabitCsv.readRow(reader);
+                line++;
+            } while (row != null && row.size() == 1 && row.get(0).isBlank());
+            if (row != null && row.size() != headerSize) {
+                throw new JSONException("CSV row " + line + " has " + row.size() + " fields, expected " + headerSize);
+            }
+            return row == null ? null : HabitCsv.toRecord(columns, row);
+        }
+        String text;
+        do {
+            text = reader.readLine();
+            line++;
+        } while (text != null && text.isBlank());
+        return text == null ? null : new JsonTokenStream(new StringReader(text)).nextRecord();
+    }
+}
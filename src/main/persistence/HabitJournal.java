@@ -0,0 +1,405 @@
+package persistence;
+
+import model.log.Event;
+import model.log.EventLog;
+
+import javafx.util.Pair;
+import model.Habit;
+import model.HabitManager;
+import model.UserProfile;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Represents an append-only journal of habit mutations that is replayed on top of a snapshot store when loading,
+// once the journal passes a size threshold it is folded into a fresh snapshot on a background thread,
+// every entry is stored as its length, a CRC32 checksum, the mutation code and the payload, so a torn tail is ignored
+public class HabitJournal {
+    public static final byte[] MAGIC = {'H', 'H', 'J', 'L'};
+    public static final int VERSION = 1;
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 256 * 1024;
+    private static final int HEADER_LENGTH = MAGIC.length + 1;
+    private static final int ENTRY_HEADER_LENGTH = 2 * Integer.BYTES;
+    private static final int MAX_ENTRY_LENGTH = 16 * 1024 * 1024;
+
+    private final SnapshotStore store;
+    private final String journalPath;
+    private final long compactionThreshold;
+    private final BinaryCodec codec;
+    private final HabitRecordCache cache;
+    private final ExecutorService compactor;
+    private FileOutputStream out;
+    private long length;
+    private int generation;
+    private boolean isCompacting;
+    private Consumer<byte[]> recordObserver;
+
+    // EFFECTS: constructs a journal of changes to the snapshot at snapshotPath, stored at journalPath
+    public HabitJournal(String snapshotPath, String journalPath) {
+        this(snapshotPath, journalPath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    // REQUIRES: compactionThreshold > 0
+    // EFFECTS: constructs a journal of changes to the snapshot at snapshotPath, stored at journalPath, that is
+    //          compacted once it is at least compactionThreshold bytes long
+    public HabitJournal(String snapshotPath, String journalPath, long compactionThreshold) {
+        this(new SnapshotFile(snapshotPath, new BinaryCodec(Clock.systemDefaultZone())), journalPath,
+                compactionThreshold);
+    }
+
+    // REQUIRES: compactionThreshold > 0
+    // EFFECTS: constructs a journal of changes to the snapshot in store, stored at journalPath, that is
+    //          compacted once it is at least compactionThreshold bytes long
+    public HabitJournal(SnapshotStore store, String journalPath, long compactionThreshold) {
+        this.store = store;
+        this.journalPath = journalPath;
+        this.compactionThreshold = compactionThreshold;
+        this.codec = new BinaryCodec(Clock.systemDefaultZone());
+        this.cache = new HabitRecordCache(codec);
+        this.compactor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "habit-journal-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // EFFECTS: returns true if there is a snapshot for journal entries to be replayed on
+    public boolean hasSnapshot() {
+        try {
+            return store.exists();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public synchronized long getLength() {
+        return this.length;
+    }
+
+    // EFFECTS: reads the snapshot, replays the journal on top of it and returns the resulting habit manager,
+    //          archived habits the store deferred are only loaded once the habit manager needs them;
+    //          throws IOException if the snapshot cannot be read
+    public HabitManager load() throws IOException {
+        SnapshotRecords records = store.read(false);
+        if (hasEntries()) {
+            replay(records, Long.MAX_VALUE);
+        }
+        HabitManager hm = records.decode(codec);
+        if (!records.getDeferred().isEmpty()) {
+            hm.setArchivedHabitSource(new DeferredArchivedHabits(store, records.getDeferred(), codec));
+        }
+        return hm;
+    }
+
+    // EFFECTS: reads the snapshot with archived habits included and replays the journal on top of it, returning
+    //          the records without decoding them, a habit whose stored checksum isKnown accepts is deferred rather
+    //          than read if the store keeps checksums apart from the records, writes by this journal wait until they
+    //          have been read; throws IOException if the snapshot cannot be read
+    public synchronized SnapshotRecords readRecords(BiPredicate<UUID, Integer> isKnown) throws IOException {
+        SnapshotRecords records = store.read(isKnown);
+        if (hasEntries()) {
+            replay(records, Long.MAX_VALUE);
+        }
+        return records;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets observer to be given every habit record this journal is about to write, or none if null
+    public synchronized void setRecordObserver(Consumer<byte[]> observer) {
+        this.recordObserver = observer;
+    }
+
+    // MODIFIES: this, habit
+    // REQUIRES: mutation is not SETTINGS_CHANGED
+    // EFFECTS: returns the payload of a journal entry for the given mutation of habit, which is the current state
+    //          of habit, or only its id if mutation is DELETED
+    public byte[] encode(HabitMutation mutation, Habit habit) throws IOException {
+        if (mutation == HabitMutation.DELETED) {
+            return encodeId(habit.getId());
+        }
+        return cache.encode(habit);
+    }
+
+    // EFFECTS: returns the payload of a DELETED journal entry for the habit with the given id
+    public static byte[] encodeId(UUID id) {
+        return ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+
+    // EFFECTS: returns the records of a snapshot of hm, only habits that changed since they were last encoded by
+    //          this journal are encoded again and archived habits that hm has not loaded stay deferred
+    public SnapshotRecords encode(HabitManager hm) throws IOException {
+        return SnapshotRecords.fromHabitManager(hm, cache);
+    }
+
+    // REQUIRES: hasSnapshot()
+    // MODIFIES: this
+    // EFFECTS: appends the given mutation of habit to the journal; throws IOException if the journal cannot be written
+    public void append(HabitMutation mutation, Habit habit) throws IOException {
+        append(mutation, encode(mutation, habit));
+    }
+
+    // REQUIRES: hasSnapshot(), payload was returned by encode for mutation
+    // MODIFIES: this
+    // EFFECTS: appends an entry to the journal and forces it to disk, starts a background compaction if the journal
+    //          has grown past the threshold; throws IOException if the journal cannot be written
+    public void append(HabitMutation mutation, byte[] payload) throws IOException {
+        appendAll(List.of(new Pair<>(mutation, payload)));
+    }
+
+    // REQUIRES: hasSnapshot(), every payload was returned by encode for its mutation
+    // MODIFIES: this
+    // EFFECTS: appends an entry for every mutation and payload in order and forces them to disk together, starts a
+    //          background compaction if the journal has grown past the threshold;
+    //          throws IOException if the journal cannot be written
+    public synchronized void appendAll(List<Pair<HabitMutation, byte[]>> entries) throws IOException {
+        openForAppend();
+        for (Pair<HabitMutation, byte[]> entry : entries) {
+            if (entry.getKey() != HabitMutation.DELETED && entry.getKey() != HabitMutation.SETTINGS_CHANGED) {
+                observe(entry.getValue());
+            }
+            writeEntry(entry.getKey(), entry.getValue());
+        }
+        out.getFD().sync();
+        if (length >= compactionThreshold && !isCompacting && !compactor.isShutdown()) {
+            isCompacting = true;
+            compactor.execute(this::compactInBackground);
+        }
+    }
+
+    // REQUIRES: hasSnapshot()
+    // MODIFIES: this
+    // EFFECTS: appends the user settings of profile to the journal; throws IOException if the journal cannot be written
+    public void appendSettings(UserProfile profile) throws IOException {
+        append(HabitMutation.SETTINGS_CHANGED, BinaryCodec.encodeSettings(profile));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes all of hm as a new snapshot and empties the journal; throws IOException if the snapshot or
+    //          journal cannot be written
+    public void checkpoint(HabitManager hm) throws IOException {
+        checkpoint(encode(hm));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes records as a new snapshot and empties the journal, any compaction in progress is discarded;
+    //          throws IOException if the snapshot or journal cannot be written
+    public synchronized void checkpoint(SnapshotRecords records) throws IOException {
+        records.getHabits().values().forEach(this::observe);
+        store.write(records);
+        closeStream();
+        writeJournal(new byte[0]);
+        generation++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: folds the entries currently in the journal into a fresh snapshot, entries appended while the snapshot
+    //          is being read are kept in the journal, nothing is changed if a checkpoint happens in the meantime;
+    //          throws IOException if the snapshot or journal cannot be read or written
+    public void compact() throws IOException {
+        long end;
+        int startGeneration;
+        synchronized (this) {
+            openForAppend();
+            end = length;
+            startGeneration = generation;
+        }
+        SnapshotRecords records = store.read(true);
+        replay(records, end);
+        synchronized (this) {
+            if (generation == startGeneration) {
+                store.write(records);
+                keepEntriesAfter(end);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for any compaction in progress to finish and closes the journal
+    public void close() {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closeStream();
+        }
+    }
+
+    // EFFECTS: gives record to the record observer if there is one
+    private void observe(byte[] record) {
+        if (recordObserver != null) {
+            recordObserver.accept(record);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes an entry with the given mutation and payload to the end of the journal file
+    private void writeEntry(HabitMutation mutation, byte[] payload) throws IOException {
+        byte[] body = new byte[payload.length + 1];
+        body[0] = (byte) mutation.getCode();
+        System.arraycopy(payload, 0, body, 1, payload.length);
+        ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_LENGTH + body.length)
+                .putInt(body.length).putInt(checksum(body)).put(body);
+        out.write(entry.array());
+        length += entry.capacity();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: compacts the journal, reporting rather than throwing any error
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (IOException e) {
+            EventLog.getInstance().logEvent(new Event("Unable to compact journal: " + journalPath));
+        } finally {
+            synchronized (this) {
+                isCompacting = false;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal for appending if it is not open yet, a journal without a valid header is started
+    //          over and a torn tail left by an interrupted append is cut off
+    private void openForAppend() throws IOException {
+        if (out != null) {
+            return;
+        }
+        if (hasEntries()) {
+            length = replay(null, Long.MAX_VALUE);
+            try (FileChannel channel = FileChannel.open(Paths.get(journalPath), StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+            }
+            out = new FileOutputStream(journalPath, true);
+        } else {
+            writeJournal(new byte[0]);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: keeps only the journal entries after end
+    private void keepEntriesAfter(long end) throws IOException {
+        byte[] tail = new byte[(int) (length - end)];
+        try (RandomAccessFile file = new RandomAccessFile(journalPath, "r")) {
+            file.seek(end);
+            file.readFully(tail);
+        }
+        closeStream();
+        writeJournal(tail);
+        generation++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: atomically replaces the journal file with a header followed by entries and opens it for appending
+    private void writeJournal(byte[] entries) throws IOException {
+        byte[] journal = Arrays.copyOf(MAGIC, HEADER_LENGTH + entries.length);
+        journal[MAGIC.length] = VERSION;
+        System.arraycopy(entries, 0, journal, HEADER_LENGTH, entries.length);
+        AtomicFile.write(journalPath, journal);
+        length = journal.length;
+        out = new FileOutputStream(journalPath, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the journal file if it is open
+    private void closeStream() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            EventLog.getInstance().logEvent(new Event("Unable to close journal: " + journalPath));
+        }
+        out = null;
+    }
+
+    // EFFECTS: returns true if the journal file exists with a valid header
+    private boolean hasEntries() throws IOException {
+        Path path = Paths.get(journalPath);
+        if (!Files.exists(path) || Files.size(path) < HEADER_LENGTH) {
+            return false;
+        }
+        byte[] header = new byte[HEADER_LENGTH];
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            in.readFully(header);
+        }
+        return BinaryCodec.hasMagic(header, MAGIC) && header[MAGIC.length] == VERSION;
+    }
+
+    // MODIFIES: records
+    // EFFECTS: folds the valid journal entries that end at or before limit into records, skipped if records is null,
+    //          and returns the position after the last of them
+    private long replay(SnapshotRecords records, long limit) throws IOException {
+        long position = HEADER_LENGTH;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(Paths.get(journalPath))))) {
+            in.skipNBytes(HEADER_LENGTH);
+            byte[] body = readEntry(in);
+            while (body != null && position + ENTRY_HEADER_LENGTH + body.length <= limit) {
+                if (records != null) {
+                    records.apply(HabitMutation.fromCode(body[0]), Arrays.copyOfRange(body, 1, body.length));
+                }
+                position += ENTRY_HEADER_LENGTH + body.length;
+                body = readEntry(in);
+            }
+        }
+        return position;
+    }
+
+    // EFFECTS: returns the body of the next entry, or null if the journal ends or the entry is torn or corrupt
+    private static byte[] readEntry(DataInputStream in) throws IOException {
+        try {
+            int bodyLength = in.readInt();
+            int crc = in.readInt();
+            if (bodyLength <= 0 || bodyLength > MAX_ENTRY_LENGTH) {
+                return null;
+            }
+            byte[] body = new byte[bodyLength];
+            in.readFully(body);
+            return checksum(body) == crc && isKnownMutation(body[0]) ? body : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: returns true if code is the code of a mutation
+    private static boolean isKnownMutation(int code) {
+        for (HabitMutation mutation : HabitMutation.values()) {
+            if (mutation.getCode() == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns the CRC32 checksum of bytes
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,39 @@
+package persistence;
+
+// Represents the kinds of change that are appended to the habit journal, every habit mutation stores the full
+// habit record so that replaying an entry twice has the same result as replaying it once
+public enum HabitMutation {
+    ADDED(1),
+    COMPLETED(2),
+    UNCOMPLETED(3),
+    RENAMED(4),
+    DESCRIPTION_CHANGED(5),
+    FREQUENCY_CHANGED(6),
+    PERIOD_CHANGED(7),
+    NOTIFICATIONS_TOGGLED(8),
+    REMINDERS_CHANGED(9),
+    ARCHIVED(10),
+    PERIOD_UPDATED(11),
+    DELETED(12),
+    SETTINGS_CHANGED(13);
+
+    private final int code;
+
+    HabitMutation(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return this.code;
+    }
+
+    // EFFECTS: returns the mutation with the given code; throws IllegalArgumentException if there is none
+    public static HabitMutation fromCode(int code) {
+        for (HabitMutation mutation : values()) {
+            if (mutation.code == code) {
+                return mutation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown mutation code " + code);
+    }
+}
@@ -0,0 +1,73 @@
+package persistence;
+
+import model.Habit;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Represents the encoded records of habits kept between saves, a habit is only encoded again once its version has
+// moved on from the version its record was encoded at, every other habit is saved by sharing its cached record, so a
+// snapshot of any number of habits costs only the encoding of the habits that changed, a habit is locked only while it
+// is encoded, records are immutable once cached and snapshots built from them can be written on another thread while
+// the habits keep changing
+public class HabitRecordCache {
+    private final BinaryCodec codec;
+    private final Map<UUID, CachedRecord> records;
+    private int encodeCount;
+
+    // EFFECTS: constructs an empty cache that encodes habits with codec
+    public HabitRecordCache(BinaryCodec codec) {
+        this.codec = codec;
+        this.records = new HashMap<>();
+    }
+
+    // EFFECTS: returns the number of habits encoded so far, for checking how much work a save did
+    public synchronized int getEncodeCount() {
+        return this.encodeCount;
+    }
+
+    // MODIFIES: this, habit
+    // EFFECTS: returns the record of habit, encoding it again only if it changed since its record was cached or it
+    //          is not cached yet, habit is marked clean as of the version its record was encoded at;
+    //          throws IOException if habit cannot be encoded
+    public synchronized byte[] encode(Habit habit) throws IOException {
+        CachedRecord cached = records.get(habit.getId());
+        if (cached != null && cached.version == habit.getVersion()) {
+            return cached.record;
+        }
+        cached = encodeStable(habit);
+        encodeCount++;
+        records.put(habit.getId(), cached);
+        habit.markClean(cached.version);
+        return cached.record;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the records of habits whose id is not in ids, such as deleted habits
+    public synchronized void retainAll(Set<UUID> ids) {
+        records.keySet().retainAll(ids);
+    }
+
+    // EFFECTS: encodes habit while holding its lock, so that no mutator can be halfway through changing it, and
+    //          returns the record at the version it was encoded at; throws IOException if habit cannot be encoded
+    private CachedRecord encodeStable(Habit habit) throws IOException {
+        synchronized (habit) {
+            return new CachedRecord(habit.getVersion(), codec.encodeHabit(habit));
+        }
+    }
+
+    // Represents the record of a habit and the version of the habit it was encoded at
+    private static final class CachedRecord {
+        private final long version;
+        private final byte[] record;
+
+        // EFFECTS: constructs the record of a habit encoded at version
+        private CachedRecord(long version, byte[] record) {
+            this.version = version;
+            this.record = record;
+        }
+    }
+}
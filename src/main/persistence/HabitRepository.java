@@ -0,0 +1,49 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import model.UserProfile;
+
+import java.io.IOException;
+import java.util.UUID;
+
+// Represents where a habit manager is kept, habits can be written one at a time as they change,
+// every write captures what it is given straight away and flush makes the captured writes durable,
+// so writes can be made on the thread that owns the habits and flushed on another
+public interface HabitRepository {
+
+    // EFFECTS: returns true if a habit manager has been saved to this repository
+    boolean exists() throws IOException;
+
+    // EFFECTS: reads the saved habit manager and returns it;
+    //          throws IOException if there is none or it cannot be read
+    HabitManager loadAll() throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: captures habit as it is now to be saved in place of the habit with the same id, or added after the
+    //          other habits if there is none
+    void upsert(Habit habit) throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: captures habit as it is now after the given mutation, repositories that keep no record of what
+    //          changed treat it as upsert(habit)
+    default void upsert(Habit habit, HabitMutation mutation) throws IOException {
+        upsert(habit);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: captures that the habit with the given id is to be deleted
+    void delete(UUID id) throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: captures the user settings of profile as they are now to be saved
+    void saveSettings(UserProfile profile) throws IOException;
+
+    // MODIFIES: this, hm
+    // EFFECTS: captures all of hm to replace everything saved, including any writes not flushed yet
+    void saveAll(HabitManager hm) throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: makes every write captured so far durable; throws IOException if they cannot be written
+    void flush() throws IOException;
+}
@@ -0,0 +1,86 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import model.UserProfile;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.UUID;
+
+// Represents habits kept only in memory as encoded records, nothing ever touches the disk so tests and benchmarks
+// can use it in place of a save file, habits are decoded afresh on every load just as they would be from a file
+public class InMemoryHabitRepository implements HabitRepository {
+    private final BinaryCodec codec;
+    private SnapshotRecords records;
+    private int flushCount;
+
+    // EFFECTS: constructs an empty repository decoding habits with the system default clock
+    public InMemoryHabitRepository() {
+        this(new BinaryCodec(Clock.systemDefaultZone()));
+    }
+
+    // EFFECTS: constructs an empty repository encoding and decoding habits with codec
+    public InMemoryHabitRepository(BinaryCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public synchronized boolean exists() {
+        return records != null;
+    }
+
+    // EFFECTS: returns the number of times this repository has been flushed
+    public synchronized int getFlushCount() {
+        return this.flushCount;
+    }
+
+    // EFFECTS: decodes the saved records into a new habit manager and returns it;
+    //          throws IOException if nothing has been saved
+    @Override
+    public synchronized HabitManager loadAll() throws IOException {
+        if (records == null) {
+            throw new IOException("Nothing has been saved to this repository");
+        }
+        return records.decode(codec);
+    }
+
+    @Override
+    public synchronized void upsert(Habit habit) throws IOException {
+        getRecords().putHabit(codec.encodeHabit(habit));
+    }
+
+    @Override
+    public synchronized void delete(UUID id) throws IOException {
+        getRecords().removeHabit(id);
+    }
+
+    @Override
+    public synchronized void saveSettings(UserProfile profile) throws IOException {
+        getRecords().apply(HabitMutation.SETTINGS_CHANGED, BinaryCodec.encodeSettings(profile));
+    }
+
+    // MODIFIES: this, hm
+    // EFFECTS: replaces the saved records with the records of hm, archived habits are loaded first if need be
+    @Override
+    public synchronized void saveAll(HabitManager hm) throws IOException {
+        hm.loadArchivedHabits();
+        records = SnapshotRecords.fromHabitManager(hm, codec);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts the flush, every write is already as durable as this repository gets
+    @Override
+    public synchronized void flush() {
+        flushCount++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the saved records, starting with only the default user settings if nothing has been saved
+    private SnapshotRecords getRecords() throws IOException {
+        if (records == null) {
+            records = new SnapshotRecords(BinaryCodec.encodeSettings(new UserProfile()));
+        }
+        return records;
+    }
+}
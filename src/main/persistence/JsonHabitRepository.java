@@ -0,0 +1,128 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import model.UserProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Represents habits kept in a JSON save file, a single habit cannot be rewritten in place in JSON so writes change
+// records held in memory and flush rewrites the whole file, once for however many writes were made since the last
+public class JsonHabitRepository implements HabitRepository {
+    private final String path;
+    private final Quarantine quarantine;
+    private final Object flushLock;
+    private JsonRecord settings;
+    private Map<UUID, JsonRecord> habits;
+    private boolean isDirty;
+
+    // EFFECTS: constructs a repository kept in the JSON save file at path
+    public JsonHabitRepository(String path) {
+        this(path, null);
+    }
+
+    // EFFECTS: constructs a repository kept in the JSON save file at path, corrupt habit records are set aside in
+    //          quarantine when loading
+    public JsonHabitRepository(String path, Quarantine quarantine) {
+        this.path = path;
+        this.quarantine = quarantine;
+        this.flushLock = new Object();
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(Paths.get(path));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the save file and returns its habit manager, and keeps its records for later writes
+    @Override
+    public HabitManager loadAll() throws IOException {
+        HabitManager hm = new JsonReader(path, JsonMigrations.standard(), quarantine).read();
+        synchronized (this) {
+            capture(hm);
+            isDirty = false;
+        }
+        return hm;
+    }
+
+    // REQUIRES: loadAll or saveAll has been called
+    @Override
+    public synchronized void upsert(Habit habit) {
+        habits.put(habit.getId(), JsonWriter.toRecord(habit));
+        isDirty = true;
+    }
+
+    // REQUIRES: loadAll or saveAll has been called
+    @Override
+    public synchronized void delete(UUID id) {
+        isDirty |= habits.remove(id) != null;
+    }
+
+    // REQUIRES: loadAll or saveAll has been called
+    @Override
+    public synchronized void saveSettings(UserProfile profile) {
+        settings = JsonWriter.toSettingsRecord(profile);
+        isDirty = true;
+    }
+
+    // MODIFIES: this, hm
+    // EFFECTS: replaces the records held with the records of hm, archived habits are loaded first if they have not been
+    @Override
+    public synchronized void saveAll(HabitManager hm) {
+        hm.loadArchivedHabits();
+        capture(hm);
+        isDirty = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rewrites the save file atomically with the records held, if they changed since the last flush;
+    //          throws IOException if the file cannot be written, in which case the next flush tries again
+    @Override
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            JsonRecord settingsToWrite;
+            List<JsonRecord> habitsToWrite;
+            synchronized (this) {
+                if (!isDirty) {
+                    return;
+                }
+                settingsToWrite = settings;
+                habitsToWrite = new ArrayList<>(habits.values());
+                isDirty = false;
+            }
+            try {
+                JsonWriter writer = new JsonWriter(path);
+                writer.open();
+                writer.write(settingsToWrite, habitsToWrite);
+                writer.close();
+            } catch (IOException e) {
+                markDirty();
+                throw e;
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the records held have not been written
+    private synchronized void markDirty() {
+        isDirty = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: holds the user settings and the records of the habits of hm
+    private void capture(HabitManager hm) {
+        settings = JsonWriter.toSettingsRecord(hm.getProfile());
+        habits = new LinkedHashMap<>();
+        for (Habit habit : hm.getHabits()) {
+            habits.put(habit.getId(), JsonWriter.toRecord(habit));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package persistence;
+
+// Represents the upgrade of a JSON save file from one version to the next, applied to the settings and to each
+// habit record on its own so that a save file can be upgraded while it is streamed
+public interface JsonMigration {
+
+    // MODIFIES: settings
+    // EFFECTS: upgrades the top level record of the save file, which holds every field except the habits
+    default void migrateSettings(JsonRecord settings) {
+    }
+
+    // MODIFIES: habit
+    // EFFECTS: upgrades a single habit record
+    default void migrateHabit(JsonRecord habit) {
+    }
+}
@@ -0,0 +1,102 @@
+package persistence;
+
+import model.HabitManager;
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Represents the registry of migrations between JSON save file versions, a record of any older version is upgraded
+// by applying the migration registered for each version in turn until it reaches the current version,
+// save files written before versions were stamped have no version field and are treated as UNVERSIONED
+public class JsonMigrations {
+    public static final int UNVERSIONED = 1;
+    public static final int CURRENT_VERSION = HabitManager.JSON_VERSION;
+
+    private final Map<Integer, JsonMigration> migrations;
+
+    // EFFECTS: constructs a registry without any migrations
+    public JsonMigrations() {
+        this.migrations = new HashMap<>();
+    }
+
+    // EFFECTS: returns a registry of every migration of the save file format
+    public static JsonMigrations standard() {
+        return new JsonMigrations().register(UNVERSIONED, new JsonMigration() {
+            // EFFECTS: fills in settings added after the first save files were written
+            @Override
+            public void migrateSettings(JsonRecord settings) {
+                putIfAbsent(settings, "achievementToastsEnabled", true);
+                putIfAbsent(settings, "hideOnClose", false);
+            }
+
+            // EFFECTS: fills in the archived flag added after the first save files were written
+            @Override
+            public void migrateHabit(JsonRecord habit) {
+                putIfAbsent(habit, "isArchived", false);
+            }
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers the migration that upgrades records of fromVersion to the version after it, returns this
+    public JsonMigrations register(int fromVersion, JsonMigration migration) {
+        migrations.put(fromVersion, migration);
+        return this;
+    }
+
+    // EFFECTS: throws JSONException if records of version cannot be upgraded to the current version
+    public void checkVersion(int version) {
+        if (version < UNVERSIONED || version > CURRENT_VERSION) {
+            throw new JSONException("Unsupported save file version " + version);
+        }
+        for (int v = version; v < CURRENT_VERSION; v++) {
+            if (!migrations.containsKey(v)) {
+                throw new JSONException("No migration from save file version " + v);
+            }
+        }
+    }
+
+    // REQUIRES: checkVersion(version) does not throw
+    // MODIFIES: settings
+    // EFFECTS: upgrades the top level record of a save file of version to the current version
+    public void migrateSettings(int version, JsonRecord settings) {
+        for (int v = version; v < CURRENT_VERSION; v++) {
+            migrations.get(v).migrateSettings(settings);
+        }
+    }
+
+    // REQUIRES: checkVersion(version) does not throw
+    // MODIFIES: habit
+    // EFFECTS: upgrades a habit record of a save file of version to the current version
+    public void migrateHabit(int version, JsonRecord habit) {
+        for (int v = version; v < CURRENT_VERSION; v++) {
+            migrations.get(v).migrateHabit(habit);
+        }
+    }
+
+    // EFFECTS: returns the version of a save file given its top level fields read so far, which must include the
+    //          version field if the file has one
+    public static int getVersion(JsonRecord settings) {
+        return settings.has("version") ? settings.getInt("version") : UNVERSIONED;
+    }
+
+    // EFFECTS: writes the JSON save file at source upgraded to the current version to destination, one habit at a
+    //          time; throws IOException if either file cannot be read or written,
+    //          throws JSONException if source is not a valid save file
+    public void upgrade(String source, String destination) throws IOException {
+        JsonWriter writer = new JsonWriter(destination);
+        writer.open();
+        writer.writeUpgraded(source, this);
+        writer.close();
+    }
+
+    // MODIFIES: record
+    // EFFECTS: sets key to value unless record already has a value for it
+    private static void putIfAbsent(JsonRecord record, String key, Object value) {
+        if (!record.has(key)) {
+            record.put(key, value);
+        }
+    }
+}
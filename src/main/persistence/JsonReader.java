@@ -1,165 +1,300 @@
 package persistence;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 import javafx.util.Pair;
+import org.json.JSONException;
 import model.*;
 import model.reminder.DailyReminder;
 import model.reminder.HabitReminder;
 import model.reminder.MonthlyReminder;
 import model.reminder.WeeklyReminder;
-import org.json.*;
-import ui.reminder.ReminderScheduler;
 
-// Represents a reader that reads habits from JSON data stored in file
+// Represents a reader that reads habits from JSON data stored in file,
+// the file is tokenized one habit record at a time, and chunks of records are decoded into habits in parallel while
+// the rest of the file is still being read, so only a few chunks of records are ever held at once,
+// records of older save file versions are migrated one at a time just before they are decoded,
+// a record whose checksum does not match its fields is skipped and set aside in the quarantine while the rest load
 // Citation: Code inspired by JsonSerializationDemo https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo
 public class JsonReader {
     private String source;
     private Clock clock;
+    private final JsonMigrations migrations;
+    private final Quarantine quarantine;
+    private final List<JsonRecord> quarantined;
 
     // EFFECTS: constructs reader to read from source file
     public JsonReader(String source) {
+        this(source, JsonMigrations.standard());
+    }
+
+    // EFFECTS: constructs reader to read from source file, upgrading older versions with migrations
+    public JsonReader(String source, JsonMigrations migrations) {
+        this(source, migrations, null);
+    }
+
+    // EFFECTS: constructs reader to read from source file, upgrading older versions with migrations and setting
+    //          corrupt habit records aside in quarantine, corrupt records are only skipped if quarantine is null
+    public JsonReader(String source, JsonMigrations migrations, Quarantine quarantine) {
         this.source = source;
         this.clock = Clock.systemDefaultZone();
+        this.migrations = migrations;
+        this.quarantine = quarantine;
+        this.quarantined = Collections.synchronizedList(new ArrayList<>());
     }
 
-    // EFFECTS: reads habit manager from file and returns it;
-    //          throws IOException if an error occurs reading data from file
-    public HabitManager read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        parseHabitManager(jsonObject);
-        return parseHabitManager(jsonObject);
+    // EFFECTS: returns the corrupt habit records skipped by the last read, in no particular order
+    public List<JsonRecord> getQuarantined() {
+        return new ArrayList<>(this.quarantined);
+    }
+
+    // EFFECTS: returns true if habit has a checksum and it does not match the fields of habit,
+    //          records without a checksum were saved before checksums were written and are never corrupt
+    public static boolean isCorrupt(JsonRecord habit) {
+        Object stored = habit.remove("checksum");
+        if (stored == null) {
+            return false;
+        }
+        boolean isCorrupt = !(stored instanceof Number)
+                || ((Number) stored).longValue() != JsonTokenWriter.checksum(habit);
+        habit.put("checksum", stored);
+        return isCorrupt;
     }
 
-    // EFFECTS: reads source file as string and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(contentBuilder::append);
+    // EFFECTS: reads habit manager from file, decompressing it if it is gzip compressed, and returns it;
+    //          throws IOException if an error occurs reading data from file,
+    //          throws JSONException if the file is not a valid habit manager
+    public HabitManager read() throws IOException {
+        quarantined.clear();
+        List<Habit> habits = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(Compression.open(source), StandardCharsets.UTF_8)) {
+            JsonTokenStream stream = new JsonTokenStream(reader);
+            JsonRecord settings = new JsonRecord();
+            Integer version = null;
+            stream.beginObject();
+            for (String key = stream.nextKey(); key != null; key = stream.nextKey()) {
+                if (key.equals("habits")) {
+                    version = JsonMigrations.getVersion(settings);
+                    migrations.checkVersion(version);
+                    readHabits(stream, version, habits);
+                } else {
+                    settings.put(key, stream.nextAny());
+                }
+            }
+            if (version == null) {
+                throw new JSONException("JSONObject[\"habits\"] not found.");
+            }
+            return parseHabitManager(settings, version, habits);
         }
-        return contentBuilder.toString();
     }
 
-    // EFFECTS: parses HabitManager from JSON object and returns it
-    private HabitManager parseHabitManager(JSONObject jsonObject) {
+    // EFFECTS: parses HabitManager from settings of version, after migrating them to the current version, and returns
+    //          it holding habits in order
+    private HabitManager parseHabitManager(JsonRecord settings, int version, List<Habit> habits) {
+        migrations.migrateSettings(version, settings);
         HabitManager hm = new HabitManager(
-                jsonObject.getString("username"),
-                jsonObject.getBoolean("isAutoSave"),
-                jsonObject.getBoolean("achievementToastsEnabled"),
-                jsonObject.getBoolean("hideOnClose"));
-        addHabits(hm, jsonObject);
+                settings.getString("username"),
+                settings.getBoolean("isAutoSave"),
+                settings.getBoolean("achievementToastsEnabled"),
+                settings.getBoolean("hideOnClose"));
+        habits.forEach(hm::addHabit);
         return hm;
     }
 
-    // MODIFIES: hm
-    // EFFECTS: parses habits from JSON object and adds them to habit manager
-    private void addHabits(HabitManager hm, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("habits");
-        for (Object json : jsonArray) {
-            JSONObject nextHabit = (JSONObject) json;
-            addHabit(hm, nextHabit);
+    // MODIFIES: this, stream, habits
+    // EFFECTS: reads the habits array of stream one record at a time, verifying, migrating and decoding chunks of
+    //          records of version in parallel while the following records are read, and adds the habits to habits in
+    //          file order, corrupt records are quarantined instead; the version of the file is taken from its version
+    //          field if that comes before its habits and is UNVERSIONED otherwise, as in JsonWriter.writeUpgraded
+    private void readHabits(JsonTokenStream stream, int version, List<Habit> habits) throws IOException {
+        ParallelHabitDecoder<JsonRecord> decoder = new ParallelHabitDecoder<>(habit -> readHabit(habit, version));
+        decoder.decodeAll(iterateRecords(stream), habit -> {
+            if (habit != null) {
+                habits.add(habit);
+            }
+        });
+    }
+
+    // MODIFIES: stream
+    // EFFECTS: returns an iterator reading the records of the array next in stream one at a time
+    private static Iterator<JsonRecord> iterateRecords(JsonTokenStream stream) {
+        stream.beginArray();
+        return new Iterator<>() {
+            private Boolean hasNext;
+
+            // MODIFIES: this, stream
+            // EFFECTS: returns true if the array has another record, reading ahead at most once per record
+            @Override
+            public boolean hasNext() {
+                if (hasNext == null) {
+                    hasNext = stream.hasNextElement();
+                }
+                return hasNext;
+            }
+
+            // MODIFIES: this, stream
+            // EFFECTS: reads and returns the next record of the array
+            @Override
+            public JsonRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                hasNext = null;
+                return stream.nextRecord();
+            }
+        };
+    }
+
+    // MODIFIES: this, habit
+    // EFFECTS: verifies a single habit record of version, migrates it and returns the habit decoded from it, its
+    //          reminder has no reminder scheduler yet, returns null if the record is corrupt and quarantines it;
+    //          throws IOException if it cannot be quarantined, throws JSONException if it is not a valid habit
+    public Habit readHabit(JsonRecord habit, int version) throws IOException {
+        if (isCorrupt(habit)) {
+            quarantine(habit);
+            return null;
+        }
+        migrations.migrateHabit(version, habit);
+        return parseHabit(habit);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers habit as quarantined and writes it to the quarantine, if there is one, as compact JSON
+    private void quarantine(JsonRecord habit) throws IOException {
+        quarantined.add(habit);
+        Object id = habit.getFields().get("id");
+        if (quarantine != null) {
+            StringWriter json = new StringWriter();
+            new JsonTokenWriter(new PrintWriter(json), 0).any(habit);
+            String label = id instanceof String && ((String) id).matches("[0-9a-fA-F-]{1,36}") ? (String) id : "habit";
+            quarantine.add(Paths.get(source).getFileName() + "-" + label + ".json",
+                    json.toString().getBytes(StandardCharsets.UTF_8));
         }
     }
 
-    // MODIFIES: hm
-    // EFFECTS: parses habit from JSON object and adds it to habit manager
-    private void addHabit(HabitManager hm, JSONObject jsonObject) {
-        String name = jsonObject.getString("name");
-        String description = jsonObject.getString("description");
-        Period period = Period.valueOf(jsonObject.getString("period"));
-        int frequency = jsonObject.getInt("frequency");
-        UUID id = UUID.fromString(jsonObject.getString("id"));
-        boolean notifyEnabled = jsonObject.getBoolean("notifyEnabled");
-        int numSuccess = jsonObject.getInt("numSuccess");
-        LocalDateTime currentPeriodEnd = LocalDateTime.parse(jsonObject.getString("currentPeriodEnd"));
-        LocalDateTime nextPeriodEnd = LocalDateTime.parse(jsonObject.getString("nextPeriodEnd"));
-        boolean isPreviousComplete = jsonObject.getBoolean("isPreviousComplete");
-        HabitStatistics stats = parseHabitStatistics(jsonObject.getJSONObject("habitStats"));
-        boolean isArchived = jsonObject.getBoolean("isArchived");
+    // EFFECTS: parses habit from record and returns it, its reminder has no reminder scheduler yet
+    private Habit parseHabit(JsonRecord record) {
+        String name = record.getString("name");
+        String description = record.getString("description");
+        Period period = Period.valueOf(record.getString("period"));
+        int frequency = record.getInt("frequency");
+        UUID id = UUID.fromString(record.getString("id"));
+        boolean notifyEnabled = record.getBoolean("notifyEnabled");
+        int numSuccess = record.getInt("numSuccess");
+        LocalDateTime currentPeriodEnd = LocalDateTime.parse(record.getString("currentPeriodEnd"));
+        LocalDateTime nextPeriodEnd = LocalDateTime.parse(record.getString("nextPeriodEnd"));
+        boolean isPreviousComplete = record.getBoolean("isPreviousComplete");
+        HabitStatistics stats = parseHabitStatistics(record.get("habitStats", JsonRecord.class));
+        boolean isArchived = record.getBoolean("isArchived");
         Habit habit = new Habit(name, description, period, frequency, id, notifyEnabled, numSuccess,
                 currentPeriodEnd, nextPeriodEnd, isPreviousComplete, clock, stats, null, isArchived);
-        HabitReminder reminder;
-        reminder = notifyEnabled ? parseHabitReminder(jsonObject.getJSONObject("habitReminder"), period, habit) : null;
-        habit.setHabitReminder(reminder);
-        hm.addHabit(habit);
-    }
-
-    // EFFECTS: parses habit statistics from JSON object and returns it
-    private HabitStatistics parseHabitStatistics(JSONObject jsonObject) {
-        int streak = jsonObject.getInt("streak");
-        int bestStreak = jsonObject.getInt("bestStreak");
-        int totalNumSuccess = jsonObject.getInt("totalNumSuccess");
-        int numPeriodSuccess = jsonObject.getInt("numPeriodSuccess");
-        int numPeriod = jsonObject.getInt("numPeriod");
+        habit.setHabitReminder(notifyEnabled
+                ? parseHabitReminder(record.get("habitReminder", JsonRecord.class), period, habit) : null);
+        if (record.has("completions")) {
+            habit.setCompletionLog(parseCompletionLog(record.getString("completions")));
+        }
+        return habit;
+    }
+
+    // EFFECTS: parses the base64 encoded completion log and returns it; throws JSONException if it is malformed
+    private CompletionLog parseCompletionLog(String completions) {
+        try {
+            return CompletionLog.decode(Base64.getDecoder().decode(completions));
+        } catch (IllegalArgumentException e) {
+            throw new JSONException("Malformed completion log", e);
+        }
+    }
+
+    // EFFECTS: parses habit statistics from record and returns it
+    private HabitStatistics parseHabitStatistics(JsonRecord record) {
+        int streak = record.getInt("streak");
+        int bestStreak = record.getInt("bestStreak");
+        int totalNumSuccess = record.getInt("totalNumSuccess");
+        int numPeriodSuccess = record.getInt("numPeriodSuccess");
+        int numPeriod = record.getInt("numPeriod");
         return new HabitStatistics(streak, bestStreak, totalNumSuccess, numPeriodSuccess, numPeriod);
     }
 
-    // EFFECTS: parses habit reminder from JSON object and returns it
-    private HabitReminder parseHabitReminder(JSONObject jsonObject, Period period, Habit habit) {
+    // EFFECTS: parses habit reminder from record and returns it
+    private HabitReminder parseHabitReminder(JsonRecord record, Period period, Habit habit) {
         switch (period) {
             case DAILY:
-                return parseDailyReminder(jsonObject, habit);
+                return parseDailyReminder(record, habit);
             case WEEKLY:
-                return parseWeeklyReminder(jsonObject, habit);
+                return parseWeeklyReminder(record, habit);
             default:
-                return parseMonthlyReminder(jsonObject, habit);
+                return parseMonthlyReminder(record, habit);
         }
     }
 
-    // EFFECTS: parses daily reminder from JSON object and returns it
-    private HabitReminder parseDailyReminder(JSONObject jsonObject, Habit habit) {
-        Set<LocalDateTime> reminders = parseReminderDateTimes(jsonObject.getJSONArray("reminders"));
-        boolean isDefault = jsonObject.getBoolean("isDefault");
-        ReminderScheduler reminderScheduler = new ReminderScheduler();
-        return new DailyReminder(reminders, clock, isDefault, habit, reminderScheduler);
+    // EFFECTS: parses daily reminder from record and returns it
+    private HabitReminder parseDailyReminder(JsonRecord record, Habit habit) {
+        Set<LocalDateTime> reminders = parseReminderDateTimes(record);
+        boolean isDefault = record.getBoolean("isDefault");
+        return new DailyReminder(reminders, clock, isDefault, habit, null);
     }
 
-    // EFFECTS: parses weekly reminder from JSON object and returns it
-    private HabitReminder parseWeeklyReminder(JSONObject jsonObject, Habit habit) {
-        Set<LocalDateTime> reminders = parseReminderDateTimes(jsonObject.getJSONArray("reminders"));
-        boolean isDefault = jsonObject.getBoolean("isDefault");
-        ReminderScheduler reminderScheduler = new ReminderScheduler();
-        return new WeeklyReminder(reminders, clock, isDefault, habit, reminderScheduler);
+    // EFFECTS: parses weekly reminder from record and returns it
+    private HabitReminder parseWeeklyReminder(JsonRecord record, Habit habit) {
+        Set<LocalDateTime> reminders = parseReminderDateTimes(record);
+        boolean isDefault = record.getBoolean("isDefault");
+        return new WeeklyReminder(reminders, clock, isDefault, habit, null);
     }
 
-    // EFFECTS: parses monthly reminder from JSON object and returns it
-    private HabitReminder parseMonthlyReminder(JSONObject jsonObject, Habit habit) {
-        boolean isDefault = jsonObject.getBoolean("isDefault");
-        Set<Pair<Integer, LocalTime>> customReminders =
-                isDefault ? null : parseCustomMonthlyPairs(jsonObject.getJSONArray("customReminders"));
-        Set<LocalDateTime> reminders = parseReminderDateTimes(jsonObject.getJSONArray("reminders"));
-        ReminderScheduler reminderScheduler = new ReminderScheduler();
-        return new MonthlyReminder(customReminders, reminders, clock, isDefault, habit, reminderScheduler);
+    // EFFECTS: parses monthly reminder from record and returns it
+    private HabitReminder parseMonthlyReminder(JsonRecord record, Habit habit) {
+        boolean isDefault = record.getBoolean("isDefault");
+        Set<Pair<Integer, LocalTime>> customReminders = isDefault ? null : parseCustomMonthlyPairs(record);
+        Set<LocalDateTime> reminders = parseReminderDateTimes(record);
+        return new MonthlyReminder(customReminders, reminders, clock, isDefault, habit, null);
     }
 
-    // EFFECTS: parses reminder date times from JSON array and returns it
-    private Set<LocalDateTime> parseReminderDateTimes(JSONArray jsonArray) {
+    // EFFECTS: parses the reminder records of record and returns their date times
+    private Set<LocalDateTime> parseReminderDateTimes(JsonRecord record) {
         Set<LocalDateTime> reminders = new HashSet<>();
-        for (Object json : jsonArray) {
-            JSONObject nextReminder = (JSONObject) json;
-            reminders.add(LocalDateTime.parse(nextReminder.getString("dateTime")));
+        for (JsonRecord reminder : getRecords(record, "reminders")) {
+            reminders.add(LocalDateTime.parse(reminder.getString("dateTime")));
         }
         return reminders;
     }
 
-    // EFFECTS: parses custom monthly pairs from JSON array and returns it
-    private Set<Pair<Integer, LocalTime>> parseCustomMonthlyPairs(JSONArray jsonArray) {
+    // EFFECTS: parses the custom monthly pair records of record and returns them
+    private Set<Pair<Integer, LocalTime>> parseCustomMonthlyPairs(JsonRecord record) {
         Set<Pair<Integer, LocalTime>> customReminders = new HashSet<>();
-        for (Object json : jsonArray) {
-            JSONObject nextPair = (JSONObject) json;
-            customReminders.add(new Pair<>(nextPair.getInt("day"), LocalTime.parse(nextPair.getString("time"))));
+        for (JsonRecord pair : getRecords(record, "customReminders")) {
+            customReminders.add(new Pair<>(pair.getInt("day"), LocalTime.parse(pair.getString("time"))));
         }
         return customReminders;
     }
-}
\ No newline at end of file
+
+    // EFFECTS: returns the array of records of the given key of record;
+    //          throws JSONException if the key is missing or any element is not an object
+    private static List<JsonRecord> getRecords(JsonRecord record, String key) {
+        List<JsonRecord> records = new ArrayList<>();
+        for (Object element : record.get(key, List.class)) {
+            if (!(element instanceof JsonRecord)) {
+                throw new JSONException("JSONArray[\"" + key + "\"] is not an array of objects.");
+            }
+            records.add((JsonRecord) element);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,68 @@
+package persistence;
+
+import org.json.JSONException;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Represents the fields of a single JSON object read from a token stream, in the order they were read,
+// nested objects are records and nested arrays are lists, so that a record can be migrated and written back as is
+public class JsonRecord {
+    private final Map<String, Object> fields;
+
+    // EFFECTS: constructs an empty record
+    public JsonRecord() {
+        this.fields = new LinkedHashMap<>();
+    }
+
+    // EFFECTS: returns the fields of this record in the order they were put
+    public Map<String, Object> getFields() {
+        return Collections.unmodifiableMap(fields);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the value of the given key
+    public void put(String key, Object value) {
+        fields.put(key, value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the given key and returns its value, or null if there was none
+    public Object remove(String key) {
+        return fields.remove(key);
+    }
+
+    // EFFECTS: returns true if the record has a non-null value for the given key
+    public boolean has(String key) {
+        return fields.get(key) != null;
+    }
+
+    // EFFECTS: returns value of the given key cast to type;
+    //          throws JSONException if the key is missing, null, or not of the given type
+    public <T> T get(String key, Class<T> type) {
+        Object value = fields.get(key);
+        if (value == null) {
+            throw new JSONException("JSONObject[\"" + key + "\"] not found.");
+        }
+        if (!type.isInstance(value)) {
+            throw new JSONException("JSONObject[\"" + key + "\"] is not a " + type.getSimpleName() + ".");
+        }
+        return type.cast(value);
+    }
+
+    // EFFECTS: returns value of the given key as a string; throws JSONException if it is missing or not a string
+    public String getString(String key) {
+        return get(key, String.class);
+    }
+
+    // EFFECTS: returns value of the given key as an int; throws JSONException if it is missing or not a number
+    public int getInt(String key) {
+        return get(key, Number.class).intValue();
+    }
+
+    // EFFECTS: returns value of the given key as a boolean; throws JSONException if it is missing or not a boolean
+    public boolean getBoolean(String key) {
+        return get(key, Boolean.class);
+    }
+}
@@ -0,0 +1,128 @@
+package persistence;
+
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a pull-style stream of JSON tokens read from a character stream,
+// values are consumed one at a time so that no JSON object tree is ever built
+public class JsonTokenStream {
+    private final JSONTokener tokener;
+
+    // EFFECTS: constructs a token stream reading from the given reader
+    public JsonTokenStream(Reader reader) {
+        this.tokener = new JSONTokener(reader);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the opening brace of an object; throws JSONException if next token is not '{'
+    public void beginObject() {
+        expect('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next key of the current object and consumes the following ':',
+    //          returns null if the current object has ended
+    public String nextKey() {
+        char c = tokener.nextClean();
+        if (c == ',') {
+            c = tokener.nextClean();
+        }
+        if (c == '}') {
+            return null;
+        }
+        if (c != '"' && c != '\'') {
+            throw tokener.syntaxError("Expected a key");
+        }
+        String key = tokener.nextString(c);
+        expect(':');
+        return key;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the opening bracket of an array; throws JSONException if next token is not '['
+    public void beginArray() {
+        expect('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the current array has another element, false if the array has ended
+    public boolean hasNextElement() {
+        char c = tokener.nextClean();
+        if (c == ']') {
+            return false;
+        }
+        if (c != ',') {
+            tokener.back();
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if the next value is null and consumes it, otherwise consumes nothing
+    public boolean nextIsNull() {
+        char c = tokener.nextClean();
+        tokener.back();
+        if (c != 'n') {
+            return false;
+        }
+        return nextValue() == null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next object as a record, nested objects as records and nested arrays as lists;
+    //          throws JSONException if the next value is not an object
+    public JsonRecord nextRecord() {
+        JsonRecord record = new JsonRecord();
+        beginObject();
+        for (String key = nextKey(); key != null; key = nextKey()) {
+            record.put(key, nextAny());
+        }
+        return record;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next array as a list, nested objects as records and nested arrays as lists;
+    //          throws JSONException if the next value is not an array
+    public List<Object> nextList() {
+        List<Object> list = new ArrayList<>();
+        beginArray();
+        while (hasNextElement()) {
+            list.add(nextAny());
+        }
+        return list;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next value of any kind, objects as records, arrays as lists and JSON null as null
+    public Object nextAny() {
+        char c = tokener.nextClean();
+        tokener.back();
+        if (c == '{') {
+            return nextRecord();
+        } else if (c == '[') {
+            return nextList();
+        }
+        return nextValue();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next value, JSON null is returned as null,
+    //          objects and arrays are built as JSON objects and arrays, use nextAny to read them as records and lists
+    public Object nextValue() {
+        Object value = tokener.nextValue();
+        return JSONObject.NULL.equals(value) ? null : value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next character; throws JSONException if it is not the expected character
+    private void expect(char expected) {
+        char c = tokener.nextClean();
+        if (c != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package persistence;
+
+import org.json.JSONObject;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Represents a push-style stream of JSON tokens written straight to a character stream,
+// values are written as soon as they are given so that no JSON object tree is ever built,
+// output is indented by a fixed number of spaces per level, or compact if the indent is 0,
+// a CRC32 checksum can be taken over the tokens written between two points, whitespace is left out of it so the
+// checksum of a value is the same whatever the indent
+public class JsonTokenWriter {
+    private final PrintWriter writer;
+    private final int indent;
+    private final Deque<Boolean> isEmpty;
+    private boolean afterName;
+    private CRC32 checksum;
+
+    // REQUIRES: indent >= 0
+    // EFFECTS: constructs a token writer writing to writer with the given indent
+    public JsonTokenWriter(PrintWriter writer, int indent) {
+        this.writer = writer;
+        this.indent = indent;
+        this.isEmpty = new ArrayDeque<>();
+    }
+
+    // EFFECTS: returns the checksum of the fields of record as written by JsonWriter, that is of record written as an
+    //          object without its braces
+    public static long checksum(JsonRecord record) {
+        JsonTokenWriter json = new JsonTokenWriter(new PrintWriter(Writer.nullWriter()), 0);
+        json.beginObject();
+        json.startChecksum();
+        for (Map.Entry<String, Object> field : record.getFields().entrySet()) {
+            json.name(field.getKey()).any(field.getValue());
+        }
+        return json.endChecksum();
+    }
+
+    // REQUIRES: no checksum has been started since the last call to endChecksum
+    // MODIFIES: this
+    // EFFECTS: starts a checksum over the tokens written from now on
+    public void startChecksum() {
+        checksum = new CRC32();
+    }
+
+    // REQUIRES: startChecksum has been called
+    // MODIFIES: this
+    // EFFECTS: ends the current checksum and returns the CRC32 checksum of the tokens written since it was started
+    public long endChecksum() {
+        long value = checksum.getValue();
+        checksum = null;
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening brace of an object
+    public JsonTokenWriter beginObject() {
+        return open('{');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the closing brace of the current object
+    public JsonTokenWriter endObject() {
+        return close('}');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening bracket of an array
+    public JsonTokenWriter beginArray() {
+        return open('[');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the closing bracket of the current array
+    public JsonTokenWriter endArray() {
+        return close(']');
+    }
+
+    // REQUIRES: the current value is an object
+    // MODIFIES: this
+    // EFFECTS: writes a key of the current object, the next token written is its value
+    public JsonTokenWriter name(String key) {
+        separate();
+        emit(JSONObject.quote(key));
+        emit(":");
+        if (indent > 0) {
+            writer.print(' ');
+        }
+        afterName = true;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a string value, or null if value is null
+    public JsonTokenWriter value(String value) {
+        beforeValue();
+        emit(value == null ? "null" : JSONObject.quote(value));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a number value
+    public JsonTokenWriter value(long value) {
+        beforeValue();
+        emit(String.valueOf(value));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a boolean value
+    public JsonTokenWriter value(boolean value) {
+        beforeValue();
+        emit(String.valueOf(value));
+        return this;
+    }
+
+    // REQUIRES: value is null, a string, number, boolean, record, or a list of such values
+    // MODIFIES: this
+    // EFFECTS: writes value, records as objects and lists as arrays, as read by JsonTokenStream.nextAny
+    public JsonTokenWriter any(Object value) {
+        if (value instanceof JsonRecord) {
+            beginObject();
+            for (Map.Entry<String, Object> field : ((JsonRecord) value).getFields().entrySet()) {
+                name(field.getKey()).any(field.getValue());
+            }
+            return endObject();
+        } else if (value instanceof List) {
+            beginArray();
+            for (Object element : (List<?>) value) {
+                any(element);
+            }
+            return endArray();
+        }
+        beforeValue();
+        emit(JSONObject.valueToString(value));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the opening character of an object or array and starts a new level
+    private JsonTokenWriter open(char c) {
+        beforeValue();
+        emit(String.valueOf(c));
+        isEmpty.push(true);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: ends the current level and writes its closing character, on a new line if it had any elements
+    private JsonTokenWriter close(char c) {
+        if (!isEmpty.pop()) {
+            newLine();
+        }
+        emit(String.valueOf(c));
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: separates the next value from the previous one, unless it is the value of the key just written
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+        } else if (!isEmpty.isEmpty()) {
+            separate();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a comma if the current level already has an element, then starts a new line
+    private void separate() {
+        if (!isEmpty.pop()) {
+            emit(",");
+        }
+        isEmpty.push(false);
+        newLine();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes token and adds it to the current checksum if there is one
+    private void emit(String token) {
+        writer.print(token);
+        if (checksum != null) {
+            checksum.update(token.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // EFFECTS: starts a new line indented to the current level, nothing is written for compact output
+    private void newLine() {
+        if (indent > 0) {
+            writer.print('\n');
+            writer.print(" ".repeat(indent * isEmpty.size()));
+        }
+    }
+}
@@ -1,46 +1,276 @@
 package persistence;
 
+import javafx.util.Pair;
+import model.Habit;
 import model.HabitManager;
-import org.json.JSONObject;
+import model.UserProfile;
+import model.HabitStatistics;
+import model.reminder.HabitReminder;
+import model.reminder.MonthlyReminder;
 
-import java.io.FileNotFoundException;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
-// Represents a writer that writes JSON representation of habitManager to file
+// Represents a writer that writes JSON representation of habitManager to file,
+// habits are walked and written token by token so that only the habit being written is ever held as JSON,
+// the file is gzip compressed if its name ends with ".gz" and is replaced atomically when the writer is closed
 // Citation: Code inspired by JsonSerializationDemo https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo
 public class JsonWriter {
     private static final int TAB = 4;
     private PrintWriter writer;
-    private String destination;
+    private FileOutputStream out;
+    private GZIPOutputStream compressed;
+    private AtomicFile destination;
+    private final boolean isCompact;
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write indented JSON to destination file
     public JsonWriter(String destination) {
-        this.destination = destination;
+        this(destination, false);
     }
 
-    // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
-    //          be opened for writing
-    public void open() throws FileNotFoundException {
-        writer = new PrintWriter(destination);
+    // EFFECTS: constructs writer to write to destination file, without any whitespace if isCompact
+    public JsonWriter(String destination, boolean isCompact) {
+        this.destination = new AtomicFile(destination);
+        this.isCompact = isCompact;
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of workroom to file
+    // EFFECTS: opens writer; throws IOException if destination file cannot be opened for writing
+    public void open() throws IOException {
+        out = destination.startWrite();
+        OutputStream stream = out;
+        if (Compression.isCompressedPath(destination.getPath())) {
+            compressed = Compression.compress(out);
+            stream = compressed;
+        }
+        writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+    }
+
+    // MODIFIES: this, hm
+    // EFFECTS: writes JSON representation of hm to file, stamped with the current version ahead of every other
+    //          field, archived habits are loaded first if they have not been
     public void write(HabitManager hm) {
-        JSONObject json = hm.toJson();
-        saveToFile(json.toString(TAB));
+        hm.loadArchivedHabits();
+        JsonTokenWriter json = new JsonTokenWriter(writer, isCompact ? 0 : TAB);
+        json.beginObject();
+        json.name("version").value(JsonMigrations.CURRENT_VERSION);
+        UserProfile profile = hm.getProfile();
+        if (profile.getUsername() != null) {
+            json.name("username").value(profile.getUsername());
+        }
+        json.name("isAutoSave").value(profile.isAutoSave());
+        json.name("achievementToastsEnabled").value(profile.isAchievementToastsEnabled());
+        json.name("hideOnClose").value(profile.isHideOnClose());
+        json.name("habits").beginArray();
+        for (Habit habit : hm.getHabits()) {
+            writeHabit(json, habit);
+        }
+        json.endArray().endObject();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the user settings in settings and the habit records in habits as a save file of the current
+    //          version, each habit is stamped with the checksum of its fields
+    public void write(JsonRecord settings, Collection<JsonRecord> habits) {
+        JsonTokenWriter json = new JsonTokenWriter(writer, isCompact ? 0 : TAB);
+        json.beginObject().name("version").value(JsonMigrations.CURRENT_VERSION);
+        for (Map.Entry<String, Object> field : settings.getFields().entrySet()) {
+            json.name(field.getKey()).any(field.getValue());
+        }
+        json.name("habits").beginArray();
+        for (JsonRecord habit : habits) {
+            writeCheckedRecord(json, habit);
+        }
+        json.endArray().endObject();
+    }
+
+    // EFFECTS: returns the user settings of profile as a record of the fields written ahead of the habits
+    public static JsonRecord toSettingsRecord(UserProfile profile) {
+        JsonRecord settings = new JsonRecord();
+        if (profile.getUsername() != null) {
+            settings.put("username", profile.getUsername());
+        }
+        settings.put("isAutoSave", profile.isAutoSave());
+        settings.put("achievementToastsEnabled", profile.isAchievementToastsEnabled());
+        settings.put("hideOnClose", profile.isHideOnClose());
+        return settings;
+    }
+
+    // EFFECTS: returns habit as the record written for it in the habits array, without its checksum
+    public static JsonRecord toRecord(Habit habit) {
+        StringWriter text = new StringWriter();
+        writeHabit(new JsonTokenWriter(new PrintWriter(text), 0), habit);
+        JsonRecord record = new JsonTokenStream(new StringReader(text.toString())).nextRecord();
+        record.remove("checksum");
+        return record;
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: writes the JSON save file at source upgraded to the current version with migrations, habits are read,
+    //          migrated and written one at a time, the version of source is taken from its version field if that comes
+    //          before its habits and is UNVERSIONED otherwise; throws IOException if source cannot be read,
+    //          throws JSONException if source is not a valid save file
+    public void writeUpgraded(String source, JsonMigrations migrations) throws IOException {
+        JsonTokenWriter json = new JsonTokenWriter(writer, isCompact ? 0 : TAB);
+        json.beginObject().name("version").value(JsonMigrations.CURRENT_VERSION);
+        JsonRecord settings = new JsonRecord();
+        Integer version = null;
+        try (Reader reader = new InputStreamReader(Compression.open(source), StandardCharsets.UTF_8)) {
+            JsonTokenStream stream = new JsonTokenStream(reader);
+            stream.beginObject();
+            for (String key = stream.nextKey(); key != null; key = stream.nextKey()) {
+                if (key.equals("habits")) {
+                    version = JsonMigrations.getVersion(settings);
+                    migrations.checkVersion(version);
+                    writeUpgradedHabits(json.name("habits"), stream, version, migrations);
+                } else {
+                    settings.put(key, stream.nextAny());
+                }
+            }
+        }
+        writeUpgradedSettings(json, settings, version == null ? JsonMigrations.getVersion(settings) : version,
+                migrations);
+        json.endObject();
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: forces written data to disk, closes writer and replaces destination file with it;
+    //          throws IOException if writing failed, in which case destination file is left unchanged
+    public void close() throws IOException {
+        writer.flush();
+        try {
+            if (writer.checkError()) {
+                throw new IOException("Unable to write to file: " + destination.getPath());
+            }
+            if (compressed != null) {
+                compressed.finish();
+            }
+        } catch (IOException e) {
+            destination.failWrite(out);
+            throw e;
+        }
+        destination.finishWrite(out);
+    }
+
+    // MODIFIES: this, stream
+    // EFFECTS: copies the habits array of stream as an array, migrating one habit record at a time from version and
+    //          stamping it with the checksum of its fields, a record whose checksum does not match is copied unchanged
+    //          so that it is still quarantined when read
+    private void writeUpgradedHabits(JsonTokenWriter json, JsonTokenStream stream, int version,
+                                     JsonMigrations migrations) {
+        json.beginArray();
+        stream.beginArray();
+        while (stream.hasNextElement()) {
+            JsonRecord habit = stream.nextRecord();
+            if (JsonReader.isCorrupt(habit)) {
+                json.any(habit);
+                continue;
+            }
+            habit.remove("checksum");
+            migrations.migrateHabit(version, habit);
+            writeCheckedRecord(json, habit);
+        }
+        json.endArray();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every field of settings other than the version, after migrating them from version
+    private void writeUpgradedSettings(JsonTokenWriter json, JsonRecord settings, int version,
+                                       JsonMigrations migrations) {
+        migrations.checkVersion(version);
+        migrations.migrateSettings(version, settings);
+        settings.remove("version");
+        for (Map.Entry<String, Object> field : settings.getFields().entrySet()) {
+            json.name(field.getKey()).any(field.getValue());
+        }
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes habit record as a JSON object followed by the checksum of its fields
+    private static void writeCheckedRecord(JsonTokenWriter json, JsonRecord habit) {
+        json.beginObject();
+        json.startChecksum();
+        for (Map.Entry<String, Object> field : habit.getFields().entrySet()) {
+            json.name(field.getKey()).any(field.getValue());
+        }
+        long checksum = json.endChecksum();
+        json.name("checksum").value(checksum).endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes habit as a JSON object, its last field is the checksum of the fields before it
+    public static void writeHabit(JsonTokenWriter json, Habit habit) {
+        json.beginObject();
+        json.startChecksum();
+        json.name("name").value(habit.getName());
+        json.name("description").value(habit.getDescription());
+        json.name("period").value(habit.getPeriod().toString());
+        json.name("frequency").value(habit.getFrequency());
+        json.name("id").value(habit.getId().toString());
+        json.name("notifyEnabled").value(habit.isNotifyEnabled());
+        json.name("numSuccess").value(habit.getNumSuccess());
+        json.name("currentPeriodEnd").value(habit.getCurrentPeriodEnd().toString());
+        json.name("nextPeriodEnd").value(habit.getNextPeriodEnd().toString());
+        json.name("isPreviousComplete").value(habit.isPreviousComplete());
+        writeHabitStatistics(json.name("habitStats"), habit.getHabitStats());
+        if (habit.getHabitReminder() != null) {
+            writeHabitReminder(json.name("habitReminder"), habit.getHabitReminder());
+        }
+        if (habit.getCompletionLog().getEntryCount() > 0) {
+            json.name("completions").value(Base64.getEncoder().encodeToString(habit.getCompletionLog().encode()));
+        }
+        json.name("isArchived").value(habit.isArchived());
+        long checksum = json.endChecksum();
+        json.name("checksum").value(checksum).endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes habit statistics as a JSON object
+    private static void writeHabitStatistics(JsonTokenWriter json, HabitStatistics stats) {
+        json.beginObject();
+        json.name("streak").value(stats.getStreak());
+        json.name("bestStreak").value(stats.getBestStreak());
+        json.name("totalNumSuccess").value(stats.getTotalNumSuccess());
+        json.name("numPeriodSuccess").value(stats.getNumPeriodSuccess());
+        json.name("numPeriod").value(stats.getNumPeriod());
+        json.endObject();
+    }
+
+    // MODIFIES: json
+    // EFFECTS: writes habit reminder as a JSON object, custom monthly reminders are only written if there are any
+    private static void writeHabitReminder(JsonTokenWriter json, HabitReminder reminder) {
+        json.beginObject();
+        json.name("isDefault").value(reminder.isDefault());
+        json.name("reminders").beginArray();
+        for (LocalDateTime dateTime : reminder.getReminders()) {
+            json.beginObject().name("dateTime").value(dateTime.toString()).endObject();
+        }
+        json.endArray();
+        if (reminder instanceof MonthlyReminder && ((MonthlyReminder) reminder).getCustomReminders() != null) {
+            json.name("customReminders").beginArray();
+            for (Pair<Integer, LocalTime> pair : ((MonthlyReminder) reminder).getCustomReminders()) {
+                json.beginObject();
+                json.name("day").value(pair.getKey());
+                json.name("time").value(pair.getValue().toString());
+                json.endObject();
+            }
+            json.endArray();
+        }
+        json.endObject();
     }
-}
\ No newline at end of file
+}
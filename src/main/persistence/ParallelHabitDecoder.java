@@ -0,0 +1,140 @@
+package persistence;
+
+import model.Habit;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+// Represents a decoder that splits habit records into chunks and decodes the chunks on a fork-join pool, records
+// can be given as a list or pulled from an iterator while they are being read, in which case only as many chunks as
+// the pool has threads are held at a time, decoded habits keep the order of their records, and their reminders are
+// left as plain data without a reminder scheduler, so no scheduling work happens while loading
+public class ParallelHabitDecoder<T> {
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    private final Decoder<T> decoder;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    // Decodes a single habit record
+    public interface Decoder<T> {
+        // EFFECTS: decodes record and returns the habit, its reminder has no reminder scheduler yet;
+        //          throws IOException if record is not a valid habit
+        Habit decode(T record) throws IOException;
+    }
+
+    // EFFECTS: constructs a decoder that decodes chunks of DEFAULT_CHUNK_SIZE records on the common pool
+    public ParallelHabitDecoder(Decoder<T> decoder) {
+        this(decoder, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    // REQUIRES: chunkSize > 0
+    // EFFECTS: constructs a decoder that decodes chunks of chunkSize records on pool
+    public ParallelHabitDecoder(Decoder<T> decoder, ForkJoinPool pool, int chunkSize) {
+        this.decoder = decoder;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    // EFFECTS: decodes records and returns the habits in the same order;
+    //          throws IOException if a record cannot be decoded
+    public List<Habit> decodeAll(List<T> records) throws IOException {
+        try {
+            return records.size() <= chunkSize ? decodeChunk(records) : pool.invoke(new ChunkTask(records));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // MODIFIES: records
+    // EFFECTS: pulls records in chunks of chunkSize and decodes each chunk on the pool while the next ones are pulled,
+    //          keeping at most as many chunks in flight as the pool has threads, and hands the habits to sink in record
+    //          order; throws IOException if a record cannot be decoded, runtime exceptions thrown while decoding or
+    //          pulling records are rethrown as they are
+    public void decodeAll(Iterator<T> records, Consumer<Habit> sink) throws IOException {
+        Deque<Future<List<Habit>>> inFlight = new ArrayDeque<>();
+        while (records.hasNext()) {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && records.hasNext()) {
+                chunk.add(records.next());
+            }
+            inFlight.addLast(pool.submit(() -> decodeChunk(chunk)));
+            if (inFlight.size() >= pool.getParallelism()) {
+                join(inFlight.removeFirst()).forEach(sink);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            join(inFlight.removeFirst()).forEach(sink);
+        }
+    }
+
+    // EFFECTS: waits for chunk to be decoded and returns its habits; throws IOException if a record of chunk cannot
+    //          be decoded or the wait is interrupted, rethrows any runtime exception thrown while decoding it
+    private static List<Habit> join(Future<List<Habit>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decoding habits");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // EFFECTS: decodes records in order on the current thread and returns the habits
+    private List<Habit> decodeChunk(List<T> records) {
+        List<Habit> habits = new ArrayList<>(records.size());
+        for (T record : records) {
+            try {
+                habits.add(decoder.decode(record));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return habits;
+    }
+
+    // Represents the decoding of a range of records, split in half until a range fits in a chunk
+    private class ChunkTask extends RecursiveTask<List<Habit>> {
+        private static final long serialVersionUID = 1L;
+        private final List<T> records;
+
+        // EFFECTS: constructs a task decoding the given records
+        private ChunkTask(List<T> records) {
+            this.records = records;
+        }
+
+        // EFFECTS: decodes the records, forking the first half and decoding the second half on this thread,
+        //          and returns the habits in record order
+        @Override
+        protected List<Habit> compute() {
+            if (records.size() <= chunkSize) {
+                return decodeChunk(records);
+            }
+            int middle = records.size() / 2;
+            ChunkTask first = new ChunkTask(records.subList(0, middle));
+            first.fork();
+            List<Habit> second = new ChunkTask(records.subList(middle, records.size())).compute();
+            List<Habit> habits = new ArrayList<>(first.join());
+            habits.addAll(second);
+            return habits;
+        }
+    }
+}
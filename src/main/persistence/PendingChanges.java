@@ -0,0 +1,69 @@
+package persistence;
+
+import javafx.util.Pair;
+import model.Habit;
+import model.UserProfile;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Represents the changes made since the last auto save, only the last mutation of each habit is kept
+// since a journal entry stores the whole habit as it is when the changes are written
+public class PendingChanges {
+    private final Map<UUID, Pair<Habit, HabitMutation>> habits;
+    private boolean isSettingsChanged;
+    private boolean isFullSave;
+
+    // EFFECTS: constructs an empty set of pending changes
+    public PendingChanges() {
+        this.habits = new LinkedHashMap<>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records mutation of habit, replacing any earlier mutation of the same habit,
+    //          a SETTINGS_CHANGED mutation records a change to the user settings instead
+    public void add(Habit habit, HabitMutation mutation) {
+        if (mutation == HabitMutation.SETTINGS_CHANGED) {
+            isSettingsChanged = true;
+        } else {
+            habits.put(habit.getId(), new Pair<>(habit, mutation));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a change that needs the whole habit manager to be saved
+    public void addFullSave() {
+        isFullSave = true;
+    }
+
+    public boolean isFullSave() {
+        return this.isFullSave;
+    }
+
+    public boolean isEmpty() {
+        return !isFullSave && !isSettingsChanged && habits.isEmpty();
+    }
+
+    public Collection<Pair<Habit, HabitMutation>> getHabitChanges() {
+        return this.habits.values();
+    }
+
+    // MODIFIES: repository
+    // EFFECTS: writes these changes to repository in the order they were first made, followed by the user settings of
+    //          profile if they changed
+    public void writeTo(HabitRepository repository, UserProfile profile) throws IOException {
+        for (Pair<Habit, HabitMutation> change : habits.values()) {
+            if (change.getValue() == HabitMutation.DELETED) {
+                repository.delete(change.getKey().getId());
+            } else {
+                repository.upsert(change.getKey(), change.getValue());
+            }
+        }
+        if (isSettingsChanged) {
+            repository.saveSettings(profile);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a directory that records failing verification on load are set aside in, so the rest of a save still
+// loads and a bad record is kept for inspection or repair instead of being lost when the save is next written
+public class Quarantine {
+    private final Path directory;
+    private final List<Path> entries;
+
+    // EFFECTS: constructs a quarantine in the given directory, the directory is only created once a record is added
+    public Quarantine(String directory) {
+        this.directory = Paths.get(directory);
+        this.entries = new ArrayList<>();
+    }
+
+    // EFFECTS: returns the files of the records added to this quarantine since it was constructed
+    public synchronized List<Path> getEntries() {
+        return new ArrayList<>(this.entries);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes record to a new file in the directory named after name, earlier records are never overwritten,
+    //          and returns its path; throws IOException if the file cannot be written
+    public synchronized Path add(String name, byte[] record) throws IOException {
+        Files.createDirectories(directory);
+        Path path = directory.resolve(name);
+        for (int i = 1; Files.exists(path); i++) {
+            path = directory.resolve(i + "-" + name);
+        }
+        AtomicFile.write(path.toString(), record);
+        entries.add(path);
+        return path;
+    }
+}
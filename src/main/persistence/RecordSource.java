@@ -0,0 +1,15 @@
+package persistence;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+
+// Represents somewhere the habit records currently saved can be read from without decoding them
+@FunctionalInterface
+public interface RecordSource {
+
+    // EFFECTS: returns the records currently saved, with archived habits included, a habit whose saved record has a
+    //          checksum isKnown accepts for its id may be deferred rather than read, if this source can tell the
+    //          checksum without reading the record; throws IOException if they cannot be read
+    SnapshotRecords read(BiPredicate<UUID, Integer> isKnown) throws IOException;
+}
@@ -0,0 +1,238 @@
+package persistence;
+
+import model.log.Event;
+import model.log.EventAppender;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Represents an event appender that writes events to log files on its own daemon thread, one line per event, events
+// are queued without waiting and written in batches, a full queue drops events instead of blocking and the number
+// dropped is written once there is room, the active file "events.log" is rotated to "events.1.log" and older files
+// shifted up once it would grow past its size limit, and the oldest file beyond the file limit is deleted
+public class RotatingEventAppender implements EventAppender {
+    public static final long DEFAULT_MAX_FILE_BYTES = 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 5;
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    private static final String NAME = "events";
+    private static final String EXTENSION = ".log";
+    private static final int BATCH_SIZE = 256;
+    private static final Object STOP = new Object();
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final BlockingQueue<Object> queue;
+    private final AtomicLong dropped;
+    private final Thread thread;
+    private volatile boolean isClosed;
+    private volatile IOException error;
+    private Writer writer;
+    private long fileBytes;
+
+    // EFFECTS: constructs an appender writing to log files in directory with the default limits
+    public RotatingEventAppender(String directory) {
+        this(directory, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    // REQUIRES: maxFileBytes > 0, maxFiles > 0, queueCapacity > 0
+    // EFFECTS: constructs an appender writing to log files in directory, rotating the active file once it would grow
+    //          past maxFileBytes and keeping at most maxFiles files, and queueing at most queueCapacity events
+    public RotatingEventAppender(String directory, long maxFileBytes, int maxFiles, int queueCapacity) {
+        this.directory = Paths.get(directory);
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropped = new AtomicLong();
+        this.thread = new Thread(this::run, "habit-event-log");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // EFFECTS: returns the path of the log file with the given index, 0 being the active file
+    public Path getFile(int index) {
+        return directory.resolve(index == 0 ? NAME + EXTENSION : NAME + "." + index + EXTENSION);
+    }
+
+    // EFFECTS: returns the number of events dropped because the queue was full
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // EFFECTS: returns the last error writing the log files, or null if there has been none
+    public IOException getError() {
+        return error;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues event to be written, or drops it if the queue is full or this is closed
+    @Override
+    public void append(Event event) {
+        if (isClosed || !queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // EFFECTS: waits until every event queued so far has been written, by queueing a marker behind them that the
+    //          writer thread releases once it reaches it
+    @Override
+    public void flush() {
+        if (isClosed) {
+            return;
+        }
+        CountDownLatch marker = new CountDownLatch(1);
+        try {
+            queue.put(marker);
+            marker.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every event queued so far, stops the writer thread and closes the active file
+    @Override
+    public synchronized void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        try {
+            queue.put(STOP);
+            thread.join(TimeUnit.MINUTES.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes queued events in batches until STOP is taken, then closes the active file, an error writing a
+    //          batch is kept for getError and the active file is opened again for the next batch
+    private void run() {
+        List<Object> batch = new ArrayList<>(BATCH_SIZE);
+        boolean isRunning = true;
+        while (isRunning) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                isRunning = writeBatch(batch);
+            } catch (InterruptedException e) {
+                isRunning = false;
+            } catch (IOException e) {
+                error = e;
+                closeWriter();
+            }
+            batch.clear();
+        }
+        closeWriter();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the events of batch and flushes the file, releasing any flush markers once the events before
+    //          them are written, returns false if batch holds STOP
+    private boolean writeBatch(List<Object> batch) throws IOException {
+        boolean isRunning = true;
+        for (Object item : batch) {
+            if (item instanceof Event) {
+                writeDropped();
+                writeLine(((Event) item).getDate().toInstant() + "\t" + escape(((Event) item).getDescription()));
+            } else {
+                flushWriter();
+                if (item == STOP) {
+                    isRunning = false;
+                } else {
+                    ((CountDownLatch) item).countDown();
+                }
+            }
+        }
+        flushWriter();
+        return isRunning;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a line noting how many events were dropped since the last such line, if any were
+    private void writeDropped() throws IOException {
+        long count = dropped.getAndSet(0);
+        if (count > 0) {
+            writeLine(Instant.now() + "\t" + count + " events dropped, the event log could not keep up");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes line to the active file, rotating the files first if line would grow it past maxFileBytes
+    private void writeLine(String line) throws IOException {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+        if (writer == null) {
+            openWriter();
+        }
+        if (fileBytes > 0 && fileBytes + bytes.length > maxFileBytes) {
+            rotate();
+            openWriter();
+        }
+        writer.write(line);
+        writer.write('\n');
+        fileBytes += bytes.length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the active file for appending, creating it and its directory if they do not exist
+    private void openWriter() throws IOException {
+        Files.createDirectories(directory);
+        Path active = getFile(0);
+        fileBytes = Files.exists(active) ? Files.size(active) : 0;
+        writer = Files.newBufferedWriter(active, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the active file, deletes the oldest file, and renames every other file to the next index
+    private void rotate() throws IOException {
+        closeWriter();
+        Files.deleteIfExists(getFile(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 0; i--) {
+            if (Files.exists(getFile(i))) {
+                Files.move(getFile(i), getFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes the active file if it is open
+    private void flushWriter() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the active file if it is open, an error closing it is kept for getError
+    private void closeWriter() {
+        try {
+            if (writer != null) {
+                writer.close();
+            }
+        } catch (IOException e) {
+            error = e;
+        }
+        writer = null;
+    }
+
+    // EFFECTS: returns description with backslashes and line breaks escaped so that an event takes a single line
+    private static String escape(String description) {
+        return description.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+}
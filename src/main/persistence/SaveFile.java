@@ -0,0 +1,53 @@
+package persistence;
+
+import model.HabitManager;
+
+import java.io.IOException;
+
+// Represents a habit manager save file, the format is detected when loading and chosen from the file name when saving
+public class SaveFile {
+    private final String path;
+    private final Quarantine quarantine;
+
+    // EFFECTS: constructs a save file at the given path
+    public SaveFile(String path) {
+        this(path, null);
+    }
+
+    // EFFECTS: constructs a save file at the given path, corrupt habit records of JSON save files are set aside in
+    //          quarantine when loading
+    public SaveFile(String path, Quarantine quarantine) {
+        this.path = path;
+        this.quarantine = quarantine;
+    }
+
+    public String getPath() {
+        return this.path;
+    }
+
+    // EFFECTS: reads habit manager from file in whichever format it was saved in and returns it, corrupt habit records
+    //          of JSON save files are skipped;
+    //          throws IOException if an error occurs reading data from file
+    public HabitManager load() throws IOException {
+        if (SaveFormat.detect(path) == SaveFormat.BINARY) {
+            return new BinaryReader(path).read();
+        }
+        return new JsonReader(path, JsonMigrations.standard(), quarantine).read();
+    }
+
+    // EFFECTS: writes hm to file, as JSON if the file name ends with ".json" and as a binary snapshot otherwise;
+    //          throws IOException if an error occurs writing data to file
+    public void save(HabitManager hm) throws IOException {
+        if (SaveFormat.forPath(path) == SaveFormat.JSON) {
+            JsonWriter writer = new JsonWriter(path);
+            writer.open();
+            writer.write(hm);
+            writer.close();
+        } else {
+            BinaryWriter writer = new BinaryWriter(path);
+            writer.open();
+            writer.write(hm);
+            writer.close();
+        }
+    }
+}
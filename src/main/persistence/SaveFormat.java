@@ -0,0 +1,26 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Represents the formats a habit manager can be saved in, JSON is kept for exports and legacy save files
+public enum SaveFormat {
+    JSON,
+    BINARY;
+
+    // EFFECTS: returns the format of the file at path based on its leading magic bytes, looking inside the file if
+    //          it is gzip compressed; throws IOException if the file cannot be read
+    public static SaveFormat detect(String path) throws IOException {
+        byte[] header = new byte[BinaryCodec.MAGIC.length];
+        int read;
+        try (InputStream in = Compression.open(path)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        return read == header.length && BinaryCodec.hasMagic(header) ? BINARY : JSON;
+    }
+
+    // EFFECTS: returns the format a file at path should be saved in based on its extension, ignoring any ".gz"
+    public static SaveFormat forPath(String path) {
+        return Compression.stripExtension(path).toLowerCase().endsWith(".json") ? JSON : BINARY;
+    }
+}
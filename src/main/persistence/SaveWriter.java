@@ -0,0 +1,59 @@
+package persistence;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Represents a dedicated thread that performs save file I/O in the order it was submitted,
+// so that callers such as the Swing event dispatch thread never wait on the disk
+public class SaveWriter {
+    private final ExecutorService executor;
+
+    // Represents a piece of save file I/O to be run on the writer thread
+    @FunctionalInterface
+    public interface Task {
+        void run() throws IOException;
+    }
+
+    // EFFECTS: constructs a save writer with its own daemon thread
+    public SaveWriter() {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "habit-save-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // EFFECTS: runs task on the writer thread after every previously submitted task, returns a future that completes
+    //          once task has finished, or completes exceptionally with the error task failed with
+    public CompletableFuture<Void> submit(Task task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                task.run();
+                future.complete(null);
+            } catch (IOException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // EFFECTS: waits until every previously submitted task has finished
+    public void flush() {
+        submit(() -> { }).join();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finishes every submitted task and stops the writer thread
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package persistence;
+
+import model.log.Event;
+import model.log.EventLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+
+// Represents a snapshot kept as one shard file per habit and a small manifest listing the shards in habit order,
+// the manifest stores the settings record and the id, archived flag and CRC32 checksum of every shard,
+// so archived habits can be left unread and a write only touches the shards whose record has changed,
+// a shard that does not match its checksum is set aside in the quarantine and skipped while the rest load
+public class ShardedStore implements SnapshotStore {
+    public static final byte[] MAGIC = {'H', 'H', 'S', 'M'};
+    public static final int VERSION = 1;
+    private static final String MANIFEST = "manifest.dat";
+    private static final String SHARD_EXTENSION = ".habit";
+    private static final int ARCHIVED = 1;
+
+    private final Path directory;
+    private final Quarantine quarantine;
+    private Map<UUID, Shard> shards;
+    private int shardWrites;
+
+    // EFFECTS: constructs a sharded store in the given directory, corrupt shards are skipped without being kept
+    public ShardedStore(String directory) {
+        this(directory, null);
+    }
+
+    // EFFECTS: constructs a sharded store in the given directory that sets corrupt shards aside in quarantine
+    public ShardedStore(String directory, Quarantine quarantine) {
+        this.directory = Paths.get(directory);
+        this.quarantine = quarantine;
+    }
+
+    @Override
+    public synchronized boolean exists() {
+        return Files.exists(directory.resolve(MANIFEST));
+    }
+
+    // EFFECTS: returns the number of shards this store has written
+    public synchronized int getShardWrites() {
+        return this.shardWrites;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the records listed in the manifest, archived habits are deferred if includeArchived is false,
+    //          corrupt shards are quarantined and left out, and are deleted by the next write;
+    //          throws IOException if the manifest or a shard cannot be read
+    @Override
+    public synchronized SnapshotRecords read(boolean includeArchived) throws IOException {
+        return read(includeArchived, (id, crc) -> false);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the records listed in the manifest, a habit whose manifest checksum isKnown accepts is deferred
+    //          without its shard being read, so only the shards that changed are read and checked;
+    //          throws IOException if the manifest or a shard cannot be read
+    @Override
+    public synchronized SnapshotRecords read(BiPredicate<UUID, Integer> isKnown) throws IOException {
+        return read(true, isKnown);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the records listed in the manifest, archived habits are deferred if includeArchived is false
+    //          and so is every habit whose manifest checksum isKnown accepts, corrupt shards are quarantined and
+    //          left out; throws IOException if the manifest or a shard cannot be read
+    private SnapshotRecords read(boolean includeArchived, BiPredicate<UUID, Integer> isKnown) throws IOException {
+        SnapshotRecords records = readManifest();
+        for (Map.Entry<UUID, Shard> entry : shards.entrySet()) {
+            Shard shard = entry.getValue();
+            if ((shard.isArchived && !includeArchived) || isKnown.test(entry.getKey(), shard.crc)) {
+                records.defer(Set.of(entry.getKey()));
+                continue;
+            }
+            try {
+                records.putHabit(readRecord(entry.getKey()));
+            } catch (CorruptRecordException e) {
+                EventLog.getInstance().logEvent(new Event(e.getMessage()));
+            }
+        }
+        return records;
+    }
+
+    // EFFECTS: returns the record in the shard of the habit with the given id;
+    //          throws CorruptRecordException after quarantining the shard if it does not match the manifest,
+    //          throws IOException if the shard cannot be read
+    @Override
+    public synchronized byte[] readRecord(UUID id) throws IOException {
+        if (shards == null) {
+            readManifest();
+        }
+        Shard shard = shards.get(id);
+        byte[] record = Files.readAllBytes(getShardPath(id));
+        if (shard == null || BinaryCodec.checksum(record) != shard.crc) {
+            if (quarantine != null) {
+                quarantine.add(id + SHARD_EXTENSION, record);
+            }
+            throw new CorruptRecordException("Corrupt habit shard: " + getShardPath(id));
+        }
+        return record;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the shards of records that changed since they were last read or written, then the manifest,
+    //          and finally deletes the shards of habits no longer in records, deferred habits keep their shards;
+    //          throws IOException if a shard or the manifest cannot be written
+    @Override
+    public synchronized void write(SnapshotRecords records) throws IOException {
+        Map<UUID, Shard> previous = shards == null ? readPreviousShards() : shards;
+        Map<UUID, Shard> written = new LinkedHashMap<>();
+        for (Map.Entry<UUID, byte[]> entry : records.getHabits().entrySet()) {
+            written.put(entry.getKey(), writeShard(entry.getKey(), entry.getValue(), previous.get(entry.getKey())));
+        }
+        for (UUID id : records.getDeferred()) {
+            if (previous.containsKey(id)) {
+                written.put(id, previous.get(id));
+            }
+        }
+        writeManifest(records.getSettings(), written);
+        shards = written;
+        deleteShardsNotIn(previous.keySet());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes record to the shard of the habit with the given id unless the shard already holds it
+    //          according to old, and returns the manifest entry of the shard
+    private Shard writeShard(UUID id, byte[] record, Shard old) throws IOException {
+        Shard shard = new Shard(BinaryCodec.isArchivedRecord(record), BinaryCodec.checksum(record));
+        if (old == null || old.crc != shard.crc || !Files.exists(getShardPath(id))) {
+            Files.createDirectories(directory);
+            AtomicFile.write(getShardPath(id).toString(), record);
+            shardWrites++;
+        }
+        return shard;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the manifest, remembers its shards and returns records holding only its settings;
+    //          throws IOException if the manifest cannot be read or is not a current manifest
+    private SnapshotRecords readManifest() throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(directory.resolve(MANIFEST))))) {
+            byte[] header = new byte[MAGIC.length + 1];
+            in.readFully(header);
+            if (!BinaryCodec.hasMagic(header, MAGIC) || header[MAGIC.length] != VERSION) {
+                throw new IOException("Not a habit manifest: " + directory.resolve(MANIFEST));
+            }
+            SnapshotRecords records = new SnapshotRecords(BinaryCodec.readRecord(in));
+            int size = BinaryCodec.readVarInt(in);
+            shards = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                UUID id = BinaryCodec.readUuid(in);
+                shards.put(id, new Shard((in.readByte() & ARCHIVED) != 0, in.readInt()));
+            }
+            return records;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the shards of the current manifest, or no shards if there is no manifest yet
+    private Map<UUID, Shard> readPreviousShards() throws IOException {
+        if (!exists()) {
+            return new LinkedHashMap<>();
+        }
+        readManifest();
+        return shards;
+    }
+
+    // EFFECTS: writes the manifest of settings and shards atomically
+    private void writeManifest(byte[] settings, Map<UUID, Shard> written) throws IOException {
+        Files.createDirectories(directory);
+        AtomicFile file = new AtomicFile(directory.resolve(MANIFEST).toString());
+        FileOutputStream stream = file.startWrite();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        try {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+            BinaryCodec.writeRecord(out, settings);
+            BinaryCodec.writeVarInt(out, written.size());
+            for (Map.Entry<UUID, Shard> entry : written.entrySet()) {
+                BinaryCodec.writeUuid(out, entry.getKey());
+                out.writeByte(entry.getValue().isArchived ? ARCHIVED : 0);
+                out.writeInt(entry.getValue().crc);
+            }
+            out.flush();
+        } catch (IOException e) {
+            file.failWrite(stream);
+            throw e;
+        }
+        file.finishWrite(stream);
+    }
+
+    // EFFECTS: deletes the shards of the given habits that are no longer listed in the manifest
+    private void deleteShardsNotIn(Set<UUID> ids) throws IOException {
+        Set<UUID> removed = new HashSet<>(ids);
+        removed.removeAll(shards.keySet());
+        for (UUID id : removed) {
+            Files.deleteIfExists(getShardPath(id));
+        }
+    }
+
+    // EFFECTS: returns the path of the shard of the habit with the given id
+    private Path getShardPath(UUID id) {
+        return directory.resolve(id + SHARD_EXTENSION);
+    }
+
+    // Represents the manifest entry of a shard
+    private static final class Shard {
+        private final boolean isArchived;
+        private final int crc;
+
+        // EFFECTS: constructs a manifest entry with the given archived flag and checksum
+        private Shard(boolean isArchived, int crc) {
+            this.isArchived = isArchived;
+            this.crc = crc;
+        }
+    }
+}
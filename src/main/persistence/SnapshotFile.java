@@ -0,0 +1,42 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+// Represents a snapshot kept as a single save file, all habits are read and written together
+public class SnapshotFile implements SnapshotStore {
+    private final String path;
+    private final BinaryCodec codec;
+
+    // EFFECTS: constructs a snapshot store for the save file at path, save files in other formats are decoded with
+    //          codec when they are read
+    public SnapshotFile(String path, BinaryCodec codec) {
+        this.path = path;
+        this.codec = codec;
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.exists(Paths.get(path));
+    }
+
+    // EFFECTS: returns the records of the save file, archived habits are always read
+    @Override
+    public SnapshotRecords read(boolean includeArchived) throws IOException {
+        return SnapshotRecords.load(path, codec);
+    }
+
+    // EFFECTS: throws IOException, as a snapshot file never defers habits
+    @Override
+    public byte[] readRecord(UUID id) throws IOException {
+        throw new IOException("Habit not deferred: " + id);
+    }
+
+    // REQUIRES: records.getDeferred() is empty
+    @Override
+    public void write(SnapshotRecords records) throws IOException {
+        records.write(path);
+    }
+}
@@ -0,0 +1,174 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Represents the still encoded settings and habit records of a binary snapshot, in habit order,
+// journal entries can be folded into them without decoding any habit,
+// archived habits can be deferred, in which case only their ids are known and their records stay in storage
+public class SnapshotRecords {
+    private byte[] settings;
+    private final Map<UUID, byte[]> habits;
+    private final Set<UUID> deferred;
+
+    // EFFECTS: constructs records with the given settings record and no habits
+    public SnapshotRecords(byte[] settings) {
+        this.settings = settings;
+        this.habits = new LinkedHashMap<>();
+        this.deferred = new LinkedHashSet<>();
+    }
+
+    // EFFECTS: returns the records of hm, every habit is encoded with codec
+    public static SnapshotRecords fromHabitManager(HabitManager hm, BinaryCodec codec) throws IOException {
+        SnapshotRecords records = new SnapshotRecords(BinaryCodec.encodeSettings(hm.getProfile()));
+        for (Habit habit : hm.getHabits()) {
+            records.putHabit(codec.encodeHabit(habit));
+        }
+        return records;
+    }
+
+    // MODIFIES: cache, hm
+    // EFFECTS: returns the records of hm as a snapshot that shares the cached records of habits that did not change,
+    //          only habits changed since they were cached are encoded again, archived habits of hm that have not been
+    //          loaded stay deferred
+    public static SnapshotRecords fromHabitManager(HabitManager hm, HabitRecordCache cache) throws IOException {
+        SnapshotRecords records = new SnapshotRecords(BinaryCodec.encodeSettings(hm.getProfile()));
+        for (Habit habit : hm.getHabits()) {
+            records.putHabit(cache.encode(habit));
+        }
+        cache.retainAll(records.habits.keySet());
+        records.defer(hm.getUnloadedArchivedIds());
+        return records;
+    }
+
+    // EFFECTS: reads the records of the save file at path, save files that are not current binary snapshots are
+    //          decoded and encoded again; throws IOException if the file cannot be read
+    public static SnapshotRecords load(String path, BinaryCodec codec) throws IOException {
+        if (SaveFormat.detect(path) == SaveFormat.BINARY) {
+            try (DataInputStream in = new DataInputStream(Compression.open(path))) {
+                if (BinaryCodec.readHeader(in) == BinaryCodec.VERSION) {
+                    return readRecords(in);
+                }
+            }
+        }
+        return fromHabitManager(new SaveFile(path).load(), codec);
+    }
+
+    // EFFECTS: reads the records of the current binary snapshot at path;
+    //          throws IOException if the file cannot be read or is not a current binary snapshot
+    public static SnapshotRecords read(String path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Compression.open(path))) {
+            if (BinaryCodec.readHeader(in) != BinaryCodec.VERSION) {
+                throw new IOException("Not a current binary snapshot: " + path);
+            }
+            return readRecords(in);
+        }
+    }
+
+    // EFFECTS: reads the settings record and habit records that follow a snapshot header
+    private static SnapshotRecords readRecords(DataInputStream in) throws IOException {
+        SnapshotRecords records = new SnapshotRecords(BinaryCodec.readRecord(in));
+        int size = BinaryCodec.readVarInt(in);
+        for (int i = 0; i < size; i++) {
+            records.putHabit(BinaryCodec.readRecord(in));
+        }
+        return records;
+    }
+
+    public int getSize() {
+        return this.habits.size();
+    }
+
+    public byte[] getSettings() {
+        return this.settings;
+    }
+
+    public Map<UUID, byte[]> getHabits() {
+        return this.habits;
+    }
+
+    public Set<UUID> getDeferred() {
+        return this.deferred;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the habit with the same id as record, or adds it at the end if there is none
+    public void putHabit(byte[] record) {
+        UUID id = BinaryCodec.getRecordId(record);
+        deferred.remove(id);
+        habits.put(id, record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the habit with the given id, whether its record is held or deferred
+    public void removeHabit(UUID id) {
+        habits.remove(id);
+        deferred.remove(id);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the archived habits with the given ids are left in storage
+    public void defer(Collection<UUID> ids) {
+        deferred.addAll(ids);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: folds a journal entry of the given mutation into these records
+    public void apply(HabitMutation mutation, byte[] payload) {
+        if (mutation == HabitMutation.DELETED) {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            removeHabit(new UUID(buffer.getLong(), buffer.getLong()));
+        } else if (mutation == HabitMutation.SETTINGS_CHANGED) {
+            settings = payload;
+        } else {
+            putHabit(payload);
+        }
+    }
+
+    // EFFECTS: decodes these records into a habit manager with codec, habits are decoded in parallel and keep
+    //          their order
+    public HabitManager decode(BinaryCodec codec) throws IOException {
+        HabitManager hm = BinaryCodec.decodeSettings(settings);
+        List<byte[]> records = new ArrayList<>(habits.values());
+        for (Habit habit : new ParallelHabitDecoder<>(codec::decodeHabit).decodeAll(records)) {
+            hm.addHabit(habit);
+        }
+        return hm;
+    }
+
+    // EFFECTS: writes these records as a snapshot to path atomically, so that path always holds either the previous
+    //          or the new snapshot; throws IOException if writing fails
+    public void write(String path) throws IOException {
+        AtomicFile file = new AtomicFile(path);
+        FileOutputStream stream = file.startWrite();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        try {
+            BinaryCodec.writeHeader(out);
+            BinaryCodec.writeRecord(out, settings);
+            BinaryCodec.writeVarInt(out, habits.size());
+            for (byte[] record : habits.values()) {
+                BinaryCodec.writeRecord(out, record);
+            }
+            out.flush();
+        } catch (IOException e) {
+            file.failWrite(stream);
+            throw e;
+        }
+        file.finishWrite(stream);
+    }
+}
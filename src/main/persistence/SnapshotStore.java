@@ -0,0 +1,31 @@
+package persistence;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+
+// Represents where the snapshot that journal entries are replayed on is kept
+public interface SnapshotStore {
+
+    // EFFECTS: returns true if a snapshot has been written to this store
+    boolean exists() throws IOException;
+
+    // EFFECTS: returns the records of the snapshot, archived habits are only deferred rather than read if
+    //          includeArchived is false and this store supports it; throws IOException if the snapshot cannot be read
+    SnapshotRecords read(boolean includeArchived) throws IOException;
+
+    // EFFECTS: returns the records of the snapshot with archived habits included, a habit whose stored checksum
+    //          isKnown accepts for its id is deferred rather than read if this store keeps checksums apart from the
+    //          records, otherwise every record is read; throws IOException if the snapshot cannot be read
+    default SnapshotRecords read(BiPredicate<UUID, Integer> isKnown) throws IOException {
+        return read(true);
+    }
+
+    // EFFECTS: returns the record of the deferred habit with the given id;
+    //          throws IOException if it cannot be read
+    byte[] readRecord(UUID id) throws IOException;
+
+    // EFFECTS: replaces the snapshot with records, deferred habits of records keep their stored records;
+    //          throws IOException if the snapshot cannot be written
+    void write(SnapshotRecords records) throws IOException;
+}
@@ -1,6 +1,7 @@
 package ui;
 
 import javafx.util.Pair;
+import model.UserProfile;
 import model.achievement.Achievement;
 
 import javax.sound.sampled.*;
@@ -18,24 +19,25 @@ public class AchievementToast extends JPanel {
     private Lock lock = new ReentrantLock();
     private JLabel title;
     private JLabel description;
-    private boolean achievementToastsEnabled;
+    private UserProfile profile;
 
-    // EFFECTS: initializes achievement toast panel with placeholder text
-    public AchievementToast(boolean achievementToastsEnabled) {
-        this.achievementToastsEnabled = achievementToastsEnabled;
+    // EFFECTS: initializes achievement toast panel with placeholder text, toasts are shown only while profile has
+    //          achievement toasts enabled
+    public AchievementToast(UserProfile profile) {
+        this.profile = profile;
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
         setMinimumSize(new Dimension(WINDOW_WIDTH, 500));
         setupPlaceholderToast();
     }
 
-    public void setAchievementToastsEnabled(boolean achievementToastsEnabled) {
-        this.achievementToastsEnabled = achievementToastsEnabled;
+    public void setProfile(UserProfile profile) {
+        this.profile = profile;
     }
 
     // MODIFIES: this
     // EFFECTS: queues an achievement to be displayed
     public void add(Pair<String, Achievement> achievement) {
-        if (HabitApp.appIsOpen() && achievementToastsEnabled) {
+        if (HabitApp.appIsOpen() && profile.isAchievementToastsEnabled()) {
             displayToast(achievement);
         }
     }
@@ -84,7 +86,7 @@ public class AchievementToast extends JPanel {
         Thread thread = new Thread(() -> {
             try {
                 lock.lock();
-                if (HabitApp.appIsOpen() && achievementToastsEnabled) {
+                if (HabitApp.appIsOpen() && profile.isAchievementToastsEnabled()) {
                     updateToast(achievement);
                     int red = APP_COLOUR_LIGHT.getRed();
                     int green = APP_COLOUR_LIGHT.getGreen();
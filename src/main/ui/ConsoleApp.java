@@ -7,11 +7,10 @@ import model.reminder.MonthlyReminder;
 import model.reminder.WeeklyReminder;
 import org.quartz.*;
 import org.quartz.impl.StdSchedulerFactory;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.HabitRepository;
+import persistence.JsonHabitRepository;
 import ui.reminder.SendReminder;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.Clock;
 import java.time.DayOfWeek;
@@ -30,6 +29,7 @@ public class ConsoleApp {
     private static final String HABIT_MANAGER_STORE = "./data/habitManager.json";
     private static final int MAX_FREQUENCY = 15;
     private static final int MONTH_MAX_DAYS = 31;
+    private final HabitRepository repository = new JsonHabitRepository(HABIT_MANAGER_STORE);
     private Scanner input;
     private HabitManager habitManager;
     private final Clock clock;
@@ -107,8 +107,8 @@ public class ConsoleApp {
     private void newUser() {
         habitManager = new HabitManager();
         System.out.println("Enter your name: ");
-        HabitManager.setUsername(input.next());
-        System.out.println("Welcome, " + HabitManager.getUsername() + "!");
+        habitManager.getProfile().setUsername(input.next());
+        System.out.println("Welcome, " + habitManager.getProfile().getUsername() + "!");
         isSaved = false;
         scheduleHabitUpdates();
         menu();
@@ -117,10 +117,9 @@ public class ConsoleApp {
     // MODIFIES: this
     // EFFECTS: loads user data from file, updates all habits, schedules habit updates, and displays menu
     private void loadHabitManager() {
-        JsonReader jsonReader = new JsonReader(HABIT_MANAGER_STORE);
         try {
-            habitManager = jsonReader.read();
-            System.out.println("\nWelcome back, " + HabitManager.getUsername() + "!");
+            habitManager = repository.loadAll();
+            System.out.println("\nWelcome back, " + habitManager.getProfile().getUsername() + "!");
             updateAllHabits();
             scheduleHabitUpdates();
             menu();
@@ -815,14 +814,12 @@ public class ConsoleApp {
     // MODIFIES: this
     // EFFECTS: saves habit manager to file
     private void saveHabitManager() {
-        JsonWriter jsonWriter = new JsonWriter(HABIT_MANAGER_STORE);
         try {
-            jsonWriter.open();
-            jsonWriter.write(habitManager);
-            jsonWriter.close();
+            repository.saveAll(habitManager);
+            repository.flush();
             System.out.println("Your habits have been saved successfully!");
             isSaved = true;
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Unable to write to file: " + HABIT_MANAGER_STORE);
         }
     }
@@ -831,9 +828,9 @@ public class ConsoleApp {
     // EFFECTS: changes username to input provided by user
     private void changeUsername() {
         System.out.println("Enter new username: ");
-        HabitManager.setUsername(input.next());
+        habitManager.getProfile().setUsername(input.next());
         isSaved = false;
-        System.out.println("Username changed to " + HabitManager.getUsername());
+        System.out.println("Username changed to " + habitManager.getProfile().getUsername());
     }
 
     // EFFECTS: returns appropriate string based on the period
@@ -81,7 +81,21 @@ public class Constants {
     public static final int MAX_DESCRIPTION_LENGTH = 1000;
     public static final int MAX_FREQUENCY = 15;
     public static final int MONTH_MAX_DAYS = 31;
-    public static final String HABIT_MANAGER_STORE = "./data/habitManager.json";
+    public static final String DATA_DIRECTORY = "./data";
+    public static final String JOURNAL_NAME = "habitManager.journal";
+    public static final String SHARDS_NAME = "habits";
+    public static final String BACKUPS_NAME = "backups";
+    public static final String QUARANTINE_NAME = "quarantine";
+    public static final String HABIT_MANAGER_STORE = DATA_DIRECTORY + "/habitManager.dat";
+    public static final String LEGACY_HABIT_MANAGER_STORE = DATA_DIRECTORY + "/habitManager.json";
+    public static final String HABIT_MANAGER_JOURNAL = DATA_DIRECTORY + "/" + JOURNAL_NAME;
+    public static final String HABIT_MANAGER_SHARDS = DATA_DIRECTORY + "/" + SHARDS_NAME;
+    public static final String HABIT_MANAGER_BACKUPS = DATA_DIRECTORY + "/" + BACKUPS_NAME;
+    public static final String HABIT_MANAGER_QUARANTINE = DATA_DIRECTORY + "/" + QUARANTINE_NAME;
+    public static final String EVENT_LOG_DIRECTORY = "./data/logs";
+    public static final long BACKUP_INTERVAL_MILLIS = 10 * 60 * 1000;
+    public static final long AUTO_SAVE_QUIET_MILLIS = 750;
+    public static final long AUTO_SAVE_MAX_DELAY_MILLIS = 5000;
     public static final int SINGLE_INSTANCE_PORT = 9999;
     public static final String SIGNAL_VISIBLE = "visible";
 
@@ -1,16 +1,26 @@
 package ui;
 
+import model.Habit;
 import model.HabitManager;
-import persistence.JsonReader;
+import model.log.EventLog;
+import persistence.BinaryHabitRepository;
+import persistence.HabitJournal;
+import persistence.HabitRepository;
+import persistence.JsonHabitRepository;
+import persistence.Quarantine;
+import persistence.RotatingEventAppender;
+import persistence.ShardedStore;
 import ui.card.HabitManagerUI;
 import ui.card.NewUserUI;
 import ui.card.StartUI;
+import ui.reminder.ReminderScheduler;
 import ui.reminder.SendReminder;
 
 import javax.swing.*;
 import java.awt.*;
 import java.io.*;
 import java.net.*;
+import java.util.List;
 
 import static javax.swing.SwingUtilities.invokeLater;
 import static ui.Constants.*;
@@ -29,6 +39,7 @@ public class HabitApp extends JFrame {
     // EFFECTS: starts the application
     private HabitApp() {
         checkExistingInstance();
+        EventLog.getInstance().setAppender(new RotatingEventAppender(EVENT_LOG_DIRECTORY));
         SendReminder.setIsConsoleApp(false);
         appIsOpen = true;
         startApp();
@@ -235,8 +246,9 @@ public class HabitApp extends JFrame {
     // MODIFIES: this
     // EFFECTS: sets username of new user, redirects user to main application panel
     private void onNewUserSubmit() {
-        HabitManager.setUsername(newUserScreen.getText());
-        habitManagerScreen = new HabitManagerUI(false, this, new HabitManager());
+        habitManager = new HabitManager();
+        habitManager.getProfile().setUsername(newUserScreen.getText());
+        habitManagerScreen = new HabitManagerUI(false, this, habitManager, DATA_DIRECTORY);
         toHabits();
     }
 
@@ -245,7 +257,7 @@ public class HabitApp extends JFrame {
     //          otherwise, re-enable buttons in start screen
     private void loadUser() {
         if (loadHabitManager()) {
-            habitManagerScreen = new HabitManagerUI(true, this, habitManager);
+            habitManagerScreen = new HabitManagerUI(true, this, habitManager, DATA_DIRECTORY);
             toHabits();
         } else {
             startScreen.enableButtons();
@@ -253,23 +265,58 @@ public class HabitApp extends JFrame {
     }
 
     // MODIFIES: this
-    // EFFECTS: loads user data from file, returns whether load was successful
+    // EFFECTS: loads user data from the first repository that has any, the habit shards with the journal replayed on
+    //          top of them, archived habits left in their shards until they are needed, then the single file snapshot
+    //          and finally the legacy JSON save file, returns whether load was successful,
+    //          corrupt habit records are quarantined and the user is told about them
     private boolean loadHabitManager() {
-        JsonReader jsonReader = new JsonReader(HABIT_MANAGER_STORE);
+        Quarantine quarantine = new Quarantine(HABIT_MANAGER_QUARANTINE);
+        List<HabitRepository> repositories = List.of(
+                new BinaryHabitRepository(new HabitJournal(new ShardedStore(HABIT_MANAGER_SHARDS, quarantine),
+                        HABIT_MANAGER_JOURNAL, HabitJournal.DEFAULT_COMPACTION_THRESHOLD)),
+                new BinaryHabitRepository(new HabitJournal(HABIT_MANAGER_STORE, HABIT_MANAGER_JOURNAL)),
+                new JsonHabitRepository(LEGACY_HABIT_MANAGER_STORE, quarantine));
         try {
-            habitManager = jsonReader.read();
-            return true;
+            for (HabitRepository repository : repositories) {
+                if (repository.exists()) {
+                    habitManager = repository.loadAll();
+                    reportQuarantined(quarantine);
+                    return true;
+                }
+            }
         } catch (IOException e) {
-            JOptionPane.showMessageDialog(null,
-                    "Save file not found. Please create a new user.", "Error", JOptionPane.ERROR_MESSAGE);
-            return false;
+            System.out.println("Unable to load habits: " + e.getMessage());
+        }
+        JOptionPane.showMessageDialog(null,
+                "Save file not found. Please create a new user.", "Error", JOptionPane.ERROR_MESSAGE);
+        return false;
+    }
+
+    // EFFECTS: tells the user how many corrupt habit records were set aside in quarantine, if there were any
+    private void reportQuarantined(Quarantine quarantine) {
+        int count = quarantine.getEntries().size();
+        if (count > 0) {
+            JOptionPane.showMessageDialog(null, count + " damaged habit(s) could not be loaded and were moved to "
+                    + HABIT_MANAGER_QUARANTINE, "Damaged Habits", JOptionPane.WARNING_MESSAGE);
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: brings the user to the main application panel
+    // EFFECTS: brings the user to the main application panel, once it is shown the loaded reminders are bound to a
+    //          reminder scheduler in one batch, then Quartz is started and every reminder is scheduled for the current
+    //          period on a background thread
     private void toHabits() {
         add(habitManagerScreen, "habitManagerScreen");
         cardLayout.show(getContentPane(), "habitManagerScreen");
+        invokeLater(() -> {
+            List<Habit> habits = List.copyOf(habitManager.getHabits());
+            ReminderScheduler.bindAll(habits);
+            Thread thread = new Thread(() -> {
+                ReminderScheduler.start();
+                habits.forEach(Habit::rescheduleReminders);
+            }, "reminder-scheduler-start");
+            thread.setDaemon(true);
+            thread.start();
+        });
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package ui.card;
 import model.Habit;
 import model.HabitManager;
 import model.Period;
+import persistence.HabitMutation;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
@@ -385,7 +386,7 @@ public class CreateHabitUI extends JPanel {
             boolean notifyEnabled = notificationBox.getSelectedIndex() == 1;
             Habit habit = new Habit(name, description, period, frequency, notifyEnabled, Clock.systemDefaultZone());
             habitManager.addHabit(habit);
-            HabitManagerUI.changeMade();
+            habitManagerUI.changeMade(habit, HabitMutation.ADDED);
             habitManagerUI.toHabitList();
         }));
     }
@@ -5,6 +5,7 @@ import model.Habit;
 import model.HabitManager;
 import model.achievement.Achievement;
 import model.achievement.AchievementManager;
+import persistence.HabitMutation;
 import ui.AchievementToast;
 import ui.card.habit.HabitUI;
 
@@ -12,17 +13,17 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import static javax.swing.SwingUtilities.invokeLater;
 import static ui.Constants.*;
 import static ui.Constants.APP_COLOUR;
-import static ui.card.HabitManagerUI.changeMade;
 
 // Represents the habit list panel
 public class HabitListUI extends JPanel {
     private HabitManager habitManager;
+    private HabitManagerUI habitManagerUI;
     private AchievementToast achievementToast;
     private JPanel habitsPanel;
     private JPanel archivedPanel;
@@ -32,10 +33,11 @@ public class HabitListUI extends JPanel {
     private JPanel parentPanel;
     private Runnable toCreateHabit;
 
-    // EFFECTS: constructs a HabitListUI panel
-    public HabitListUI(HabitManager habitManager, CardLayout parentCardLayout,
+    // EFFECTS: constructs a HabitListUI panel, changes to habits are reported to habitManagerUI
+    public HabitListUI(HabitManager habitManager, HabitManagerUI habitManagerUI, CardLayout parentCardLayout,
                        JPanel parentPanel, AchievementToast achievementToast, Runnable toCreateHabit) {
         this.habitManager = habitManager;
+        this.habitManagerUI = habitManagerUI;
         this.parentCardLayout = parentCardLayout;
         this.parentPanel = parentPanel;
         this.achievementToast = achievementToast;
@@ -59,6 +61,12 @@ public class HabitListUI extends JPanel {
         setupArchivedList();
         tabbedPane.addTab("Habits", HABIT_ICON, parentRegular, "Your Habits");
         tabbedPane.addTab("Archived Habits", null, parentArchived, "Your Archived Habits");
+        tabbedPane.addChangeListener(e -> {
+            if (tabbedPane.getSelectedComponent() == parentArchived && !habitManager.isArchivedLoaded()) {
+                habitManager.loadArchivedHabits();
+                updateHabitList();
+            }
+        });
         add(tabbedPane);
     }
 
@@ -86,7 +94,7 @@ public class HabitListUI extends JPanel {
         parent.getVerticalScrollBar().setUnitIncrement(10);
         list.setLayout(new GridBagLayout());
         list.setBackground(APP_COLOUR);
-        List<Habit> selectedHabits = isArchived ? getArchivedHabits() : getRegularHabits();
+        Collection<Habit> selectedHabits = isArchived ? getArchivedHabits() : getRegularHabits();
         setupRows(selectedHabits, isArchived);
         parent.setViewportView(list);
     }
@@ -102,42 +110,30 @@ public class HabitListUI extends JPanel {
     }
 
     // EFFECTS: returns all the archived habits
-    private List<Habit> getArchivedHabits() {
-        return getHabits(true);
+    private Collection<Habit> getArchivedHabits() {
+        return habitManager.getArchivedHabits();
     }
 
     // EFFECTS: returns all the regular habits
-    private List<Habit> getRegularHabits() {
-        return getHabits(false);
-    }
-
-    // EFFECTS: returns either all the archived habits or the regular habits
-    private List<Habit> getHabits(boolean isArchived) {
-        List<Habit> allHabits = habitManager.getHabits();
-        List<Habit> selectedHabits = new ArrayList<>();
-        for (Habit habit : allHabits) {
-            if (isArchived == habit.isArchived()) {
-                selectedHabits.add(habit);
-            }
-        }
-        return selectedHabits;
+    private Collection<Habit> getRegularHabits() {
+        return habitManager.getActiveHabits();
     }
 
     // MODIFIES: this
     // EFFECTS: adds habit rows to either the regular list tab or the archived list tab
-    private void setupRows(List<Habit> habits, boolean isArchived) {
+    private void setupRows(Collection<Habit> habits, boolean isArchived) {
         JPanel panel;
         if (isArchived) {
             panel = archivedPanel;
         } else {
             panel = habitsPanel;
         }
-        String text = isArchived ? "Archived Habits" : HabitManager.getUsername() + "'s Habits";
+        String text = isArchived ? "Archived Habits" : habitManager.getProfile().getUsername() + "'s Habits";
         setupFirstRows(panel, text);
         for (Habit habit : habits) {
             setupRow(panel, habit, isArchived);
         }
-        if (habits.size() == 0) {
+        if (habits.isEmpty()) {
             JPanel noHabits = getNoHabits(isArchived);
             GridBagConstraints constraints = getNoHabitsConstraints();
             panel.add(noHabits, constraints);
@@ -401,7 +397,7 @@ public class HabitListUI extends JPanel {
                     if (JOptionPane.showConfirmDialog(null, message, "Notifications", JOptionPane.YES_NO_OPTION)
                             == JOptionPane.YES_OPTION) {
                         habit.toggleNotifyEnabled();
-                        changeMade();
+                        habitManagerUI.changeMade(habit, HabitMutation.NOTIFICATIONS_TOGGLED);
                         updateHabitList();
                     }
                 });
@@ -500,7 +496,7 @@ public class HabitListUI extends JPanel {
         if (JOptionPane.showConfirmDialog(null, "Are you sure you want to delete this habit?",
                 "Delete Habit", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
             habitManager.deleteHabit(habit);
-            changeMade();
+            habitManagerUI.changeMade(habit, HabitMutation.DELETED);
             updateHabitList();
         }
     }
@@ -594,7 +590,7 @@ public class HabitListUI extends JPanel {
                 List<Achievement> current = habit.getAchievements();
                 if (habit.finishHabit()) {
                     invokeLater(() -> {
-                        changeMade();
+                        habitManagerUI.changeMade(habit, HabitMutation.COMPLETED);
                         List<Achievement> newlyAchieved = AchievementManager.getNewlyAchieved(
                                 current, habit.getHabitStats(), habit.getPeriod());
                         for (Achievement achievement : newlyAchieved) {
@@ -614,9 +610,10 @@ public class HabitListUI extends JPanel {
             // EFFECTS: creates a new habit with the same properties as current habit and adds it to
             //          habitManager, updates habit list panel
             item.addActionListener((e) -> invokeLater(() -> {
-                habitManager.addHabit(new Habit(habit.getName(), habit.getDescription(),
-                        habit.getPeriod(), habit.getFrequency(), habit.isNotifyEnabled(), habit.getClock()));
-                changeMade();
+                Habit clone = new Habit(habit.getName(), habit.getDescription(),
+                        habit.getPeriod(), habit.getFrequency(), habit.isNotifyEnabled(), habit.getClock());
+                habitManager.addHabit(clone);
+                habitManagerUI.changeMade(clone, HabitMutation.ADDED);
                 updateHabitList();
             }));
             return item;
@@ -629,7 +626,7 @@ public class HabitListUI extends JPanel {
             // EFFECTS: toggle isArchived for the current habit and updates habit list panel
             item.addActionListener((e) -> invokeLater(() -> {
                 habit.toggleIsArchived();
-                changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.ARCHIVED);
                 updateHabitList();
             }));
             return item;
@@ -659,7 +656,7 @@ public class HabitListUI extends JPanel {
         //          if user right clicks regular habit, show regular habit menu at mouse position
         private void regularHabitsClicked(MouseEvent e) {
             if (e.getButton() == MouseEvent.BUTTON1) {
-                HabitUI habitUI = new HabitUI(habit, achievementToast);
+                HabitUI habitUI = new HabitUI(habit, achievementToast, habitManagerUI);
                 parentPanel.add(habitUI, "habit");
                 parentCardLayout.show(parentPanel, "habit");
             } else if (e.getButton() == MouseEvent.BUTTON3) {
@@ -9,7 +9,20 @@ import model.log.Event;
 import model.log.EventLog;
 import org.quartz.*;
 import org.quartz.impl.StdSchedulerFactory;
-import persistence.JsonWriter;
+import persistence.AutoSaveScheduler;
+import persistence.BinaryHabitRepository;
+import persistence.BackupStore;
+import persistence.BinaryCodec;
+import persistence.ExternalChangeWatcher;
+import persistence.ExternalChanges;
+import persistence.HabitJournal;
+import persistence.HabitRepository;
+import persistence.HabitMutation;
+import persistence.PendingChanges;
+import persistence.Quarantine;
+import persistence.SaveWriter;
+import persistence.ShardedStore;
+import persistence.SnapshotRecords;
 import ui.AchievementToast;
 import ui.HabitApp;
 import ui.UpdateHabits;
@@ -21,8 +34,12 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Clock;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 import static javax.swing.SwingUtilities.invokeLater;
 import static org.quartz.CronScheduleBuilder.dailyAtHourAndMinute;
@@ -38,55 +55,111 @@ public class HabitManagerUI extends JPanel {
     private JPanel sidebar;
     private JPanel mainPanel;
     private CardLayout cardLayout;
-    private static boolean isSaved;
-    private static HabitManager habitManager;
-
-    // EFFECTS: constructs a new HabitMangerUI panel
-    public HabitManagerUI(boolean isLoaded, HabitApp parent, HabitManager habitManager) {
+    private boolean isSaved;
+    private HabitManager habitManager;
+    private final String shardsPath;
+    private final String journalPath;
+    private final String backupsPath;
+    private final String quarantinePath;
+    private final HabitJournal journal;
+    private final HabitRepository repository;
+    private final BackupStore backups;
+    private final SaveWriter saveWriter = new SaveWriter();
+    private final AutoSaveScheduler autoSave;
+    private int changeCount;
+    private boolean hasSnapshot;
+    private long lastBackup;
+    private ExternalChangeWatcher watcher;
+
+    // EFFECTS: constructs a new HabitMangerUI panel that saves habitManager to the save files in dataDirectory
+    public HabitManagerUI(boolean isLoaded, HabitApp parent, HabitManager habitManager, String dataDirectory) {
         parent.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
-        HabitManagerUI.habitManager = habitManager;
-        this.achievementToast = new AchievementToast(HabitManager.isAchievementToastsEnabled());
+        this.shardsPath = Paths.get(dataDirectory, SHARDS_NAME).toString();
+        this.journalPath = Paths.get(dataDirectory, JOURNAL_NAME).toString();
+        this.backupsPath = Paths.get(dataDirectory, BACKUPS_NAME).toString();
+        this.quarantinePath = Paths.get(dataDirectory, QUARANTINE_NAME).toString();
+        ShardedStore store = new ShardedStore(shardsPath, new Quarantine(quarantinePath));
+        this.journal = new HabitJournal(store, journalPath, HabitJournal.DEFAULT_COMPACTION_THRESHOLD);
+        this.repository = new BinaryHabitRepository(journal);
+        this.backups = new BackupStore(backupsPath, store);
+        this.habitManager = habitManager;
+        this.achievementToast = new AchievementToast(habitManager.getProfile());
+        this.autoSave = new AutoSaveScheduler(AUTO_SAVE_QUIET_MILLIS, AUTO_SAVE_MAX_DELAY_MILLIS, this::writeChanges,
+                SwingUtilities::invokeLater);
         this.layeredPane = new JLayeredPane();
         this.parent = parent;
         add(layeredPane);
-        HabitManagerUI.isSaved = isLoaded;
+        this.isSaved = isLoaded;
+        this.hasSnapshot = journal.hasSnapshot();
         if (isLoaded) {
-            updateAllHabits();
+            updateAllHabits(Habit::catchUpPeriods);
         }
         setupPanel();
         setWindowListener();
     }
 
-    public static void setHabitManager(HabitManager habitManager) {
-        HabitManagerUI.habitManager = habitManager;
+    // MODIFIES: this
+    // EFFECTS: replaces habitManager, achievement toasts then follow the settings of its profile
+    public void setHabitManager(HabitManager habitManager) {
+        this.habitManager = habitManager;
+        achievementToast.setProfile(habitManager.getProfile());
     }
 
     // MODIFIES: this
-    // EFFECTS: if isAutoSave(), then save habits to file, otherwise, set isSaved to false
-    public static void changeMade() {
-        if (HabitManager.isAutoSave()) {
-            nonSideBarSaveHabits(habitManager);
+    // EFFECTS: if isAutoSave(), then schedule habits to be saved to file, otherwise, set isSaved to false
+    public void changeMade() {
+        changeCount++;
+        if (habitManager.getProfile().isAutoSave()) {
+            autoSave.changeMade();
         } else {
             setIsSaved(false);
         }
     }
 
-    public static void setIsSaved(boolean isSaved) {
-        HabitManagerUI.isSaved = isSaved;
+    // MODIFIES: this
+    // EFFECTS: if isAutoSave(), then schedule the change to habit to be appended to the journal,
+    //          otherwise, set isSaved to false
+    public void changeMade(Habit habit, HabitMutation mutation) {
+        changeCount++;
+        if (habitManager.getProfile().isAutoSave()) {
+            autoSave.changeMade(habit, mutation);
+        } else {
+            setIsSaved(false);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if isAutoSave(), then schedule the user settings to be appended to the journal,
+    //          otherwise, set isSaved to false
+    public void settingsChanged() {
+        changeMade(null, HabitMutation.SETTINGS_CHANGED);
+    }
+
+    public void setIsSaved(boolean isSaved) {
+        this.isSaved = isSaved;
+    }
+
+    public BackupStore getBackups() {
+        return backups;
+    }
+
+    public String getQuarantinePath() {
+        return quarantinePath;
     }
 
     // MODIFIES: this
     // EFFECTS: adds window listener to parent frame
     private void setWindowListener() {
         // MODIFIES: this
-        // EFFECTS: if !isAutoSave(), user is given choice to save or not,
+        // EFFECTS: writes any changes waiting for auto save, if !isAutoSave(), user is given choice to save or not,
         //          if isHideOnClose(), parent frame is hidden and appIsOpen is set to false,
         //          otherwise, the application exits
         parent.addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent windowEvent) {
                 invokeLater(() -> {
-                    if (!HabitManager.isAutoSave() && !isSaved) {
+                    autoSave.flush();
+                    if (!habitManager.getProfile().isAutoSave() && !isSaved) {
                         int result = JOptionPane.showConfirmDialog(null,
                                 "Would you like to save your habits before exiting?", "Save Habits?",
                                 JOptionPane.YES_NO_OPTION);
@@ -103,18 +176,24 @@ public class HabitManagerUI extends JPanel {
     }
 
     // MODIFIES: this
-    // EFFECTS: hides the application or exits depending on HabitManager.isHideOnClose()
+    // EFFECTS: hides the application or exits depending on whether the user profile has hide on close set,
+    //          before exiting how many changes auto save merged into how many writes is logged
     private void hideOrExit() {
-        if (HabitManager.isHideOnClose()) {
+        if (habitManager.getProfile().isHideOnClose()) {
             parent.setVisible(false);
             HabitApp.setAppIsOpen(false);
         } else {
+            EventLog.getInstance().logEvent(new Event("Auto save merged " + autoSave.getChangeCount()
+                    + " changes into " + autoSave.getWriteCount() + " writes"));
             printEventLog(EventLog.getInstance());
+            saveWriter.flush();
+            watcher.close();
+            EventLog.getInstance().setAppender(null);
             System.exit(0);
         }
     }
 
-    // EFFECTS: prints all events in eventLog when application exits
+    // EFFECTS: prints the most recent events in eventLog when application exits, all events are in the log files
     private void printEventLog(EventLog eventLog) {
         for (Event event : eventLog) {
             System.out.println(event.toString());
@@ -143,6 +222,43 @@ public class HabitManagerUI extends JPanel {
         wholePanel.add(sidebar, BorderLayout.LINE_START);
         wholePanel.add(mainPanel, BorderLayout.CENTER);
         scheduleHabitUpdates(habitListUI);
+        watchExternalChanges(habitListUI);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts watching the save files for changes made by other programs on a background thread, the records
+    //          written by this app are remembered by the watcher so that they are not mistaken for external changes
+    private void watchExternalChanges(HabitListUI habitListUI) {
+        watcher = new ExternalChangeWatcher(List.of(Paths.get(journalPath).getParent(),
+                Paths.get(shardsPath)), journal::readRecords, new BinaryCodec(Clock.systemDefaultZone()),
+                changes -> invokeLater(() -> applyExternalChanges(changes, habitListUI)),
+                ExternalChangeWatcher.DEFAULT_QUIET_MILLIS);
+        journal.setRecordObserver(watcher::recordWritten);
+        Thread thread = new Thread(() -> {
+            try {
+                watcher.start();
+            } catch (IOException e) {
+                journal.setRecordObserver(null);
+                System.out.println("Unable to watch save files: " + shardsPath);
+            }
+        }, "habit-file-watcher-start");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: applies habits changed by another program to habitManager without reloading the rest, only the
+    //          habits replaced or added are updated and have their reminders scheduled again, then updates habit list
+    private void applyExternalChanges(ExternalChanges changes, HabitListUI habitListUI) {
+        for (Habit habit : changes.applyTo(habitManager)) {
+            if (habit.updateHabit()) {
+                changeMade(habit, HabitMutation.PERIOD_UPDATED);
+            }
+            if (habit.isNotifyEnabled()) {
+                habit.getHabitReminder().updateReminders();
+            }
+        }
+        habitListUI.updateHabitList();
     }
 
     // Inspiration taken from: https://www.youtube.com/watch?v=Wlbk47TltNY
@@ -231,43 +347,86 @@ public class HabitManagerUI extends JPanel {
     }
 
     // MODIFIES: this
-    // EFFECTS: save label changed to "Saving...", habitManager saved to file,
-    //          save label changed to "Saved!" for 1 second, before reverting back to "Save to File"
+    // EFFECTS: save label changed to "Saving...", habitManager saved to file on the writer thread,
+    //          once it is saved, save label changed to "Saved!" for 1 second, before reverting back to "Save to File"
     private void manualSaveHabits(JPanel save, JLabel saveText) {
         saveText.setText("Saving...");
-        save.update(save.getGraphics());
-        JsonWriter jsonWriter = new JsonWriter(HABIT_MANAGER_STORE);
+        nonSideBarSaveHabits(habitManager).whenComplete((result, error) -> invokeLater(() -> {
+            saveText.setText(error == null ? "Saved!" : "Unable to Save");
+            Timer timer = new Timer(1000, e -> saveText.setText("Save to File"));
+            timer.setRepeats(false);
+            timer.start();
+        }));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves habitManager to file as a new snapshot on the writer thread, emptying the journal,
+    //          returns a future that completes once the snapshot is durable
+    private CompletableFuture<Void> nonSideBarSaveHabits(HabitManager habitManager) {
+        try {
+            repository.saveAll(habitManager);
+            hasSnapshot = true;
+            CompletableFuture<Void> save = whenSaved(saveWriter.submit(repository::flush), shardsPath);
+            backupIfDue();
+            return save;
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + shardsPath);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes changes merged by the auto save scheduler on the writer thread, as a new snapshot if one of them
+    //          needs all of habitManager saved or there is no snapshot to journal against yet,
+    //          otherwise one habit at a time as journal entries that are forced to disk together
+    private void writeChanges(PendingChanges changes) {
+        if (changes.isFullSave() || !hasSnapshot) {
+            nonSideBarSaveHabits(habitManager);
+            return;
+        }
         try {
-            jsonWriter.open();
-            jsonWriter.write(habitManager);
-            jsonWriter.close();
-            saveText.setText("Saved!");
-            save.update(save.getGraphics());
-            Thread.sleep(1000);
-            saveText.setText("Save to File");
-            save.update(save.getGraphics());
-            isSaved = true;
-        } catch (FileNotFoundException e1) {
-            System.out.println("Unable to write to file: " + HABIT_MANAGER_STORE);
-        } catch (InterruptedException e2) {
-            e2.printStackTrace();
+            changes.writeTo(repository, habitManager.getProfile());
+            whenSaved(saveWriter.submit(repository::flush), journalPath);
+            backupIfDue();
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + journalPath);
         }
     }
 
     // MODIFIES: this
-    // EFFECTS: saves habitManager to file
-    private static void nonSideBarSaveHabits(HabitManager habitManager) {
-        JsonWriter jsonWriter = new JsonWriter(HABIT_MANAGER_STORE);
+    // EFFECTS: if BACKUP_INTERVAL_MILLIS have passed since the last backup, backs up habitManager on the writer
+    //          thread after the saves submitted before it, only what changed since the previous backup is written
+    private void backupIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastBackup < BACKUP_INTERVAL_MILLIS) {
+            return;
+        }
+        lastBackup = now;
         try {
-            jsonWriter.open();
-            jsonWriter.write(habitManager);
-            jsonWriter.close();
-            isSaved = true;
-        } catch (FileNotFoundException e) {
-            System.out.println("Unable to write to file: " + HABIT_MANAGER_STORE);
+            SnapshotRecords records = journal.encode(habitManager);
+            saveWriter.submit(() -> backups.backup(records)).whenComplete((result, error) -> {
+                if (error != null) {
+                    System.out.println("Unable to back up to: " + backupsPath);
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("Unable to back up to: " + backupsPath);
         }
     }
 
+    // EFFECTS: returns a future that completes after save, once save is durable isSaved is set to true unless
+    //          another change has been made since save was submitted, if save fails an error is reported instead
+    private CompletableFuture<Void> whenSaved(CompletableFuture<Void> save, String path) {
+        int submittedAt = changeCount;
+        return save.whenComplete((result, error) -> invokeLater(() -> {
+            if (error != null) {
+                System.out.println("Unable to write to file: " + path);
+            } else if (submittedAt == changeCount) {
+                isSaved = true;
+            }
+        }));
+    }
+
     // MODIFIES: createHabit
     // EFFECTS: adds listener to create habit sidebar option
     private void setupCreateHabitListener(JPanel createHabit) {
@@ -326,7 +485,7 @@ public class HabitManagerUI extends JPanel {
     // MODIFIES: this
     // EFFECTS: setups settingsUI panel and switches card to settingsUI panel
     private void toSettings(HabitManagerUI habitManagerUI) {
-        SettingsUI settingsUI = new SettingsUI(habitManager, parent, achievementToast, habitManagerUI);
+        SettingsUI settingsUI = new SettingsUI(habitManager, parent, habitManagerUI);
         mainPanel.add(settingsUI, "settings");
         cardLayout.show(mainPanel, "settings");
     }
@@ -394,18 +553,20 @@ public class HabitManagerUI extends JPanel {
     // EFFECTS: setups habit list panel and displays it
     public HabitListUI toHabitList() {
         HabitListUI habitListUI =
-                new HabitListUI(habitManager, cardLayout, mainPanel, achievementToast, this::toCreateHabit);
+                new HabitListUI(habitManager, this, cardLayout, mainPanel, achievementToast, this::toCreateHabit);
         mainPanel.add(habitListUI, "habits");
         cardLayout.show(mainPanel, "habits");
         return habitListUI;
     }
 
-    // EFFECTS: schedules habit updates to occur daily at midnight
+    // EFFECTS: schedules habit updates to occur daily at midnight, Quartz is started and given the job on a
+    //          background thread so that the UI is not held up, the job hands the updates to the event dispatch
+    //          thread so that habits and the save state of this are only changed there
     private void scheduleHabitUpdates(HabitListUI habitListUI) {
-        Runnable updateAllHabits = () -> {
+        Runnable updateAllHabits = () -> invokeLater(() -> {
             updateAllHabits();
-            invokeLater(habitListUI::updateHabitList);
-        };
+            habitListUI.updateHabitList();
+        });
         JobDataMap data = new JobDataMap();
         data.put("updateHabits", updateAllHabits);
         JobDetail job = newJob(UpdateHabits.class)
@@ -417,32 +578,46 @@ public class HabitManagerUI extends JPanel {
                         .withMisfireHandlingInstructionFireAndProceed())
                 .forJob(job)
                 .build();
-        try {
-            Scheduler scheduler = StdSchedulerFactory.getDefaultScheduler();
-            scheduler.start();
-            scheduler.scheduleJob(job, trigger);
-        } catch (SchedulerException e) {
-            e.printStackTrace();
-        }
+        scheduleInBackground(job, trigger);
+    }
+
+    // EFFECTS: starts the default Quartz scheduler and schedules job with trigger on a background thread
+    private void scheduleInBackground(JobDetail job, Trigger trigger) {
+        Thread thread = new Thread(() -> {
+            try {
+                Scheduler scheduler = StdSchedulerFactory.getDefaultScheduler();
+                scheduler.start();
+                scheduler.scheduleJob(job, trigger);
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+            }
+        }, "habit-update-schedule");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     // MODIFIES: this
     // EFFECTS: updates all habits in habit manager based on current time, updates achievements, displays toast if
-    //          any new achievements are achieved, calls changeMade if change was made to habitManager
+    //          any new achievements are achieved, calls changeMade for every habit that was updated, only updated
+    //          habits are checked for new achievements since the statistics of the others are unchanged
     protected void updateAllHabits() {
-        boolean changeMade = false;
+        updateAllHabits(Habit::updateHabit);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates every habit in habit manager with update, which returns whether the habit was modified,
+    //          displays toast if any new achievements are achieved, calls changeMade for every habit that was updated
+    private void updateAllHabits(Predicate<Habit> update) {
         for (Habit habit : habitManager.getHabits()) {
             List<Achievement> current = habit.getAchievements();
-            if (habit.updateHabit()) {
-                changeMade = true;
+            if (!update.test(habit)) {
+                continue;
             }
+            changeMade(habit, HabitMutation.PERIOD_UPDATED);
             for (Achievement achievement :
                     AchievementManager.getNewlyAchieved(current, habit.getHabitStats(), habit.getPeriod())) {
                 achievementToast.add(new Pair<>(habit.getName(), achievement));
             }
         }
-        if (changeMade) {
-            changeMade();
-        }
     }
 }
\ No newline at end of file
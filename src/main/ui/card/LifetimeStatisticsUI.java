@@ -29,9 +29,11 @@ public class LifetimeStatisticsUI extends JPanel {
     private JLabel weeklyAverageSuccessRate;
     private JLabel monthlySuccessRate;
 
-    // EFFECTS: Constructs a lifetime statistics panel
+    // MODIFIES: habitManager
+    // EFFECTS: Constructs a lifetime statistics panel, loading archived habits first so that they are counted
     public LifetimeStatisticsUI(HabitManager habitManager) {
         this.habitManager = habitManager;
+        habitManager.loadArchivedHabits();
         setupPanel();
     }
 
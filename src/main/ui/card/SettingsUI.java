@@ -1,10 +1,17 @@
 package ui.card;
 
+import model.Habit;
 import model.HabitManager;
 import org.json.JSONException;
-import persistence.JsonReader;
+import persistence.BinaryCodec;
+import persistence.Compression;
+import persistence.ExportFormat;
+import persistence.HabitExporter;
+import persistence.HabitImporter;
 import persistence.JsonWriter;
-import ui.AchievementToast;
+import persistence.Quarantine;
+import persistence.SaveFile;
+import persistence.SnapshotRecords;
 import ui.HabitApp;
 
 import javax.swing.*;
@@ -14,6 +21,11 @@ import java.awt.*;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static javax.swing.SwingUtilities.invokeLater;
 import static ui.Constants.*;
@@ -23,14 +35,11 @@ public class SettingsUI extends JPanel {
     private HabitManager habitManager;
     private JPanel mainPanel;
     private HabitApp parent;
-    private AchievementToast toast;
     private HabitManagerUI habitManagerUI;
 
     // EFFECTS: constructs a settingsUI panel
-    public SettingsUI(HabitManager habitManager, HabitApp parent,
-                      AchievementToast toast, HabitManagerUI habitManagerUI) {
+    public SettingsUI(HabitManager habitManager, HabitApp parent, HabitManagerUI habitManagerUI) {
         this.habitManager = habitManager;
-        this.toast = toast;
         this.parent = parent;
         this.habitManagerUI = habitManagerUI;
         setupPanel();
@@ -63,6 +72,7 @@ public class SettingsUI extends JPanel {
         setupHideOnClose();
         setupExportButton();
         setupImportButton();
+        setupRestoreBackupButton();
         setupDeleteAllHabitsButton();
         setupEmptySpace();
     }
@@ -96,8 +106,8 @@ public class SettingsUI extends JPanel {
                     JOptionPane.showMessageDialog(
                             null, "User name cannot be longer than " + MAX_NAME_LENGTH + " characters");
                 } else {
-                    HabitManager.setUsername(newUserName);
-                    HabitManagerUI.changeMade();
+                    habitManager.getProfile().setUsername(newUserName);
+                    habitManagerUI.settingsChanged();
                     JOptionPane.showMessageDialog(null, "User name changed to " + newUserName);
                 }
             }
@@ -108,7 +118,7 @@ public class SettingsUI extends JPanel {
     // MODIFIES: this
     // EFFECTS: setups toggle auto save button and adds to mainPanel
     private void setupToggleAutoSaveButton() {
-        boolean isAutoSave = HabitManager.isAutoSave();
+        boolean isAutoSave = habitManager.getProfile().isAutoSave();
         String text = isAutoSave ? "Turn Off Auto Save" : "Turn On Auto Save";
         JToggleButton toggleAutoSave = getToggleButton(text, isAutoSave ? SAVE_OFF_ICON : SAVE_ICON, isAutoSave);
         setupAutoSaveListener(toggleAutoSave);
@@ -126,10 +136,10 @@ public class SettingsUI extends JPanel {
     // MODIFIES: autoSave
     // EFFECTS: toggles autoSave, changes text in autoSave button accordingly
     private void toggleAutoSaveButton(JToggleButton autoSave) {
-        HabitManager.toggleAutoSave();
-        HabitManagerUI.changeMade();
-        autoSave.setText(HabitManager.isAutoSave() ? "Turn Off Auto Save" : "Turn On Auto Save");
-        autoSave.setIcon(HabitManager.isAutoSave() ? SAVE_OFF_ICON : SAVE_ICON);
+        habitManager.getProfile().toggleAutoSave();
+        habitManagerUI.changeMade();
+        autoSave.setText(habitManager.getProfile().isAutoSave() ? "Turn Off Auto Save" : "Turn On Auto Save");
+        autoSave.setIcon(habitManager.getProfile().isAutoSave() ? SAVE_OFF_ICON : SAVE_ICON);
     }
 
     // MODIFIES: this
@@ -145,7 +155,7 @@ public class SettingsUI extends JPanel {
                     JOptionPane.YES_NO_OPTION);
             if (response == JOptionPane.YES_OPTION) {
                 habitManager.turnOffReminders();
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade();
                 JOptionPane.showMessageDialog(null, "All notifications turned off");
             }
         }));
@@ -155,7 +165,7 @@ public class SettingsUI extends JPanel {
     // MODIFIES: this
     // EFFECTS: setups toggle achievements button and adds it to mainPanel
     private void setupToggleAchievements() {
-        boolean isToasts = HabitManager.isAchievementToastsEnabled();
+        boolean isToasts = habitManager.getProfile().isAchievementToastsEnabled();
         String text = isToasts ? "Turn Off Achievement Toasts"
                 : "Turn On Achievement Toasts";
         ImageIcon icon = isToasts ? ACHIEVEMENT_OFF : ACHIEVEMENT_ON;
@@ -169,10 +179,9 @@ public class SettingsUI extends JPanel {
     // MODIFIES: this, button
     // EFFECTS: toggles achievementToastsEnabled, changes button text and icon accordingly
     private void toggleToasts(JToggleButton button) {
-        boolean isToasts = !HabitManager.isAchievementToastsEnabled();
-        HabitManager.toggleAchievementToastsEnabled();
-        toast.setAchievementToastsEnabled(isToasts);
-        HabitManagerUI.changeMade();
+        boolean isToasts = !habitManager.getProfile().isAchievementToastsEnabled();
+        habitManager.getProfile().toggleAchievementToastsEnabled();
+        habitManagerUI.settingsChanged();
         button.setText(isToasts ? "Turn Off Achievement Toasts" : "Turn On Achievement Toasts");
         button.setIcon(isToasts ? ACHIEVEMENT_OFF : ACHIEVEMENT_ON);
     }
@@ -180,7 +189,7 @@ public class SettingsUI extends JPanel {
     // MODIFIES: this
     // EFFECTS: setups hide on close toggle button and adds it to mainPanel
     private void setupHideOnClose() {
-        boolean hideOnClose = HabitManager.isHideOnClose();
+        boolean hideOnClose = habitManager.getProfile().isHideOnClose();
         String text = hideOnClose ? "Make HabitHaven Exit on Close" : "Make HabitHaven Hide on Close";
         ImageIcon icon = hideOnClose ? EXIT_ICON : HIDE_ICON;
         JToggleButton toggleButton = getToggleButton(text, icon, hideOnClose);
@@ -193,9 +202,9 @@ public class SettingsUI extends JPanel {
     // MODIFIES: toggleButton
     // EFFECTS: toggles hideOnClose, changes toggleButton text and icon accordingly
     private void toggleHideOnClose(JToggleButton toggleButton) {
-        boolean newSelection = !HabitManager.isHideOnClose();
-        HabitManager.toggleHideOnClose();
-        HabitManagerUI.changeMade();
+        boolean newSelection = !habitManager.getProfile().isHideOnClose();
+        habitManager.getProfile().toggleHideOnClose();
+        habitManagerUI.settingsChanged();
         toggleButton.setText(newSelection ? "Make HabitHaven Exit on Close" : "Make HabitHaven Hide on Close");
         toggleButton.setIcon(newSelection ? EXIT_ICON : HIDE_ICON);
     }
@@ -223,12 +232,13 @@ public class SettingsUI extends JPanel {
     private JFileChooser setupExportChooser() {
         JFileChooser chooser = new JFileChooser() {
             // MODIFIES: this
-            // EFFECTS: if file does not end with ".json", append ".json" to file name
+            // EFFECTS: if file is not a JSON, NDJSON or CSV file, compressed or not, append ".json" to file name
             //          if file already exists, confirm whether user wants to overwrite
             @Override
             public void approveSelection() {
                 File file = getSelectedFile();
-                if (!file.toString().endsWith(".json")) {
+                if (!Compression.stripExtension(file.toString()).endsWith(".json")
+                        && ExportFormat.forPath(file.toString()) == null) {
                     file = new File(file + ".json");
                     setSelectedFile(file);
                 }
@@ -242,17 +252,26 @@ public class SettingsUI extends JPanel {
         };
         chooser.setDialogTitle("Export to File");
         chooser.addChoosableFileFilter(new FileNameExtensionFilter("JSON files", "json"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("Compressed JSON files", "gz"));
+        chooser.addChoosableFileFilter(new FileNameExtensionFilter("NDJSON and CSV files", "ndjson", "csv"));
         chooser.setAcceptAllFileFilterUsed(false);
         return chooser;
     }
 
-    // EFFECTS: writes habitManager to file at the given path
+    // EFFECTS: writes habitManager to file at the given path, habits are streamed one per line to NDJSON and CSV files
     private boolean exportToFile(Path path) {
-        JsonWriter writer = new JsonWriter(path.toString());
         try {
-            writer.open();
-            writer.write(habitManager);
-            writer.close();
+            if (ExportFormat.forPath(path.toString()) != null) {
+                HabitExporter exporter = new HabitExporter(path.toString());
+                exporter.open();
+                exporter.write(habitManager);
+                exporter.close();
+            } else {
+                JsonWriter writer = new JsonWriter(path.toString());
+                writer.open();
+                writer.write(habitManager);
+                writer.close();
+            }
         } catch (Exception e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(null, "Error exporting file");
@@ -270,40 +289,37 @@ public class SettingsUI extends JPanel {
         // MODIFIES: fileChooser
         // EFFECTS: imports data from file chosen by user after user confirmation
         importButton.addActionListener(e -> invokeLater(() -> {
-            if (JOptionPane.showConfirmDialog(
-                    null, "Importing will overwrite all your habits. Are you sure you want to continue?",
-                    "Import from File", JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+            if (fileChooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION) {
                 return;
             }
-            int response = fileChooser.showOpenDialog(parent);
-            if (response == JFileChooser.APPROVE_OPTION) {
-                if (importFromFile(fileChooser.getSelectedFile().toPath())) {
-                    JOptionPane.showMessageDialog(null, "Imported Successfully!");
-                }
+            if (importChosenFile(fileChooser.getSelectedFile().toPath())) {
+                JOptionPane.showMessageDialog(null, "Imported Successfully!");
             }
         }));
         mainPanel.add(importButton, getSettingsConstraints(7));
     }
 
-    // EFFECTS: returns an import file chooser accepting only json files
+    // EFFECTS: returns an import file chooser accepting only json files, binary snapshots, and NDJSON and CSV exports,
+    //          compressed or not
     private JFileChooser setupImportChooser() {
         JFileChooser chooser = new JFileChooser();
-        chooser.setFileFilter(new FileNameExtensionFilter("JSON files", "json"));
+        chooser.setFileFilter(new FileNameExtensionFilter("Habit files", "json", "dat", "gz", "ndjson", "jsonl",
+                "csv"));
         chooser.setAcceptAllFileFilterUsed(false);
         return chooser;
     }
 
     // MODIFIES: this
-    // EFFECTS: imports habits from json file, then updates all habits
+    // EFFECTS: imports habits from json file or binary snapshot, then updates all habits
     //          if file could not be parsed, then notify user that save file is corrupt, delete habits in existing
     //          habit manager
     private boolean importFromFile(Path path) {
-        JsonReader reader = new JsonReader(path.toString());
+        SaveFile saveFile = new SaveFile(path.toString(), new Quarantine(habitManagerUI.getQuarantinePath()));
         try {
-            HabitManager importedHabitManager = reader.read();
-            HabitManagerUI.setHabitManager(importedHabitManager);
+            HabitManager importedHabitManager = saveFile.load();
+            habitManagerUI.setHabitManager(importedHabitManager);
             habitManagerUI.updateAllHabits();
-            HabitManagerUI.changeMade();
+            habitManagerUI.changeMade();
         } catch (IOException e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(null, "Error importing file");
@@ -317,6 +333,112 @@ public class SettingsUI extends JPanel {
         return true;
     }
 
+    // MODIFIES: this
+    // EFFECTS: after user confirmation, imports file at path, NDJSON and CSV files can be merged with the existing
+    //          habits, other files overwrite them, returns whether the file was imported
+    private boolean importChosenFile(Path path) {
+        if (ExportFormat.forPath(path.toString()) != null) {
+            int choice = confirmBulkImport();
+            return choice != JOptionPane.CANCEL_OPTION && importHabits(path, choice == JOptionPane.YES_OPTION);
+        }
+        return JOptionPane.showConfirmDialog(null,
+                "Importing will overwrite all your habits. Are you sure you want to continue?",
+                "Import from File", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION && importFromFile(path);
+    }
+
+    // EFFECTS: asks user whether imported habits should be merged with their habits or replace them, returns
+    //          YES_OPTION to merge, NO_OPTION to replace, or CANCEL_OPTION if the user cancels
+    private int confirmBulkImport() {
+        Object[] options = {"Merge", "Replace", "Cancel"};
+        int choice = JOptionPane.showOptionDialog(null,
+                "Merge imported habits with your habits, or replace all your habits with them?\n"
+                        + "Merging replaces habits that were exported from here and adds the rest.",
+                "Import from File", JOptionPane.YES_NO_CANCEL_OPTION, JOptionPane.QUESTION_MESSAGE, null, options,
+                options[0]);
+        return choice == JOptionPane.CLOSED_OPTION ? JOptionPane.CANCEL_OPTION : choice;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: streams habits from NDJSON or CSV file into habitManager, merging them by id if isMerge and replacing
+    //          all habits otherwise, then updates all habits and saves them
+    //          if file could not be read or parsed, then notify user, habits are left unchanged and are not saved
+    private boolean importHabits(Path path, boolean isMerge) {
+        HabitImporter importer = new HabitImporter(path.toString(), new Quarantine(habitManagerUI.getQuarantinePath()));
+        try {
+            importer.open();
+            try {
+                importer.importInto(habitManager, isMerge);
+            } finally {
+                importer.close();
+            }
+            habitManagerUI.updateAllHabits();
+            habitManagerUI.changeMade();
+        } catch (IOException e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(null, "Error importing file");
+            return false;
+        } catch (JSONException e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(null, "File is corrupted");
+            return false;
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: setups restore backup button and adds it to mainPanel
+    private void setupRestoreBackupButton() {
+        JButton restoreButton = new JButton("Restore from Backup");
+        makeButton(restoreButton, WINDOW_WIDTH - SIDE_BAR_WIDTH, LARGE_BUTTON_HEIGHT, MEDIUM_FONT);
+        // MODIFIES: this
+        // EFFECTS: restores the backup chosen by user, newest backups are listed first
+        restoreButton.addActionListener(e -> invokeLater(() -> {
+            Instant[] times = getBackupTimes();
+            if (times.length == 0) {
+                JOptionPane.showMessageDialog(null, "There are no backups yet");
+                return;
+            }
+            Object choice = JOptionPane.showInputDialog(null,
+                    "Restoring will overwrite all your habits. Choose a backup to restore:", "Restore from Backup",
+                    JOptionPane.QUESTION_MESSAGE, null, times, times[0]);
+            if (choice != null && restoreFromBackup((Instant) choice)) {
+                JOptionPane.showMessageDialog(null, "Restored Successfully!");
+            }
+        }));
+        mainPanel.add(restoreButton, getSettingsConstraints(8));
+    }
+
+    // EFFECTS: returns the times of all backups, newest first, or none if they cannot be listed
+    private Instant[] getBackupTimes() {
+        try {
+            List<Instant> times = habitManagerUI.getBackups().getBackupTimes();
+            Collections.reverse(times);
+            return times.toArray(new Instant[0]);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new Instant[0];
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces habits with those of the backup taken at time, then updates all habits
+    //          if the backup could not be restored, then notify user and keep existing habits
+    private boolean restoreFromBackup(Instant time) {
+        try {
+            SnapshotRecords records = habitManagerUI.getBackups().restore(time);
+            HabitManager restoredHabitManager = records.decode(new BinaryCodec(Clock.systemDefaultZone()));
+            habitManagerUI.setHabitManager(restoredHabitManager);
+            habitManagerUI.updateAllHabits();
+            habitManagerUI.changeMade();
+        } catch (IOException e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(null, "Error restoring backup");
+            return false;
+        }
+        deleteAllHabits();
+        return true;
+    }
+
     // MODIFIES: this
     // EFFECTS: setups and adds delete all habits button to mainPanel
     private void setupDeleteAllHabitsButton() {
@@ -330,19 +452,19 @@ public class SettingsUI extends JPanel {
                     JOptionPane.YES_NO_OPTION);
             if (response == JOptionPane.YES_OPTION) {
                 deleteAllHabits();
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade();
                 JOptionPane.showMessageDialog(null, "All habits deleted successfully");
             }
         }));
-        mainPanel.add(deleteAllHabits, getSettingsConstraints(8));
+        mainPanel.add(deleteAllHabits, getSettingsConstraints(9));
     }
 
     // MODIFIES: this
-    // EFFECTS: deletes all habits in habitManager
+    // EFFECTS: deletes all habits in habitManager, including archived habits that have not been loaded yet
     private void deleteAllHabits() {
-        int size = habitManager.getSize();
-        for (int i = 0; i < size; i++) {
-            habitManager.deleteHabit(habitManager.getHabits().get(0));
+        habitManager.loadArchivedHabits();
+        for (Habit habit : new ArrayList<>(habitManager.getHabits())) {
+            habitManager.deleteHabit(habit);
         }
     }
 
@@ -379,7 +501,7 @@ public class SettingsUI extends JPanel {
     private GridBagConstraints getEmptySpaceConstraints() {
         GridBagConstraints constraints = new GridBagConstraints();
         constraints.gridx = 0;
-        constraints.gridy = 9;
+        constraints.gridy = 10;
         constraints.fill = GridBagConstraints.HORIZONTAL;
         constraints.weighty = 1;
         return constraints;
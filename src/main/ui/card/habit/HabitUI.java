@@ -5,6 +5,7 @@ import model.Habit;
 import model.Period;
 import model.achievement.Achievement;
 import model.achievement.AchievementManager;
+import persistence.HabitMutation;
 import ui.AchievementToast;
 import ui.card.*;
 import ui.card.habit.reminder.DailyRemindersUI;
@@ -29,6 +30,7 @@ import static ui.Constants.*;
 public class HabitUI extends JPanel {
     private Habit habit;
     private AchievementToast achievementToast;
+    private HabitManagerUI habitManagerUI;
     private JTabbedPane tabbedPane;
     private JPanel habitPanel;
     private JPanel contentsPanel;
@@ -51,10 +53,11 @@ public class HabitUI extends JPanel {
     private JButton changePeriod;
 
 
-    // EFFECTS: initializes habit JPanel
-    public HabitUI(Habit habit, AchievementToast achievementToast) {
+    // EFFECTS: initializes habit JPanel, changes to habit are reported to habitManagerUI
+    public HabitUI(Habit habit, AchievementToast achievementToast, HabitManagerUI habitManagerUI) {
         this.habit = habit;
         this.achievementToast = achievementToast;
+        this.habitManagerUI = habitManagerUI;
         UIManager.put("TabbedPane.selected", APP_COLOUR.brighter().brighter().brighter());
         tabbedPane = new JTabbedPane();
         setupPanels();
@@ -185,7 +188,7 @@ public class HabitUI extends JPanel {
                 habitName.selectAll();
             }
             habit.setName(habitName.getText());
-            HabitManagerUI.changeMade();
+            habitManagerUI.changeMade(habit, HabitMutation.RENAMED);
             updateOtherPanels();
         });
     }
@@ -302,7 +305,7 @@ public class HabitUI extends JPanel {
                 habitDescriptionArea.selectAll();
             }
             habit.setDescription(habitDescriptionArea.getText());
-            HabitManagerUI.changeMade();
+            habitManagerUI.changeMade(habit, HabitMutation.DESCRIPTION_CHANGED);
             updateOtherPanels();
         });
     }
@@ -417,7 +420,7 @@ public class HabitUI extends JPanel {
             List<Achievement> current = habit.getAchievements();
             if (habit.finishHabit()) {
                 habitNumSuccess.setText(String.valueOf(habit.getNumSuccess()));
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.COMPLETED);
                 List<Achievement> newlyAchieved = AchievementManager.getNewlyAchieved(
                         current, habit.getHabitStats(), habit.getPeriod());
                 for (Achievement achievement : newlyAchieved) {
@@ -436,7 +439,7 @@ public class HabitUI extends JPanel {
         decrementSuccess.addActionListener(e -> invokeLater(() -> {
             if (habit.undoFinishHabit()) {
                 habitNumSuccess.setText(String.valueOf(habit.getNumSuccess()));
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.UNCOMPLETED);
                 updateOtherPanels();
             }
         }));
@@ -489,7 +492,7 @@ public class HabitUI extends JPanel {
                 JOptionPane.QUESTION_MESSAGE, null, options, options[current - 1]));
         if (choice != null) {
             if (habit.setFrequency((int) choice)) {
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.FREQUENCY_CHANGED);
             }
             updateHabitUI();
         }
@@ -504,7 +507,7 @@ public class HabitUI extends JPanel {
                 JOptionPane.QUESTION_MESSAGE, null, options, options[current]);
         if (choice != null) {
             if (habit.setPeriod(Period.valueOf((choice.toString().toUpperCase())))) {
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.PERIOD_CHANGED);
                 habitRemindersPanel = getHabitRemindersUI();
                 tabbedPane.setComponentAt(2, habitRemindersPanel);
                 updateHabitUI();
@@ -572,11 +575,11 @@ public class HabitUI extends JPanel {
     private HabitRemindersUI getHabitRemindersUI() {
         switch (habit.getPeriod()) {
             case DAILY:
-                return new DailyRemindersUI(habit);
+                return new DailyRemindersUI(habit, habitManagerUI);
             case WEEKLY:
-                return new WeeklyRemindersUI(habit);
+                return new WeeklyRemindersUI(habit, habitManagerUI);
             default:
-                return new MonthlyRemindersUI(habit);
+                return new MonthlyRemindersUI(habit, habitManagerUI);
         }
     }
 
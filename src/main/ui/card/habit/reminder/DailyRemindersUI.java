@@ -2,6 +2,7 @@ package ui.card.habit.reminder;
 
 import javafx.util.Pair;
 import model.Habit;
+import persistence.HabitMutation;
 import ui.card.HabitManagerUI;
 
 import javax.swing.*;
@@ -31,8 +32,8 @@ public class DailyRemindersUI extends HabitRemindersUI {
     private JButton presetSubmitButton;
 
     // EFFECTS: constructs a daily reminder panel
-    public DailyRemindersUI(Habit habit) {
-        super(habit);
+    public DailyRemindersUI(Habit habit, HabitManagerUI habitManagerUI) {
+        super(habit, habitManagerUI);
     }
 
     // MODIFIES: this
@@ -226,7 +227,7 @@ public class DailyRemindersUI extends HabitRemindersUI {
         presetSubmitButton.addActionListener(e -> invokeLater(() -> {
             commitPresetSpinners();
             if (generateReminders()) {
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.REMINDERS_CHANGED);
                 JOptionPane.showMessageDialog(this, "Notifications have been generated!", "Success",
                         JOptionPane.INFORMATION_MESSAGE);
                 updateRemindersUI();
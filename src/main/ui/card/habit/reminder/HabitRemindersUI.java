@@ -1,6 +1,7 @@
 package ui.card.habit.reminder;
 
 import model.Habit;
+import persistence.HabitMutation;
 import ui.card.HabitManagerUI;
 
 import javax.swing.*;
@@ -23,10 +24,12 @@ public abstract class HabitRemindersUI extends JPanel {
     protected JPanel reminderListPanel;
     protected JTabbedPane tabbedPane;
     protected Habit habit;
+    protected HabitManagerUI habitManagerUI;
 
-    // EFFECTS: constructs a habit reminder panel
-    public HabitRemindersUI(Habit habit) {
+    // EFFECTS: constructs a habit reminder panel, changes to reminders are reported to habitManagerUI
+    public HabitRemindersUI(Habit habit, HabitManagerUI habitManagerUI) {
         this.habit = habit;
+        this.habitManagerUI = habitManagerUI;
         UIManager.put("TabbedPane.selected", APP_COLOUR.brighter().brighter().brighter());
         setupPanel();
     }
@@ -178,7 +181,7 @@ public abstract class HabitRemindersUI extends JPanel {
         //          if successful, update reminders UI
         submit.addActionListener((e) -> invokeLater(() -> {
             if (setCustomReminders(frequency)) {
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.REMINDERS_CHANGED);
                 JOptionPane.showMessageDialog(null, "Notifications have been set for this habit.",
                         "Notifications Set", JOptionPane.INFORMATION_MESSAGE);
                 updateRemindersUI();
@@ -454,8 +457,8 @@ public abstract class HabitRemindersUI extends JPanel {
     // MODIFIES: this
     // EFFECTS: toggles notifications on/off
     private void toggleNotifications() {
-        HabitManagerUI.changeMade();
         habit.toggleNotifyEnabled();
+        habitManagerUI.changeMade(habit, HabitMutation.NOTIFICATIONS_TOGGLED);
         updateRemindersUI();
     }
 
@@ -468,8 +471,8 @@ public abstract class HabitRemindersUI extends JPanel {
         // MODIFIES: this
         // EFFECTS: reverts to default notifications, disabled default button
         setDefaults.addActionListener(e -> invokeLater(() -> {
-            HabitManagerUI.changeMade();
             habit.getHabitReminder().setDefaultReminders();
+            habitManagerUI.changeMade(habit, HabitMutation.REMINDERS_CHANGED);
             JOptionPane.showMessageDialog(null, "Default notifications have been set for this habit.",
                     "Default Notifications Set", JOptionPane.INFORMATION_MESSAGE);
             setEnabled(false);
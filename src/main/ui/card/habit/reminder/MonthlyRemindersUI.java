@@ -3,6 +3,7 @@ package ui.card.habit.reminder;
 import javafx.util.Pair;
 import model.Habit;
 import model.reminder.MonthlyReminder;
+import persistence.HabitMutation;
 import ui.card.HabitManagerUI;
 
 import javax.swing.*;
@@ -27,8 +28,8 @@ public class MonthlyRemindersUI extends HabitRemindersUI {
     private JComboBox<String> presetChoiceBox;
 
     // EFFECTS: constructs a monthly reminder panel
-    public MonthlyRemindersUI(Habit habit) {
-        super(habit);
+    public MonthlyRemindersUI(Habit habit, HabitManagerUI habitManagerUI) {
+        super(habit, habitManagerUI);
     }
 
     // MODIFIES: this
@@ -162,7 +163,7 @@ public class MonthlyRemindersUI extends HabitRemindersUI {
             reminders.add(new Pair<>(31, time));
         }
         ((MonthlyReminder) habit.getHabitReminder()).setCustomMonthlyReminders(reminders);
-        HabitManagerUI.changeMade();
+        habitManagerUI.changeMade(habit, HabitMutation.REMINDERS_CHANGED);
         JOptionPane.showMessageDialog(null, "Notifications set successfully!",
                 "Success", JOptionPane.INFORMATION_MESSAGE);
         updateRemindersUI();
@@ -285,7 +286,7 @@ public class MonthlyRemindersUI extends HabitRemindersUI {
         // EFFECTS: notify user whether preset reminders were set successfully, if successful update reminders UI
         submit.addActionListener(e -> invokeLater(() -> {
             if (setDayRangeReminders()) {
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.REMINDERS_CHANGED);
                 JOptionPane.showMessageDialog(null, "Notifications set successfully!",
                         "Success", JOptionPane.INFORMATION_MESSAGE);
                 updateRemindersUI();
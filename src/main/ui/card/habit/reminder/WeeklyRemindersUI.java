@@ -2,6 +2,7 @@ package ui.card.habit.reminder;
 
 import model.Habit;
 import model.reminder.WeeklyReminder;
+import persistence.HabitMutation;
 import ui.card.HabitManagerUI;
 
 import javax.swing.*;
@@ -25,8 +26,8 @@ public class WeeklyRemindersUI extends HabitRemindersUI {
     private JPanel presetWeekends;
 
     // EFFECTS: Constructs a weekly reminder panel
-    public WeeklyRemindersUI(Habit habit) {
-        super(habit);
+    public WeeklyRemindersUI(Habit habit, HabitManagerUI habitManagerUI) {
+        super(habit, habitManagerUI);
     }
 
     // MODIFIES: this
@@ -157,7 +158,7 @@ public class WeeklyRemindersUI extends HabitRemindersUI {
         //          if successful, then update reminders UI
         submitButton.addActionListener((e) -> invokeLater(() -> {
             if (setPresetEveryDay()) {
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.REMINDERS_CHANGED);
                 JOptionPane.showMessageDialog(null, "Notifications have been set for this habit.",
                         "Notifications Set", JOptionPane.INFORMATION_MESSAGE);
                 updateRemindersUI();
@@ -302,7 +303,7 @@ public class WeeklyRemindersUI extends HabitRemindersUI {
         //          if successful, update reminders UI
         submitButton.addActionListener((e) -> invokeLater(() -> {
             if (setPresetWeekdays()) {
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.REMINDERS_CHANGED);
                 JOptionPane.showMessageDialog(null, "Notifications have been set for this habit.",
                         "Notifications Set", JOptionPane.INFORMATION_MESSAGE);
                 updateRemindersUI();
@@ -392,7 +393,7 @@ public class WeeklyRemindersUI extends HabitRemindersUI {
         //          if successful, update reminders UI
         submitButton.addActionListener((e) -> invokeLater(() -> {
             if (setPresetWeekends()) {
-                HabitManagerUI.changeMade();
+                habitManagerUI.changeMade(habit, HabitMutation.REMINDERS_CHANGED);
                 JOptionPane.showMessageDialog(null, "Notifications have been set for this habit.",
                         "Notifications Set", JOptionPane.INFORMATION_MESSAGE);
                 updateRemindersUI();
@@ -1,6 +1,7 @@
 package ui.reminder;
 
 import model.Habit;
+import model.reminder.HabitReminder;
 import org.quartz.*;
 import org.quartz.impl.StdSchedulerFactory;
 
@@ -11,26 +12,52 @@ import static org.quartz.TriggerBuilder.*;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.List;
 import java.util.Set;
 
-// A scheduler for habit notifications
+// A scheduler for habit notifications, every reminder scheduler shares the default Quartz scheduler,
+// which is only looked up and started the first time a reminder scheduler needs it
 public class ReminderScheduler {
+    private static Scheduler scheduler;
 
-    private Scheduler scheduler;
-
-    // EFFECTS: constructs a new reminder scheduler
+    // EFFECTS: constructs a new reminder scheduler without touching Quartz
     public ReminderScheduler() {
-        try {
-            scheduler = StdSchedulerFactory.getDefaultScheduler();
-            scheduler.start();
-        } catch (SchedulerException e) {
-            e.printStackTrace();
-        }
     }
 
     // EFFECTS: returns the scheduler, for testing purposes
     public Scheduler getScheduler() {
-        return this.scheduler;
+        return getQuartzScheduler();
+    }
+
+    // EFFECTS: looks up and starts the default Quartz scheduler if that has not happened yet and returns it,
+    //          returns null if it cannot be started
+    private static synchronized Scheduler getQuartzScheduler() {
+        if (scheduler == null) {
+            try {
+                scheduler = StdSchedulerFactory.getDefaultScheduler();
+                scheduler.start();
+            } catch (SchedulerException e) {
+                e.printStackTrace();
+            }
+        }
+        return scheduler;
+    }
+
+    // EFFECTS: starts the shared Quartz scheduler ahead of the first reminder that needs it
+    public static void start() {
+        getQuartzScheduler();
+    }
+
+    // MODIFIES: habits
+    // EFFECTS: gives the reminder of every habit that has no reminder scheduler yet one shared reminder scheduler
+    public static void bindAll(List<Habit> habits) {
+        ReminderScheduler reminderScheduler = new ReminderScheduler();
+        for (Habit habit : habits) {
+            HabitReminder reminder = habit.getHabitReminder();
+            if (reminder != null && !reminder.hasReminderScheduler()) {
+                reminder.setReminderScheduler(reminderScheduler);
+            }
+        }
     }
 
     // MODIFIES: this
@@ -66,7 +93,7 @@ public class ReminderScheduler {
                 .forJob(job)
                 .build();
         try {
-            scheduler.scheduleJob(job, trigger);
+            getQuartzScheduler().scheduleJob(job, trigger);
         } catch (SchedulerException e) {
             e.printStackTrace();
         }
@@ -76,7 +103,7 @@ public class ReminderScheduler {
     // EFFECTS: cancels reminder with given jobId and groupId
     public void cancelReminder(String jobId, String groupId) {
         try {
-            scheduler.deleteJob(new JobKey(jobId, groupId));
+            getQuartzScheduler().deleteJob(new JobKey(jobId, groupId));
         } catch (SchedulerException e) {
             e.printStackTrace();
         }
@@ -1,7 +1,7 @@
 package ui.reminder;
 
 import model.Habit;
-import model.HabitManager;
+import model.UserProfile;
 import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import ui.HabitApp;
@@ -54,7 +54,7 @@ public class SendReminder implements Job {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("LLL d, uuuu h:mm a");
         String messageTime = dateTime.format(formatter);
         String messageTitle = "\n" + messageTime + "\nHabit Reminder: " + habit.getName();
-        String messageIntro = "Hey " + HabitManager.getUsername() + "! Remember to focus on your habit: "
+        String messageIntro = "Hey " + getUsername() + "! Remember to focus on your habit: "
                 + habit.getName() + "! You're on track to greatness!";
         String messageGoals = getMessageGoals();
         String messageProgress = getMessageProgress();
@@ -64,9 +64,16 @@ public class SendReminder implements Job {
         System.out.println(message);
     }
 
+    // EFFECTS: returns the username of the user whose habit manager habit is in, or "there" if it is in none or the
+    //          user has no username
+    private String getUsername() {
+        UserProfile profile = habit.getProfile();
+        return profile == null || profile.getUsername() == null ? "there" : profile.getUsername();
+    }
+
     // EFFECTS: sends a desktop notification to the user
     private void sendUIReminder() {
-        String message = "Hey " + HabitManager.getUsername() + "! Only "
+        String message = "Hey " + getUsername() + "! Only "
                 + (habit.getFrequency() - habit.getNumSuccess()) + " more to go for " + habit.getName()
                 + getPeriodString(" today.", " this week.", " this month.")
                 + (habit.getHabitStats().getStreak() == 0
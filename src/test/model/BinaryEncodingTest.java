@@ -0,0 +1,48 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for BinaryEncoding
+public class BinaryEncodingTest {
+
+    @Test
+    void testEpochMinutes() {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 2, 29, 23, 59, 30);
+        int minutes = BinaryEncoding.toEpochMinutes(dateTime);
+        assertEquals(dateTime.withSecond(0), BinaryEncoding.fromEpochMinutes(minutes));
+        assertEquals(-1, BinaryEncoding.toEpochMinutes(LocalDateTime.of(1969, 12, 31, 23, 59, 59)));
+    }
+
+    @Test
+    void testVarIntRoundTrip() {
+        int[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        int[] lengths = {1, 1, 1, 2, 2, 5, 5, 5};
+        try {
+            for (int i = 0; i < values.length; i++) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                BinaryEncoding.writeVarInt(new DataOutputStream(bytes), values[i]);
+                assertEquals(lengths[i], bytes.size());
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+                assertEquals(values[i], BinaryEncoding.readVarInt(in));
+            }
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testMalformedVarInt() {
+        byte[] bytes = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 1};
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        assertThrows(IOException.class, () -> BinaryEncoding.readVarInt(in));
+    }
+}
@@ -0,0 +1,116 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for CompletionLog
+public class CompletionLogTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private CompletionLog log;
+
+    @BeforeEach
+    void runBefore() {
+        log = new CompletionLog();
+    }
+
+    @Test
+    void testConstructor() {
+        assertEquals(0, log.getEntryCount());
+        assertEquals(0, log.getCompletionCount());
+        assertFalse(log.undo());
+        assertEquals(0, log.count(START, START.plusYears(1)));
+    }
+
+    @Test
+    void testAppendKeepsTimeOrder() {
+        log.append(START.plusHours(5));
+        log.append(START.plusHours(1));
+        log.append(START.plusHours(9));
+        log.append(START.plusHours(1));
+        assertEquals(4, log.getEntryCount());
+        assertEquals(CompletionLog.toEpochMinutes(START.plusHours(1)), log.getMinute(0));
+        assertEquals(CompletionLog.toEpochMinutes(START.plusHours(1)), log.getMinute(1));
+        assertEquals(CompletionLog.toEpochMinutes(START.plusHours(5)), log.getMinute(2));
+        assertEquals(CompletionLog.toEpochMinutes(START.plusHours(9)), log.getMinute(3));
+        assertEquals(START.plusHours(9), CompletionLog.fromEpochMinutes(log.getMinute(3)));
+    }
+
+    @Test
+    void testUndoTombstonesMostRecent() {
+        log.append(START);
+        log.append(START.plusHours(1));
+        log.append(START.plusHours(2));
+        assertTrue(log.undo());
+        assertTrue(log.undo());
+        assertEquals(3, log.getEntryCount());
+        assertEquals(1, log.getCompletionCount());
+        assertFalse(log.isUndone(0));
+        assertTrue(log.isUndone(1));
+        assertTrue(log.isUndone(2));
+        log.append(START.plusHours(3));
+        assertTrue(log.undo());
+        assertTrue(log.isUndone(3));
+        assertTrue(log.undo());
+        assertTrue(log.isUndone(0));
+        assertFalse(log.undo());
+    }
+
+    @Test
+    void testRangeQueries() {
+        for (int i = 0; i < 10; i++) {
+            log.append(START.plusDays(i).plusHours(12));
+        }
+        log.undo();
+        assertEquals(3, log.count(START.plusDays(2), START.plusDays(5)));
+        assertEquals(9, log.count(START, START.plusDays(30)));
+        assertEquals(0, log.count(START.plusDays(5), START.plusDays(2)));
+        int[] minutes = log.getMinutes(START.plusDays(7), START.plusDays(30));
+        assertEquals(2, minutes.length);
+        assertEquals(CompletionLog.toEpochMinutes(START.plusDays(7).plusHours(12)), minutes[0]);
+        assertEquals(CompletionLog.toEpochMinutes(START.plusDays(8).plusHours(12)), minutes[1]);
+    }
+
+    @Test
+    void testCountPerDay() {
+        log.append(START.plusHours(1));
+        log.append(START.plusHours(23).plusMinutes(59));
+        log.append(START.plusDays(2));
+        log.append(START.plusDays(4));
+        log.append(START.minusMinutes(1));
+        assertArrayEquals(new int[]{2, 0, 1, 0}, log.countPerDay(LocalDate.of(2024, 3, 1), 4));
+        assertArrayEquals(new int[0], log.countPerDay(LocalDate.of(2024, 3, 1), 0));
+    }
+
+    @Test
+    void testEncodeDecode() {
+        for (int i = 0; i < CompletionLog.BLOCK_SIZE * 2 + 5; i++) {
+            log.append(START.plusMinutes(i * 97L));
+        }
+        log.undo();
+        log.undo();
+        CompletionLog decoded = CompletionLog.decode(log.encode());
+        assertEquals(log.getEntryCount(), decoded.getEntryCount());
+        assertEquals(log.getCompletionCount(), decoded.getCompletionCount());
+        for (int i = 0; i < log.getEntryCount(); i++) {
+            assertEquals(log.getMinute(i), decoded.getMinute(i));
+            assertEquals(log.isUndone(i), decoded.isUndone(i));
+        }
+        assertTrue(log.encode().length < log.getEntryCount() * 3);
+        assertEquals(0, CompletionLog.decode(new CompletionLog().encode()).getEntryCount());
+    }
+
+    @Test
+    void testDecodeTruncated() {
+        log.append(START);
+        log.append(START.plusDays(1));
+        byte[] bytes = log.encode();
+        byte[] truncated = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        assertThrows(IllegalArgumentException.class, () -> CompletionLog.decode(truncated));
+    }
+}
@@ -3,11 +3,17 @@ package model;
 import model.reminder.DailyReminder;
 import model.reminder.HabitReminder;
 import model.reminder.MonthlyReminder;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -30,32 +36,28 @@ public class HabitManagerTest extends HabitHelperTest {
         h3 = new Habit("and another name", "yet another description", Period.MONTHLY, 7, true, c3);
     }
 
-    @AfterEach
-    void runAfter() {
-        HabitManager.setUsername(null);
-    }
-
     @Test
     void testConstructor() {
         assertEquals(0, habitManager.getSize());
-        assertFalse(HabitManager.isAutoSave());
-        assertTrue(HabitManager.isAchievementToastsEnabled());
-        assertTrue(HabitManager.isHideOnClose());
+        assertNull(habitManager.getProfile().getUsername());
+        assertFalse(habitManager.getProfile().isAutoSave());
+        assertTrue(habitManager.getProfile().isAchievementToastsEnabled());
+        assertTrue(habitManager.getProfile().isHideOnClose());
     }
 
     @Test
     void testConstructor2() {
         HabitManager hm = new HabitManager("Gregor", false, true, false);
-        assertEquals("Gregor", HabitManager.getUsername());
-        assertFalse(HabitManager.isAutoSave());
-        assertTrue(HabitManager.isAchievementToastsEnabled());
-        assertFalse(HabitManager.isHideOnClose());
-        assertEquals(0, hm.getSize());
         HabitManager other = new HabitManager("John", true, false, true);
-        assertEquals("John", HabitManager.getUsername());
-        assertTrue(HabitManager.isAutoSave());
-        assertFalse(HabitManager.isAchievementToastsEnabled());
-        assertTrue(HabitManager.isHideOnClose());
+        assertEquals("Gregor", hm.getProfile().getUsername());
+        assertFalse(hm.getProfile().isAutoSave());
+        assertTrue(hm.getProfile().isAchievementToastsEnabled());
+        assertFalse(hm.getProfile().isHideOnClose());
+        assertEquals(0, hm.getSize());
+        assertEquals("John", other.getProfile().getUsername());
+        assertTrue(other.getProfile().isAutoSave());
+        assertFalse(other.getProfile().isAchievementToastsEnabled());
+        assertTrue(other.getProfile().isHideOnClose());
         assertEquals(0, other.getSize());
     }
 
@@ -84,28 +86,50 @@ public class HabitManagerTest extends HabitHelperTest {
 
     @Test
     void testGetAndSetUsername() {
-        assertNull(HabitManager.getUsername());
-        HabitManager.setUsername("username");
-        assertEquals("username", HabitManager.getUsername());
+        UserProfile profile = habitManager.getProfile();
+        assertNull(profile.getUsername());
+        profile.setUsername("username");
+        assertEquals("username", profile.getUsername());
+        habitManager.addHabit(h1);
+        assertSame(profile, h1.getProfile());
+        habitManager.deleteHabit(h1);
+        assertNull(h1.getProfile());
     }
 
     @Test
     void testToggleSettings() {
-        assertFalse(HabitManager.isAutoSave());
-        HabitManager.toggleAutoSave();
-        assertTrue(HabitManager.isAutoSave());
-        assertTrue(HabitManager.isAchievementToastsEnabled());
-        HabitManager.toggleAchievementToastsEnabled();
-        assertFalse(HabitManager.isAchievementToastsEnabled());
-        assertTrue(HabitManager.isHideOnClose());
-        HabitManager.toggleHideOnClose();
-        assertFalse(HabitManager.isHideOnClose());
-        HabitManager.toggleAutoSave();
-        assertFalse(HabitManager.isAutoSave());
-        HabitManager.toggleAchievementToastsEnabled();
-        assertTrue(HabitManager.isAchievementToastsEnabled());
-        HabitManager.toggleHideOnClose();
-        assertTrue(HabitManager.isHideOnClose());
+        UserProfile profile = habitManager.getProfile();
+        assertFalse(profile.isAutoSave());
+        profile.toggleAutoSave();
+        assertTrue(profile.isAutoSave());
+        assertTrue(profile.isAchievementToastsEnabled());
+        profile.toggleAchievementToastsEnabled();
+        assertFalse(profile.isAchievementToastsEnabled());
+        assertTrue(profile.isHideOnClose());
+        profile.toggleHideOnClose();
+        assertFalse(profile.isHideOnClose());
+        profile.toggleAutoSave();
+        assertFalse(profile.isAutoSave());
+        profile.toggleAchievementToastsEnabled();
+        assertTrue(profile.isAchievementToastsEnabled());
+        profile.toggleHideOnClose();
+        assertTrue(profile.isHideOnClose());
+    }
+
+    @Test
+    void testProfilesIndependent() {
+        HabitManager other = new HabitManager(new UserProfile("other", true, false, false));
+        habitManager.getProfile().setUsername("first");
+        habitManager.getProfile().toggleAutoSave();
+        other.getProfile().toggleAchievementToastsEnabled();
+        assertEquals("first", habitManager.getProfile().getUsername());
+        assertEquals("other", other.getProfile().getUsername());
+        assertTrue(habitManager.getProfile().isAutoSave());
+        assertTrue(other.getProfile().isAutoSave());
+        assertTrue(habitManager.getProfile().isAchievementToastsEnabled());
+        assertTrue(other.getProfile().isAchievementToastsEnabled());
+        assertTrue(habitManager.getProfile().isHideOnClose());
+        assertFalse(other.getProfile().isHideOnClose());
     }
 
     @Test
@@ -131,6 +155,34 @@ public class HabitManagerTest extends HabitHelperTest {
         assertEquals(h3, habitManager.getHabits().get(0));
     }
 
+    @Test
+    void testSetHabit() {
+        habitManager.addHabit(h1);
+        habitManager.addHabit(h2);
+        Habit replacement = new Habit("replacement", "", Period.DAILY, 1, false, getFixedClock("2024-02-16T17:00:00Z"));
+        habitManager.setHabit(1, replacement);
+        testJobSize(h2.getHabitReminder(), 0);
+        habitManager.addHabit(h3);
+        habitManager.setHabit(0, h2);
+        assertEquals(List.of(h2, replacement, h3), habitManager.getHabits());
+        assertNull(habitManager.getHabit(h1.getId()));
+        assertEquals(replacement, habitManager.getHabit(replacement.getId()));
+    }
+
+    @Test
+    void testReplaceHabit() {
+        habitManager.addHabit(h1);
+        habitManager.addHabit(h2);
+        habitManager.addHabit(h3);
+        Habit replacement = new Habit("replacement", "", Period.WEEKLY, 1, false, getFixedClock("2024-02-16T17:00:00Z"));
+        habitManager.replaceHabit(h2.getId(), replacement);
+        assertEquals(List.of(h1, replacement, h3), habitManager.getHabits());
+        testJobSize(h2.getHabitReminder(), 0);
+        assertNull(habitManager.getHabit(h2.getId()));
+        assertEquals(List.of(h1, replacement), new ArrayList<>(habitManager.getHabits(Period.WEEKLY)));
+        assertTrue(habitManager.getHabits(Period.DAILY).isEmpty());
+    }
+
     @Test
     void testTurnOffReminders() {
         habitManager.addHabit(h1);
@@ -156,4 +208,78 @@ public class HabitManagerTest extends HabitHelperTest {
         testJobSize(hr2, 0);
         testJobSize(hr3, 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testIndexes() {
+        habitManager.addHabit(h1);
+        habitManager.addHabit(h2);
+        habitManager.addHabit(h3);
+        List<Habit> habits = habitManager.getHabits();
+        assertEquals(h2, habitManager.getHabit(h2.getId()));
+        assertNull(habitManager.getHabit(UUID.randomUUID()));
+        assertEquals(List.of(h1), new ArrayList<>(habitManager.getHabits(Period.WEEKLY)));
+        assertTrue(habitManager.getHabits((Period) null).isEmpty());
+
+        assertTrue(h1.setPeriod(Period.DAILY));
+        assertTrue(habitManager.getHabits(Period.WEEKLY).isEmpty());
+        assertEquals(List.of(h1, h2), new ArrayList<>(habitManager.getHabits(Period.DAILY)));
+        h1.toggleIsArchived();
+        assertEquals(List.of(h1), new ArrayList<>(habitManager.getArchivedHabits()));
+        assertEquals(List.of(h2, h3), new ArrayList<>(habitManager.getActiveHabits()));
+        assertEquals(List.of(h1, h2, h3), habits);
+
+        habitManager.deleteHabit(h1);
+        assertTrue(habitManager.getArchivedHabits().isEmpty());
+        assertNull(habitManager.getHabit(h1.getId()));
+        assertEquals(List.of(h2, h3), habits);
+        habitManager.addHabit(h1);
+        assertEquals(List.of(h2, h3, h1), habits);
+        assertThrows(UnsupportedOperationException.class, () -> habits.add(h1));
+        HabitManager other = new HabitManager("Gavin", true, false, true);
+        other.addHabit(h1);
+        habitManager.deleteHabit(h1);
+        assertEquals(List.of(h2, h3), habits);
+        assertEquals(List.of(h1), other.getHabits());
+    }
+
+    @Test
+    void testConcurrentUpdates() {
+        List<Habit> habits = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            habits.add(new Habit("habit " + i, "", Period.DAILY, 15, false, Clock.systemDefaultZone()));
+            habitManager.addHabit(habits.get(i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            for (Habit habit : habits) {
+                futures.add(executor.submit(habit::finishHabit));
+            }
+            futures.add(executor.submit(() -> {
+                Habit added = new Habit("added", "", Period.WEEKLY, 1, false, Clock.systemDefaultZone());
+                habitManager.addHabit(added);
+                for (Habit habit : habitManager.getHabits()) {
+                    assertNotNull(habit.getName());
+                }
+                habitManager.deleteHabit(added);
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            fail("Exception should not have been thrown");
+        }
+        executor.shutdown();
+        assertEquals(habits, habitManager.getHabits());
+        assertEquals(8, habitManager.getSize());
+        for (Habit habit : habits) {
+            assertEquals(15, habit.getNumSuccess());
+            assertEquals(15, habit.getHabitStats().getTotalNumSuccess());
+            assertEquals(1, habit.getHabitStats().getNumPeriodSuccess());
+            assertEquals(1, habit.getHabitStats().getStreak());
+            assertEquals(15, habit.getCompletionLog().getCompletionCount());
+        }
+    }
+}
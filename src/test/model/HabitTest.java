@@ -539,6 +539,9 @@ public class HabitTest extends HabitHelperTest {
         assertTrue(h2.undoFinishHabit());
         assertEquals(9, h2.getNumSuccess());
         checkStats(h2, 0, 0, 9, 0, 0);
+        assertEquals(10, h2.getCompletionLog().getEntryCount());
+        assertEquals(9, h2.getCompletionLog().getCompletionCount());
+        assertTrue(h2.getCompletionLog().isUndone(9));
         int size2 = h2.getAchievements().size();
         assertNotEquals(0, size2);
         assertNotEquals(size1, size2);
@@ -709,7 +712,7 @@ public class HabitTest extends HabitHelperTest {
         h4.setClock(clock);
         assertTrue(h4.updateHabit());
         assertEquals(0, h4.getNumSuccess());
-        checkStats(h4, 0, 1, 5, 1, 1);
+        checkStats(h4, 0, 1, 5, 1, 11);
         assertFalse(h4.isPreviousComplete());
         assertEquals(LocalDateTime.of(2025, Month.MAY, 31, 23, 59), h4.getCurrentPeriodEnd());
         assertEquals(LocalDateTime.of(2025, Month.JUNE, 30, 23, 59), h4.getNextPeriodEnd());
@@ -722,12 +725,42 @@ public class HabitTest extends HabitHelperTest {
         h2.setClock(clock);
         assertTrue(h2.updateHabit());
         assertEquals(0, h2.getNumSuccess());
-        checkStats(h2, 0, 1, 15, 1, 1);
+        checkStats(h2, 0, 1, 15, 1, 2);
         assertFalse(h2.isPreviousComplete());
         assertEquals(LocalDateTime.of(2024, 5, 4, 23, 59), h2.getCurrentPeriodEnd());
         assertEquals(LocalDateTime.of(2024, 5, 5, 23, 59), h2.getNextPeriodEnd());
     }
 
+    @Test
+    void testUpdateHabitAfterManyWeeks() {
+        Habit weekly = new Habit("weekly", "", Period.WEEKLY, 1, false, getFixedClock("2024-02-16T17:00:00.00Z"));
+        finishHabitNumTimes(weekly, 1);
+        weekly.setClock(getFixedClock("2024-05-20T12:00:00.00Z"));
+        assertTrue(weekly.updateHabit());
+        checkStats(weekly, 0, 1, 1, 1, 14);
+        assertFalse(weekly.isPreviousComplete());
+        assertEquals(LocalDateTime.of(2024, Month.MAY, 25, 23, 59), weekly.getCurrentPeriodEnd());
+        assertFalse(weekly.updateHabit());
+        checkStats(weekly, 0, 1, 1, 1, 14);
+    }
+
+    @Test
+    void testCountEnded() {
+        LocalDateTime saturday = LocalDateTime.of(2024, Month.FEBRUARY, 17, 23, 59);
+        assertEquals(0, Period.WEEKLY.countEnded(saturday, saturday));
+        assertEquals(1, Period.WEEKLY.countEnded(saturday, saturday.plusMinutes(1)));
+        assertEquals(1, Period.WEEKLY.countEnded(saturday, saturday.plusDays(7)));
+        assertEquals(2, Period.WEEKLY.countEnded(saturday, saturday.plusDays(7).plusMinutes(1)));
+        assertEquals(0, Period.DAILY.countEnded(saturday, saturday.minusDays(3)));
+        assertEquals(366, Period.DAILY.countEnded(saturday, saturday.plusYears(1)));
+        LocalDateTime endOfMonth = LocalDateTime.of(2024, Month.JANUARY, 31, 23, 59);
+        assertEquals(0, Period.MONTHLY.countEnded(endOfMonth, endOfMonth));
+        assertEquals(1, Period.MONTHLY.countEnded(endOfMonth, endOfMonth.plusDays(29)));
+        assertEquals(2, Period.MONTHLY.countEnded(endOfMonth, endOfMonth.plusDays(30)));
+        assertEquals(120, Period.MONTHLY.countEnded(endOfMonth, endOfMonth.plusYears(10)));
+        assertEquals(121, Period.MONTHLY.countEnded(endOfMonth, endOfMonth.plusYears(10).plusMinutes(1)));
+    }
+
     @Test
     void updateHabitAndNotifyEnabledPeriodNotComplete() {
         finishHabitNumTimes(h1, 2);
@@ -741,6 +774,19 @@ public class HabitTest extends HabitHelperTest {
         testJobSize(h1.getHabitReminder(), 7);
     }
 
+    @Test
+    void testCatchUpPeriodsLeavesReminders() {
+        finishHabitNumTimes(h1, 2);
+        testJobSize(h1.getHabitReminder(), 1);
+        h1.setClock(getFixedClock("2024-02-18T00:00:00.00Z"));
+        assertTrue(h1.catchUpPeriods());
+        assertFalse(h1.catchUpPeriods());
+        checkStats(h1, 0, 0, 2, 0, 1);
+        testJobSize(h1.getHabitReminder(), 1);
+        h1.rescheduleReminders();
+        testJobSize(h1.getHabitReminder(), 7);
+    }
+
     @Test
     void updateHabitAndNotifyEnabledPeriodComplete() {
         h1.setNumSuccess(3);
@@ -846,4 +892,29 @@ public class HabitTest extends HabitHelperTest {
         assertEquals(LocalDateTime.of(2024, Month.DECEMBER, 31, 23, 59), h4.getCurrentPeriodEnd());
         assertEquals(LocalDateTime.of(2025, Month.JANUARY, 31, 23, 59), h4.getNextPeriodEnd());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDirtyTracking() {
+        assertTrue(h1.isDirty());
+        h1.markClean();
+        assertFalse(h1.isDirty());
+        h1.setName("new name");
+        assertTrue(h1.isDirty());
+
+        h1.markClean();
+        assertTrue(h1.finishHabit());
+        assertTrue(h1.isDirty());
+
+        h1.markClean();
+        h1.getHabitReminder().setDefaultReminders();
+        assertTrue(h1.isDirty());
+
+        h2.markClean();
+        assertFalse(h2.setFrequency(15));
+        assertFalse(h2.isDirty());
+        assertFalse(h2.undoFinishHabit());
+        assertFalse(h2.isDirty());
+        h2.toggleIsArchived();
+        assertTrue(h2.isDirty());
+    }
+}
@@ -0,0 +1,73 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for PeriodBoundaries
+public class PeriodBoundariesTest extends HabitHelperTest {
+
+    @Test
+    void testBoundariesMatchCalendar() {
+        LocalDateTime start = LocalDateTime.of(2023, 12, 20, 12, 0);
+        for (int i = 0; i < 800; i++) {
+            LocalDateTime now = start.plusDays(i);
+            PeriodBoundaries boundaries = PeriodBoundaries.at(getFixedClock(now + ":00Z"));
+            LocalDateTime endOfDay = now.withHour(23).withMinute(59);
+            LocalDateTime saturday = endOfDay.with(TemporalAdjusters.nextOrSame(DayOfWeek.SATURDAY));
+            LocalDateTime endOfMonth = endOfDay.with(TemporalAdjusters.lastDayOfMonth());
+            LocalDateTime endOfNextMonth = endOfDay.with(TemporalAdjusters.firstDayOfNextMonth())
+                    .with(TemporalAdjusters.lastDayOfMonth());
+            assertEquals(now.toLocalDate(), boundaries.getToday());
+            checkEnds(boundaries, Period.DAILY, endOfDay, endOfDay.plusDays(1));
+            checkEnds(boundaries, Period.WEEKLY, saturday, saturday.plusDays(7));
+            checkEnds(boundaries, Period.MONTHLY, endOfMonth, endOfNextMonth);
+        }
+    }
+
+    @Test
+    void testSharedWithinDay() {
+        PeriodBoundaries morning = PeriodBoundaries.at(getFixedClock("2024-03-07T00:00:00Z"));
+        PeriodBoundaries night = PeriodBoundaries.at(getFixedClock("2024-03-07T23:59:59Z"));
+        assertSame(morning, night);
+        PeriodBoundaries nextDay = PeriodBoundaries.at(getFixedClock("2024-03-08T00:00:00Z"));
+        assertNotSame(night, nextDay);
+        assertEquals(LocalDateTime.of(2024, 3, 8, 23, 59), nextDay.getCurrentEnd(Period.DAILY));
+    }
+
+    @Test
+    void testDifferentZone() {
+        PeriodBoundaries utc = PeriodBoundaries.at(getFixedClock("2024-03-07T02:00:00Z"));
+        Clock vancouver = Clock.fixed(Instant.parse("2024-03-07T02:00:00Z"), ZoneId.of("America/Vancouver"));
+        PeriodBoundaries local = PeriodBoundaries.at(vancouver);
+        assertNotSame(utc, local);
+        assertEquals(LocalDateTime.of(2024, 3, 6, 23, 59), local.getCurrentEnd(Period.DAILY));
+        assertEquals(LocalDateTime.of(2024, 3, 9, 23, 59), local.getCurrentEnd(Period.WEEKLY));
+    }
+
+    @Test
+    void testCountEnded() {
+        PeriodBoundaries boundaries = PeriodBoundaries.at(getFixedClock("2024-03-07T12:00:00Z"));
+        assertEquals(0, boundaries.countEnded(Period.DAILY, LocalDateTime.of(2024, 3, 7, 23, 59)));
+        assertEquals(3, boundaries.countEnded(Period.DAILY, LocalDateTime.of(2024, 3, 4, 23, 59)));
+        assertEquals(0, boundaries.countEnded(Period.WEEKLY, LocalDateTime.of(2024, 3, 9, 23, 59)));
+        assertEquals(2, boundaries.countEnded(Period.WEEKLY, LocalDateTime.of(2024, 2, 24, 23, 59)));
+        assertEquals(1, boundaries.countEnded(Period.MONTHLY, LocalDateTime.of(2024, 2, 29, 23, 59)));
+        assertEquals(0, boundaries.countEnded(Period.MONTHLY, LocalDateTime.of(2024, 3, 7, 23, 59)));
+    }
+
+    // EFFECTS: checks the current and next ends of period against the expected date times
+    private void checkEnds(PeriodBoundaries boundaries, Period period, LocalDateTime current, LocalDateTime next) {
+        assertEquals(current, boundaries.getCurrentEnd(period));
+        assertEquals(next, boundaries.getNextEnd(period));
+        assertEquals(0, boundaries.countEnded(period, current));
+        assertEquals(0, boundaries.countEnded(period, next));
+    }
+}
@@ -54,4 +54,50 @@ public class EventLogTest {
         assertEquals("Event log cleared.", itr.next().getDescription());
         assertFalse(itr.hasNext());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testTailBounded() {
+        EventLog el = EventLog.getInstance();
+        el.clear();
+        for (int i = 0; i < EventLog.TAIL_SIZE + 5; i++) {
+            el.logEvent(new Event("B" + i));
+        }
+        List<Event> l = new ArrayList<>();
+        for (Event next : el) {
+            l.add(next);
+        }
+        assertEquals(EventLog.TAIL_SIZE, l.size());
+        assertEquals("B5", l.get(0).getDescription());
+        assertEquals("B" + (EventLog.TAIL_SIZE + 4), l.get(l.size() - 1).getDescription());
+    }
+
+    @Test
+    public void testAppender() {
+        List<Event> appended = new ArrayList<>();
+        List<String> calls = new ArrayList<>();
+        EventLog el = EventLog.getInstance();
+        el.setAppender(new EventAppender() {
+            @Override
+            public void append(Event event) {
+                appended.add(event);
+            }
+
+            @Override
+            public void flush() {
+                calls.add("flush");
+            }
+
+            @Override
+            public void close() {
+                calls.add("close");
+            }
+        });
+        el.logEvent(e1);
+        el.flush();
+        el.setAppender(null);
+        el.logEvent(e2);
+        el.flush();
+        assertEquals(List.of(e1), appended);
+        assertEquals(List.of("flush", "close"), calls);
+    }
+}
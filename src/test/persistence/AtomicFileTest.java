@@ -0,0 +1,53 @@
+package persistence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for AtomicFile
+public class AtomicFileTest {
+    private static final String PATH = "./data/testAtomicFile.txt";
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        AtomicFile.write(PATH, "previous".getBytes());
+    }
+
+    @Test
+    void testWriteReplacesContent() {
+        try {
+            AtomicFile.write(PATH, "replaced".getBytes());
+            assertEquals("replaced", Files.readString(Paths.get(PATH)));
+            assertFalse(Files.exists(Paths.get(PATH + ".tmp")));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testUnfinishedWriteKeepsContent() {
+        try {
+            AtomicFile file = new AtomicFile(PATH);
+            FileOutputStream out = file.startWrite();
+            out.write("half writ".getBytes());
+            assertEquals("previous", Files.readString(Paths.get(PATH)));
+            assertTrue(file.failWrite(out));
+            assertEquals("previous", Files.readString(Paths.get(PATH)));
+            assertFalse(Files.exists(Paths.get(PATH + ".tmp")));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testInvalidFile() {
+        AtomicFile file = new AtomicFile("./data/my\0illegal:fileName.txt");
+        assertThrows(IOException.class, file::startWrite);
+    }
+}
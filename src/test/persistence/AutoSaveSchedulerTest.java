@@ -0,0 +1,84 @@
+package persistence;
+
+import model.Habit;
+import model.Period;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for AutoSaveScheduler
+public class AutoSaveSchedulerTest {
+    private List<PendingChanges> writes;
+    private AutoSaveScheduler autoSave;
+    private Habit habit1;
+    private Habit habit2;
+
+    @BeforeEach
+    void runBefore() {
+        writes = Collections.synchronizedList(new ArrayList<>());
+        habit1 = new Habit("habit1", "first", Period.DAILY, 1, false, Clock.systemDefaultZone());
+        habit2 = new Habit("habit2", "second", Period.WEEKLY, 2, false, Clock.systemDefaultZone());
+    }
+
+    @AfterEach
+    void runAfter() {
+        autoSave.close();
+    }
+
+    @Test
+    void testBurstMergedIntoOneWrite() throws InterruptedException {
+        autoSave = new AutoSaveScheduler(50, 5000, writes::add, Runnable::run);
+        for (int i = 0; i < 10; i++) {
+            autoSave.changeMade(habit1, HabitMutation.RENAMED);
+        }
+        autoSave.changeMade(habit2, HabitMutation.COMPLETED);
+        Thread.sleep(400);
+        assertEquals(1, writes.size());
+        assertEquals(2, writes.get(0).getHabitChanges().size());
+        assertFalse(writes.get(0).isFullSave());
+        assertEquals(11, autoSave.getChangeCount());
+        assertEquals(1, autoSave.getWriteCount());
+        assertEquals(10, autoSave.getWritesSaved());
+    }
+
+    @Test
+    void testMaxDelayWritesDuringSteadyChanges() throws InterruptedException {
+        autoSave = new AutoSaveScheduler(200, 250, writes::add, Runnable::run);
+        for (int i = 0; i < 25; i++) {
+            autoSave.changeMade(habit1, HabitMutation.DESCRIPTION_CHANGED);
+            Thread.sleep(30);
+        }
+        assertTrue(writes.size() >= 2);
+        assertTrue(autoSave.getWritesSaved() > 0);
+    }
+
+    @Test
+    void testFlushWritesImmediately() {
+        autoSave = new AutoSaveScheduler(10000, 10000, writes::add, Runnable::run);
+        autoSave.changeMade(habit1, HabitMutation.ADDED);
+        autoSave.changeMade();
+        autoSave.flush();
+        assertEquals(1, writes.size());
+        assertTrue(writes.get(0).isFullSave());
+        autoSave.flush();
+        assertEquals(1, writes.size());
+    }
+
+    @Test
+    void testLastMutationOfHabitKept() {
+        autoSave = new AutoSaveScheduler(10000, 10000, writes::add, Runnable::run);
+        autoSave.changeMade(habit1, HabitMutation.ADDED);
+        autoSave.changeMade(habit1, HabitMutation.DELETED);
+        autoSave.changeMade(null, HabitMutation.SETTINGS_CHANGED);
+        autoSave.flush();
+        assertEquals(HabitMutation.DELETED, writes.get(0).getHabitChanges().iterator().next().getValue());
+        assertFalse(writes.get(0).isEmpty());
+    }
+}
@@ -0,0 +1,221 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import model.UserProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for BackupStore
+public class BackupStoreTest extends JsonTest {
+    private static final String DIRECTORY = "./data/testBackups";
+    private static final String SHARDS = "./data/testBackupShards";
+    private BinaryCodec codec;
+    private ShardedStore shards;
+    private HabitManager hm;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        codec = new BinaryCodec(Clock.systemDefaultZone());
+        shards = new ShardedStore(SHARDS);
+        hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        deleteDirectory(DIRECTORY);
+        deleteDirectory(SHARDS);
+    }
+
+    @Test
+    void testDeltaOnlyHoldsChanges() {
+        try {
+            BackupStore backups = newStore(10, 2);
+            assertTrue(backups.backup(SnapshotRecords.fromHabitManager(hm, codec)));
+            long baseSize = Files.size(getFiles(".base")[0].toPath());
+            assertFalse(backups.backup(SnapshotRecords.fromHabitManager(hm, codec)));
+            hm.getHabits().get(0).setDescription("changed");
+            assertTrue(backups.backup(SnapshotRecords.fromHabitManager(hm, codec)));
+            assertEquals(1, getFiles(".delta").length);
+            long deltaSize = Files.size(getFiles(".delta")[0].toPath());
+            assertTrue(deltaSize < baseSize / 3);
+            assertEquals(2, backups.getBackupTimes().size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testRestorePointInTime() {
+        try {
+            BackupStore backups = newStore(10, 2);
+            backups.backup(SnapshotRecords.fromHabitManager(hm, codec));
+            Habit deleted = hm.getHabits().get(1);
+            SnapshotRecords records = SnapshotRecords.fromHabitManager(hm, codec);
+            records.removeHabit(deleted.getId());
+            backups.backup(records);
+            hm.getHabits().get(0).setName("renamed");
+            records = SnapshotRecords.fromHabitManager(hm, codec);
+            records.removeHabit(deleted.getId());
+            backups.backup(records);
+            List<Instant> times = backups.getBackupTimes();
+            HabitManager first = backups.restore(times.get(0)).decode(codec);
+            assertEquals(6, first.getSize());
+            assertEquals(deleted.getId(), first.getHabits().get(1).getId());
+            HabitManager second = backups.restore(times.get(1).plusMillis(500)).decode(codec);
+            assertEquals(5, second.getSize());
+            assertEquals("dsci revision", second.getHabits().get(0).getName());
+            assertEquals("math 200 grind", second.getHabits().get(1).getName());
+            HabitManager latest = backups.restore(times.get(2)).decode(codec);
+            assertEquals("renamed", latest.getHabits().get(0).getName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+        try {
+            newStore(10, 2).restore(Instant.EPOCH);
+            fail("Exception should have been thrown");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testRetentionPrunesOldChains() {
+        try {
+            BackupStore backups = newStore(1, 2);
+            for (int i = 0; i < 6; i++) {
+                hm.getHabits().get(0).setDescription("change " + i);
+                backups.backup(SnapshotRecords.fromHabitManager(hm, codec));
+            }
+            assertEquals(2, getFiles(".base").length);
+            assertEquals(2, getFiles(".delta").length);
+            List<Instant> times = backups.getBackupTimes();
+            assertEquals(4, times.size());
+            assertEquals("change 2", backups.restore(times.get(0)).decode(codec).getHabits().get(0).getDescription());
+            assertEquals("change 5", backups.restore(times.get(3)).decode(codec).getHabits().get(0).getDescription());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testChainContinuedAfterReopen() {
+        try {
+            newStore(10, 2).backup(SnapshotRecords.fromHabitManager(hm, codec));
+            BackupStore reopened = newStore(10, 2);
+            assertFalse(reopened.backup(SnapshotRecords.fromHabitManager(hm, codec)));
+            assertTrue(reopened.backup(new SnapshotRecords(BinaryCodec.encodeSettings(new UserProfile()))));
+            assertEquals(1, getFiles(".base").length);
+            assertEquals(0, reopened.restore(reopened.getBackupTimes().get(1)).decode(codec).getSize());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testDeferredHabitsReadFromSource() {
+        try {
+            HabitJournal journal = new HabitJournal(shards, SHARDS + ".journal",
+                    HabitJournal.DEFAULT_COMPACTION_THRESHOLD);
+            journal.checkpoint(hm);
+            HabitManager loaded = journal.load();
+            journal.close();
+            Files.deleteIfExists(Paths.get(SHARDS + ".journal"));
+            BackupStore backups = newStore(10, 2);
+            backups.backup(SnapshotRecords.fromHabitManager(loaded, new HabitRecordCache(codec)));
+            assertEquals(6, backups.restore(backups.getBackupTimes().get(0)).decode(codec).getSize());
+            assertFalse(backups.backup(SnapshotRecords.fromHabitManager(loaded, new HabitRecordCache(codec))));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCorruptDeferredHabitSkipped() {
+        try {
+            HabitJournal journal = new HabitJournal(shards, SHARDS + ".journal",
+                    HabitJournal.DEFAULT_COMPACTION_THRESHOLD);
+            journal.checkpoint(hm);
+            HabitManager loaded = journal.load();
+            journal.close();
+            Files.deleteIfExists(Paths.get(SHARDS + ".journal"));
+            SnapshotRecords records = SnapshotRecords.fromHabitManager(loaded, new HabitRecordCache(codec));
+            assertFalse(records.getDeferred().isEmpty());
+            Files.write(Paths.get(SHARDS, records.getDeferred().iterator().next() + ".habit"), new byte[]{1, 2, 3});
+            BackupStore backups = newStore(10, 2);
+            assertTrue(backups.backup(records));
+            assertEquals(5, backups.restore(backups.getBackupTimes().get(0)).decode(codec).getSize());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCorruptDeltaDetected() {
+        try {
+            BackupStore backups = newStore(10, 2);
+            backups.backup(SnapshotRecords.fromHabitManager(hm, codec));
+            hm.getHabits().get(0).setDescription("changed");
+            backups.backup(SnapshotRecords.fromHabitManager(hm, codec));
+            Path delta = getFiles(".delta")[0].toPath();
+            byte[] bytes = Files.readAllBytes(delta);
+            bytes[bytes.length / 2] ^= 1;
+            Files.write(delta, bytes);
+            backups.restore(backups.getBackupTimes().get(1));
+            fail("Exception should have been thrown");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    // EFFECTS: returns a backup store in DIRECTORY whose clock ticks one second every time it is read
+    private BackupStore newStore(int maxDeltas, int keepChains) {
+        Clock clock = new Clock() {
+            private long millis = 1_700_000_000_000L;
+
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(java.time.ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                millis += 1000;
+                return Instant.ofEpochMilli(millis);
+            }
+        };
+        return new BackupStore(DIRECTORY, shards, clock, maxDeltas, keepChains);
+    }
+
+    // EFFECTS: returns the files in DIRECTORY with the given extension
+    private File[] getFiles(String extension) {
+        return new File(DIRECTORY).listFiles((dir, name) -> name.endsWith(extension));
+    }
+
+    // EFFECTS: deletes the directory at path and the files in it
+    private void deleteDirectory(String path) throws IOException {
+        File[] files = new File(path).listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            Files.delete(file.toPath());
+        }
+        Files.deleteIfExists(Paths.get(path));
+    }
+}
@@ -0,0 +1,37 @@
+package persistence;
+
+import model.HabitManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for BinaryReader
+public class BinaryReaderTest extends JsonTest {
+
+    @Test
+    void testReaderNonExistentFile() {
+        BinaryReader reader = new BinaryReader("./data/noSuchFile.dat");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderNotASnapshot() {
+        BinaryReader reader = new BinaryReader("./data/testReaderGeneralHabitManager.json");
+        assertThrows(IOException.class, reader::read);
+    }
+
+    @Test
+    void testReaderVersion1Snapshot() {
+        try {
+            HabitManager hm = new BinaryReader("./data/testReaderVersion1HabitManager.dat").read();
+            assertEquals(6, hm.getSize());
+            assertTrue(hm.getProfile().isAutoSave());
+            assertEquals("Gavin", hm.getProfile().getUsername());
+            requestCheckHabit1(hm);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
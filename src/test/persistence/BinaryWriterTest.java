@@ -0,0 +1,87 @@
+package persistence;
+
+import model.CompletionLog;
+import model.Habit;
+import model.HabitManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for BinaryWriter
+public class BinaryWriterTest extends JsonTest {
+
+    @Test
+    void testWriterInvalidFile() {
+        BinaryWriter writer = new BinaryWriter("./data/my\0illegal:fileName.dat");
+        assertThrows(IOException.class, writer::open);
+    }
+
+    @Test
+    void testWriterEmptyHabitManager() {
+        try {
+            HabitManager hm = new JsonReader("./data/testReaderEmptyHabitManager.json").read();
+            BinaryWriter writer = new BinaryWriter("./data/testWriterEmptyHabitManager.dat");
+            writer.open();
+            writer.write(hm);
+            writer.close();
+
+            hm = new BinaryReader("./data/testWriterEmptyHabitManager.dat").read();
+            assertEquals("gregor kiczales", hm.getProfile().getUsername());
+            assertFalse(hm.getProfile().isAutoSave());
+            assertTrue(hm.getProfile().isAchievementToastsEnabled());
+            assertFalse(hm.getProfile().isHideOnClose());
+            assertEquals(0, hm.getSize());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterGeneralHabitManager() {
+        try {
+            HabitManager hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+            BinaryWriter writer = new BinaryWriter("./data/testWriterGeneralHabitManager.dat");
+            writer.open();
+            writer.write(hm);
+            writer.close();
+
+            hm = new BinaryReader("./data/testWriterGeneralHabitManager.dat").read();
+            assertEquals(6, hm.getSize());
+            assertTrue(hm.getProfile().isAutoSave());
+            assertFalse(hm.getProfile().isAchievementToastsEnabled());
+            assertTrue(hm.getProfile().isHideOnClose());
+            assertEquals("Gavin", hm.getProfile().getUsername());
+            requestCheckHabit1(hm);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterCompletionLog() {
+        try {
+            HabitManager hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+            Habit habit = hm.getHabits().get(0);
+            habit.getCompletionLog().append(LocalDateTime.of(2024, 3, 1, 8, 30));
+            habit.getCompletionLog().append(LocalDateTime.of(2024, 3, 2, 9, 0));
+            habit.getCompletionLog().undo();
+            BinaryWriter writer = new BinaryWriter("./data/testWriterGeneralHabitManager.dat");
+            writer.open();
+            writer.write(hm);
+            writer.close();
+
+            hm = new BinaryReader("./data/testWriterGeneralHabitManager.dat").read();
+            CompletionLog log = hm.getHabits().get(0).getCompletionLog();
+            assertEquals(2, log.getEntryCount());
+            assertEquals(1, log.getCompletionCount());
+            assertTrue(log.isUndone(1));
+            assertEquals(0, hm.getHabits().get(1).getCompletionLog().getEntryCount());
+            requestCheckHabit1(hm);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import model.HabitStatistics;
+import model.Period;
+import model.reminder.DailyReminder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+// A benchmark comparing load and save times and file sizes of raw and gzip compressed save files on a large
+// synthetic habit manager, run with the number of habits as the optional first argument
+public class CompressionBenchmark {
+    private static final int RUNS = 7;
+    private static final String[] FORMATS = {"habits.json", "habits.json.gz", "habits.dat", "habits.dat.gz"};
+
+    // EFFECTS: runs the benchmark and prints the median save and load time and the size of every format
+    public static void main(String[] args) throws IOException {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        HabitManager hm = makeHabitManager(size);
+        Path directory = Files.createTempDirectory("habit-benchmark");
+        System.out.printf("%d habits%n%-16s %10s %10s %12s%n", size, "format", "save ms", "load ms", "bytes");
+        for (String format : FORMATS) {
+            SaveFile file = new SaveFile(directory.resolve(format).toString());
+            long[] saves = new long[RUNS];
+            long[] loads = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                file.save(hm);
+                saves[i] = System.nanoTime() - start;
+                start = System.nanoTime();
+                file.load();
+                loads[i] = System.nanoTime() - start;
+            }
+            System.out.printf("%-16s %10.1f %10.1f %12d%n", format, median(saves), median(loads),
+                    Files.size(directory.resolve(format)));
+            Files.delete(directory.resolve(format));
+        }
+        Files.delete(directory);
+    }
+
+    // EFFECTS: returns a habit manager with size habits that have long descriptions and daily reminders
+    private static HabitManager makeHabitManager(int size) {
+        Clock clock = Clock.systemDefaultZone();
+        LocalDateTime now = LocalDateTime.now(clock).withSecond(0).withNano(0);
+        HabitManager hm = new HabitManager();
+        hm.getProfile().setUsername("benchmark");
+        for (int i = 0; i < size; i++) {
+            HabitStatistics stats = new HabitStatistics(i % 30, i % 60, i, i % 100, i % 200);
+            Habit habit = new Habit("habit " + i, "a long description of habit number " + i + " ".repeat(i % 50)
+                    + "that is repeated across many habits to mimic real user notes", Period.DAILY, 10,
+                    UUID.randomUUID(), true, i % 10, now.plusDays(1), now.plusDays(2), false, clock, stats, null,
+                    i % 5 == 0);
+            Set<LocalDateTime> reminders = new HashSet<>();
+            for (int j = 0; j < 10; j++) {
+                reminders.add(now.withHour(9).plusMinutes(72L * j));
+            }
+            habit.setHabitReminder(new DailyReminder(reminders, clock, true, habit, null));
+            hm.addHabit(habit);
+        }
+        return hm;
+    }
+
+    // EFFECTS: returns the median of times in milliseconds
+    private static double median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] / 1e6;
+    }
+}
@@ -0,0 +1,79 @@
+package persistence;
+
+import model.HabitManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for Compression
+public class CompressionTest extends JsonTest {
+    private static final String JSON = "./data/testCompressedHabitManager.json.gz";
+    private static final String BINARY = "./data/testCompressedHabitManager.dat.gz";
+    private HabitManager hm;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(JSON));
+        Files.deleteIfExists(Paths.get(BINARY));
+    }
+
+    @Test
+    void testCompressedPath() {
+        assertTrue(Compression.isCompressedPath("habits.json.gz"));
+        assertFalse(Compression.isCompressedPath("habits.json"));
+        assertEquals("habits.json", Compression.stripExtension("habits.json.gz"));
+        assertEquals(SaveFormat.JSON, SaveFormat.forPath(JSON));
+        assertEquals(SaveFormat.BINARY, SaveFormat.forPath(BINARY));
+    }
+
+    @Test
+    void testCompressedJson() {
+        try {
+            new SaveFile(JSON).save(hm);
+            byte[] bytes = Files.readAllBytes(Paths.get(JSON));
+            assertEquals((byte) 0x1f, bytes[0]);
+            assertEquals((byte) 0x8b, bytes[1]);
+            assertTrue(bytes.length < Files.size(Paths.get("./data/testReaderGeneralHabitManager.json")));
+            assertEquals(SaveFormat.JSON, SaveFormat.detect(JSON));
+            HabitManager loaded = new JsonReader(JSON).read();
+            assertEquals(6, loaded.getSize());
+            requestCheckHabit1(loaded);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCompressedBinary() {
+        try {
+            new SaveFile(BINARY).save(hm);
+            assertEquals(SaveFormat.BINARY, SaveFormat.detect(BINARY));
+            HabitManager loaded = new SaveFile(BINARY).load();
+            assertEquals(6, loaded.getSize());
+            requestCheckHabit1(loaded);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testUncompressedFileReadAsIs() {
+        try {
+            assertEquals(SaveFormat.JSON, SaveFormat.detect("./data/testReaderGeneralHabitManager.json"));
+            requestCheckHabit1(new SaveFile("./data/testReaderGeneralHabitManager.json").load());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import model.Period;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for ExternalChangeWatcher and ExternalChanges
+public class ExternalChangeWatcherTest extends JsonTest {
+    private static final String DIRECTORY = "./data/testWatch";
+    private static final String SNAPSHOT = DIRECTORY + "/habitManager.dat";
+    private BinaryCodec codec;
+    private HabitManager hm;
+    private HabitManager saved;
+    private ExternalChangeWatcher watcher;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        codec = new BinaryCodec(Clock.systemDefaultZone());
+        hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+        saved = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+        watcher = new ExternalChangeWatcher(List.of(Paths.get(DIRECTORY)),
+                isKnown -> SnapshotRecords.fromHabitManager(saved, codec), codec, changes -> { }, 50);
+        assertEquals(6, watcher.checkNow().getHabits().size());
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        watcher.close();
+        if (Files.exists(Paths.get(DIRECTORY))) {
+            try (Stream<Path> paths = Files.walk(Paths.get(DIRECTORY))) {
+                for (Path path : paths.sorted(Comparator.reverseOrder()).toArray(Path[]::new)) {
+                    Files.delete(path);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testUnchangedAndOwnWrites() {
+        try {
+            assertTrue(watcher.checkNow().isEmpty());
+            saved.getHabits().get(1).setName("jogging twice");
+            watcher.recordWritten(codec.encodeHabit(saved.getHabits().get(1)));
+            assertTrue(watcher.checkNow().isEmpty());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testExternalChangeApplied() {
+        try {
+            saved.getHabits().get(1).setDescription("changed elsewhere");
+            Habit added = new Habit("stretching", "", Period.DAILY, 1, false, Clock.systemDefaultZone());
+            saved.addHabit(added);
+            ExternalChanges changes = watcher.checkNow();
+            assertEquals(2, changes.getHabits().size());
+            assertTrue(changes.getRemovedIds().isEmpty());
+            Habit first = hm.getHabits().get(0);
+            Habit jogging = hm.getHabits().get(1);
+            assertEquals(changes.getHabits(), changes.applyTo(hm));
+            assertEquals(7, hm.getSize());
+            assertNotSame(jogging, hm.getHabits().get(1));
+            assertEquals("changed elsewhere", hm.getHabits().get(1).getDescription());
+            assertEquals(added.getId(), hm.getHabits().get(6).getId());
+            assertSame(first, hm.getHabits().get(0));
+            assertTrue(watcher.checkNow().isEmpty());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testExternalRemovalApplied() {
+        try {
+            Habit jogging = saved.getHabits().get(1);
+            saved.deleteHabit(jogging);
+            ExternalChanges changes = watcher.checkNow();
+            assertTrue(changes.getHabits().isEmpty());
+            assertEquals(1, changes.getRemovedIds().size());
+            assertTrue(changes.getRemovedIds().contains(jogging.getId()));
+            changes.applyTo(hm);
+            assertEquals(5, hm.getSize());
+            assertEquals("math 200 grind", hm.getHabits().get(1).getName());
+            changes.applyTo(hm);
+            assertEquals(5, hm.getSize());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testJournalWritesNotExternal() {
+        HabitJournal journal = new HabitJournal(new ShardedStore(DIRECTORY), DIRECTORY + "/habitManager.journal",
+                HabitJournal.DEFAULT_COMPACTION_THRESHOLD);
+        try {
+            journal.checkpoint(hm);
+            watcher = new ExternalChangeWatcher(List.of(Paths.get(DIRECTORY)), journal::readRecords, codec,
+                    changes -> { }, 50);
+            assertEquals(6, watcher.checkNow().getHabits().size());
+            journal.setRecordObserver(watcher::recordWritten);
+            hm.getHabits().get(1).setName("jogging twice");
+            journal.append(HabitMutation.RENAMED, hm.getHabits().get(1));
+            journal.checkpoint(hm);
+            assertTrue(watcher.checkNow().isEmpty());
+            hm.getHabits().get(2).setName("math 201 grind");
+            journal.setRecordObserver(null);
+            journal.append(HabitMutation.RENAMED, hm.getHabits().get(2));
+            assertEquals("math 201 grind", watcher.checkNow().getHabits().get(0).getName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void testOnlyChangedShardsRead() {
+        HabitJournal journal = new HabitJournal(new ShardedStore(DIRECTORY), DIRECTORY + "/habitManager.journal",
+                HabitJournal.DEFAULT_COMPACTION_THRESHOLD);
+        try {
+            journal.checkpoint(hm);
+            watcher = new ExternalChangeWatcher(List.of(Paths.get(DIRECTORY)), journal::readRecords, codec,
+                    changes -> { }, 50);
+            watcher.start();
+            Path unchanged = Paths.get(DIRECTORY, hm.getHabits().get(0).getId() + ".habit");
+            Files.write(unchanged, new byte[]{1, 2, 3});
+            assertTrue(watcher.checkNow().isEmpty());
+            hm.getHabits().get(2).setName("math 201 grind");
+            journal.checkpoint(hm);
+            ExternalChanges changes = watcher.checkNow();
+            assertEquals(1, changes.getHabits().size());
+            assertEquals("math 201 grind", changes.getHabits().get(0).getName());
+            assertTrue(changes.getRemovedIds().isEmpty());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    void testWatchesDirectory() {
+        BlockingQueue<ExternalChanges> received = new ArrayBlockingQueue<>(10);
+        try {
+            Files.createDirectories(Paths.get(DIRECTORY));
+            SnapshotRecords.fromHabitManager(saved, codec).write(SNAPSHOT);
+            watcher = new ExternalChangeWatcher(List.of(Paths.get(DIRECTORY)),
+                    isKnown -> SnapshotRecords.load(SNAPSHOT, codec), codec, received::add, 50);
+            watcher.start();
+            saved.getHabits().get(1).setName("jogging outside");
+            SnapshotRecords.fromHabitManager(saved, codec).write(SNAPSHOT);
+            ExternalChanges changes = received.poll(30, TimeUnit.SECONDS);
+            assertNotNull(changes);
+            assertEquals(1, changes.getHabits().size());
+            assertEquals("jogging outside", changes.getHabits().get(0).getName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } catch (InterruptedException e) {
+            fail("Test should not have been interrupted");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import model.Period;
+import org.json.JSONException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for HabitExporter and HabitImporter
+public class HabitImporterTest extends JsonTest {
+    private static final String NDJSON = "./data/testExport.ndjson";
+    private static final String CSV = "./data/testExport.csv.gz";
+    private HabitManager hm;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(NDJSON));
+        Files.deleteIfExists(Paths.get(CSV));
+    }
+
+    @Test
+    void testExportFormatForPath() {
+        assertEquals(ExportFormat.NDJSON, ExportFormat.forPath("habits.ndjson"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.forPath("habits.JSONL.gz"));
+        assertEquals(ExportFormat.CSV, ExportFormat.forPath("habits.csv.gz"));
+        assertNull(ExportFormat.forPath("habits.json"));
+        assertThrows(IllegalArgumentException.class, () -> new HabitExporter("habits.dat"));
+        assertThrows(IllegalArgumentException.class, () -> new HabitImporter("habits.json"));
+    }
+
+    @Test
+    void testNdjsonRoundTrip() {
+        checkRoundTrip(NDJSON);
+        try {
+            assertEquals(6, Files.readAllLines(Paths.get(NDJSON)).size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCompressedCsvRoundTrip() {
+        hm.getHabits().get(1).setName("jogging, \"outside\"\nin the rain");
+        hm.getHabits().get(0).getCompletionLog().append(LocalDateTime.of(2024, 3, 1, 8, 30));
+        export(CSV);
+        try {
+            HabitImporter importer = new HabitImporter(CSV);
+            importer.open();
+            Habit first = importer.next();
+            assertEquals(1, first.getCompletionLog().getCompletionCount());
+            assertEquals("jogging, \"outside\"\nin the rain", importer.next().getName());
+            importer.close();
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+        hm.getHabits().get(1).setName("jogging");
+        checkRoundTrip(CSV);
+    }
+
+    @Test
+    void testMergeById() {
+        Habit jogging = hm.getHabits().get(1);
+        jogging.setDescription("merged");
+        Habit added = new Habit("stretching", "", Period.DAILY, 1, false, Clock.systemDefaultZone());
+        try {
+            HabitExporter exporter = new HabitExporter(NDJSON);
+            exporter.open();
+            exporter.write(jogging);
+            exporter.write(added);
+            exporter.close();
+            assertEquals(2, exporter.getCount());
+            hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+            HabitImporter importer = new HabitImporter(NDJSON);
+            importer.open();
+            assertEquals(2, importer.importInto(hm, true));
+            importer.close();
+            assertEquals(7, hm.getSize());
+            assertEquals("merged", hm.getHabits().get(1).getDescription());
+            assertEquals(jogging.getId(), hm.getHabits().get(1).getId());
+            assertEquals(added.getId(), hm.getHabits().get(6).getId());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testImportRemaining() {
+        hm.getHabits().get(0).setName("first\n\nhabit");
+        export(CSV);
+        try {
+            HabitImporter importer = new HabitImporter(CSV);
+            importer.open();
+            assertEquals("first\n\nhabit", importer.next().getName());
+            HabitManager imported = new HabitManager("Gavin", true, false, true);
+            assertEquals(5, importer.importInto(imported, true));
+            assertNull(importer.next());
+            importer.close();
+            assertEquals(5, imported.getSize());
+            assertEquals(hm.getHabits().get(1).getId(), imported.getHabits().get(0).getId());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCorruptLineSkipped() {
+        export(NDJSON);
+        try {
+            String text = new String(Files.readAllBytes(Paths.get(NDJSON)), StandardCharsets.UTF_8);
+            Files.write(Paths.get(NDJSON), text.replace("jogging", "Jogging").getBytes(StandardCharsets.UTF_8));
+            HabitImporter importer = new HabitImporter(NDJSON);
+            importer.open();
+            HabitManager imported = new HabitManager("Gavin", true, false, true);
+            assertEquals(5, importer.importInto(imported, false));
+            importer.close();
+            assertEquals(1, importer.getQuarantined().size());
+            assertEquals("math 200 grind", imported.getHabits().get(1).getName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testInvalidCsv() {
+        checkInvalidCsv("id,name\n");
+        checkInvalidCsv(String.join(",", HabitCsv.getHeader()) + "\n1,2\n");
+        checkInvalidCsv("");
+    }
+
+    @Test
+    void testFailedReplaceLeavesHabits() {
+        try {
+            HabitManager imported = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+            StringWriter rows = new StringWriter();
+            PrintWriter writer = new PrintWriter(rows);
+            HabitCsv.writeRow(writer, HabitCsv.getHeader());
+            HabitCsv.writeRow(writer, HabitCsv.toRow(hm.getHabits().get(0)));
+            writer.print("1,2\n");
+            writer.flush();
+            Files.write(Paths.get(CSV), rows.toString().getBytes(StandardCharsets.UTF_8));
+            HabitImporter importer = new HabitImporter(CSV);
+            importer.open();
+            assertThrows(JSONException.class, () -> importer.importInto(imported, false));
+            importer.close();
+            requestCheckHabit1(imported);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: exports hm to path, imports it into a new habit manager, and checks it matches the general habit manager
+    private void checkRoundTrip(String path) {
+        export(path);
+        try {
+            HabitManager imported = new HabitManager("Gavin", true, false, true);
+            HabitImporter importer = new HabitImporter(path);
+            importer.open();
+            assertEquals(6, importer.importInto(imported, false));
+            assertNull(importer.next());
+            importer.close();
+            requestCheckHabit1(imported);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: exports every habit of hm to path
+    private void export(String path) {
+        try {
+            HabitExporter exporter = new HabitExporter(path);
+            exporter.open();
+            exporter.write(hm);
+            exporter.close();
+            assertEquals(6, exporter.getCount());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: checks that importing text as a CSV file throws JSONException
+    private void checkInvalidCsv(String text) {
+        try {
+            Files.write(Paths.get(CSV), text.getBytes(StandardCharsets.UTF_8));
+            HabitImporter importer = new HabitImporter(CSV);
+            importer.open();
+            importer.importInto(new HabitManager("Gavin", true, false, true), true);
+            fail("Exception should have been thrown");
+        } catch (JSONException e) {
+            // pass
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
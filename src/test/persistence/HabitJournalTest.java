@@ -0,0 +1,137 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import model.Period;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for HabitJournal
+public class HabitJournalTest extends JsonTest {
+    private static final String SNAPSHOT = "./data/testJournalHabitManager.dat";
+    private static final String JOURNAL = "./data/testJournalHabitManager.journal";
+    private HabitJournal journal;
+    private HabitManager hm;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        Files.deleteIfExists(Paths.get(JOURNAL));
+        hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+        journal = new HabitJournal(SNAPSHOT, JOURNAL);
+        journal.checkpoint(hm);
+    }
+
+    @AfterEach
+    void runAfter() {
+        journal.close();
+    }
+
+    @Test
+    void testLoadWithoutEntries() {
+        try {
+            HabitManager loaded = new HabitJournal(SNAPSHOT, JOURNAL).load();
+            assertEquals(6, loaded.getSize());
+            requestCheckHabit1(loaded);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testAppendAndReplay() {
+        try {
+            Habit first = hm.getHabits().get(0);
+            first.setName("renamed");
+            journal.append(HabitMutation.RENAMED, first);
+            Habit second = hm.getHabits().get(1);
+            hm.deleteHabit(second);
+            journal.append(HabitMutation.DELETED, second);
+            Habit added = new Habit("new habit", "added after snapshot", Period.WEEKLY, 3, false,
+                    Clock.systemDefaultZone());
+            hm.addHabit(added);
+            journal.append(HabitMutation.ADDED, added);
+            hm.getProfile().setUsername("journal");
+            journal.appendSettings(hm.getProfile());
+            hm.getProfile().setUsername("Gavin");
+
+            HabitManager loaded = new HabitJournal(SNAPSHOT, JOURNAL).load();
+            assertEquals(6, loaded.getSize());
+            assertEquals("journal", loaded.getProfile().getUsername());
+            assertEquals("renamed", loaded.getHabits().get(0).getName());
+            assertEquals("math 200 grind", loaded.getHabits().get(1).getName());
+            assertEquals(added.getId(), loaded.getHabits().get(5).getId());
+            assertEquals(3, loaded.getHabits().get(5).getFrequency());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testTornTailIgnored() {
+        try {
+            Habit first = hm.getHabits().get(0);
+            first.setName("before crash");
+            journal.append(HabitMutation.RENAMED, first);
+            journal.close();
+            Files.write(Paths.get(JOURNAL), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+            assertEquals("before crash", new HabitJournal(SNAPSHOT, JOURNAL).load().getHabits().get(0).getName());
+
+            journal = new HabitJournal(SNAPSHOT, JOURNAL);
+            first.setName("after crash");
+            journal.append(HabitMutation.RENAMED, first);
+            assertEquals("after crash", new HabitJournal(SNAPSHOT, JOURNAL).load().getHabits().get(0).getName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCompact() {
+        try {
+            Habit first = hm.getHabits().get(0);
+            first.finishHabit();
+            journal.append(HabitMutation.COMPLETED, first);
+            long before = journal.getLength();
+            journal.compact();
+            assertTrue(journal.getLength() < before);
+            assertEquals(HabitJournal.MAGIC.length + 1, Files.size(Paths.get(JOURNAL)));
+            assertEquals(1, new BinaryReader(SNAPSHOT).read().getHabits().get(0).getNumSuccess());
+
+            first.undoFinishHabit();
+            journal.append(HabitMutation.UNCOMPLETED, first);
+            assertEquals(0, new HabitJournal(SNAPSHOT, JOURNAL).load().getHabits().get(0).getNumSuccess());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testBackgroundCompaction() {
+        try {
+            journal.close();
+            journal = new HabitJournal(SNAPSHOT, JOURNAL, 1);
+            for (Habit habit : hm.getHabits()) {
+                habit.setDescription("compacted");
+                journal.append(HabitMutation.DESCRIPTION_CHANGED, habit);
+            }
+            journal.close();
+            HabitManager loaded = new HabitJournal(SNAPSHOT, JOURNAL).load();
+            assertEquals(6, loaded.getSize());
+            for (Habit habit : loaded.getHabits()) {
+                assertEquals("compacted", habit.getDescription());
+            }
+            assertEquals("compacted", new BinaryReader(SNAPSHOT).read().getHabits().get(0).getDescription());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for HabitRecordCache
+public class HabitRecordCacheTest extends JsonTest {
+    private BinaryCodec codec;
+    private HabitRecordCache cache;
+    private HabitManager hm;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        codec = new BinaryCodec(Clock.systemDefaultZone());
+        cache = new HabitRecordCache(codec);
+        hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+    }
+
+    @Test
+    void testOnlyDirtyHabitsEncodedAgain() {
+        try {
+            SnapshotRecords.fromHabitManager(hm, cache);
+            assertEquals(6, cache.getEncodeCount());
+            for (Habit habit : hm.getHabits()) {
+                assertFalse(habit.isDirty());
+            }
+
+            SnapshotRecords.fromHabitManager(hm, cache);
+            assertEquals(6, cache.getEncodeCount());
+
+            Habit changed = hm.getHabits().get(2);
+            changed.setDescription("changed");
+            SnapshotRecords records = SnapshotRecords.fromHabitManager(hm, cache);
+            assertEquals(7, cache.getEncodeCount());
+            assertArrayEquals(codec.encodeHabit(changed), cache.encode(changed));
+            assertEquals("changed", records.decode(codec).getHabits().get(2).getDescription());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testDeletedHabitsForgotten() {
+        try {
+            SnapshotRecords.fromHabitManager(hm, cache);
+            Habit deleted = hm.getHabits().get(0);
+            hm.deleteHabit(deleted);
+            SnapshotRecords.fromHabitManager(hm, cache);
+            assertEquals(6, cache.getEncodeCount());
+            cache.encode(deleted);
+            assertEquals(7, cache.getEncodeCount());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCachesShareNoDirtyFlag() {
+        try {
+            HabitRecordCache other = new HabitRecordCache(codec);
+            Habit changed = hm.getHabits().get(1);
+            cache.encode(changed);
+            changed.setName("jogging twice");
+            other.encode(changed);
+            assertFalse(changed.isDirty());
+            assertEquals("jogging twice", codec.decodeHabit(cache.encode(changed)).getName());
+            assertEquals(2, cache.getEncodeCount());
+            assertEquals(1, other.getEncodeCount());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testChangesOnOtherThreadNotLost() {
+        Habit changed = hm.getHabits().get(1);
+        Thread mutator = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                changed.setDescription("description " + i);
+            }
+        });
+        try {
+            mutator.start();
+            while (mutator.isAlive()) {
+                cache.encode(changed);
+            }
+            mutator.join();
+            assertEquals("description 999", codec.decodeHabit(cache.encode(changed)).getDescription());
+            assertFalse(changed.isDirty());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } catch (InterruptedException e) {
+            fail("Test should not have been interrupted");
+        }
+    }
+
+    @Test
+    void testMarkCleanAtVersion() {
+        Habit habit = hm.getHabits().get(0);
+        long version = habit.getVersion();
+        habit.setName("renamed");
+        assertTrue(habit.getVersion() > version);
+        habit.markClean(version);
+        assertTrue(habit.isDirty());
+        habit.markClean(habit.getVersion());
+        assertFalse(habit.isDirty());
+        habit.markClean(version);
+        assertFalse(habit.isDirty());
+    }
+}
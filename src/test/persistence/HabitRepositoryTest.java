@@ -0,0 +1,108 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for HabitRepository and its implementations
+public class HabitRepositoryTest extends JsonTest {
+    private static final String JSON = "./data/testRepository.json";
+    private static final String SNAPSHOT = "./data/testRepository.dat";
+    private static final String JOURNAL = "./data/testRepository.journal";
+    private HabitManager hm;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(JSON));
+        Files.deleteIfExists(Paths.get(SNAPSHOT));
+        Files.deleteIfExists(Paths.get(JOURNAL));
+    }
+
+    @Test
+    void testJsonRepository() {
+        checkRepository(new JsonHabitRepository(JSON));
+        try {
+            assertEquals(5, new JsonReader(JSON).read().getSize());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testBinaryRepository() {
+        HabitJournal journal = new HabitJournal(SNAPSHOT, JOURNAL);
+        checkRepository(new BinaryHabitRepository(journal));
+        assertTrue(journal.getLength() > 0);
+        journal.close();
+    }
+
+    @Test
+    void testInMemoryRepository() {
+        InMemoryHabitRepository repository = new InMemoryHabitRepository();
+        assertThrows(IOException.class, repository::loadAll);
+        checkRepository(repository);
+        assertEquals(2, repository.getFlushCount());
+        assertFalse(Files.exists(Paths.get(JSON)));
+    }
+
+    @Test
+    void testJsonRepositoryFlushesOnlyWhenChanged() {
+        try {
+            JsonHabitRepository repository = new JsonHabitRepository(JSON);
+            repository.saveAll(hm);
+            repository.flush();
+            Files.delete(Paths.get(JSON));
+            repository.flush();
+            assertFalse(repository.exists());
+            repository.delete(hm.getHabits().get(0).getId());
+            repository.flush();
+            assertTrue(repository.exists());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // MODIFIES: repository
+    // EFFECTS: saves all of hm to an empty repository, then writes and deletes single habits and the settings,
+    //          checking that each load returns what was written
+    private void checkRepository(HabitRepository repository) {
+        try {
+            assertFalse(repository.exists());
+            repository.saveAll(hm);
+            repository.flush();
+            assertTrue(repository.exists());
+            HabitManager loaded = repository.loadAll();
+            loaded.loadArchivedHabits();
+            assertEquals(6, loaded.getSize());
+            requestCheckHabit1(loaded);
+            Habit changed = hm.getHabits().get(2);
+            changed.setName("changed");
+            repository.upsert(changed);
+            repository.delete(hm.getHabits().get(0).getId());
+            hm.getProfile().setUsername("new name");
+            repository.saveSettings(hm.getProfile());
+            repository.flush();
+            hm.getProfile().setUsername("Gavin");
+            loaded = repository.loadAll();
+            loaded.loadArchivedHabits();
+            assertEquals(5, loaded.getSize());
+            assertEquals("changed", loaded.getHabits().get(1).getName());
+            assertEquals("new name", loaded.getProfile().getUsername());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import org.json.JSONException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for JsonMigrations
+public class JsonMigrationsTest extends JsonTest {
+    private static final String LEGACY = "./data/testReaderLegacyHabitManager.json";
+    private static final String UPGRADED = "./data/testUpgradedHabitManager.json";
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(UPGRADED));
+    }
+
+    @Test
+    void testReadLegacyFile() {
+        try {
+            assertTrue(new JsonReader("./data/testReaderGeneralHabitManager.json").read().getProfile().isHideOnClose());
+            HabitManager hm = new JsonReader(LEGACY).read();
+            assertEquals(6, hm.getSize());
+            assertTrue(hm.getProfile().isAchievementToastsEnabled());
+            assertFalse(hm.getProfile().isHideOnClose());
+            for (Habit habit : hm.getHabits()) {
+                assertFalse(habit.isArchived());
+            }
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testReadLegacyFileWithoutMigrations() {
+        assertThrows(JSONException.class, () -> new JsonReader(LEGACY, new JsonMigrations()).read());
+    }
+
+    @Test
+    void testReadNewerVersion() {
+        try {
+            Files.writeString(Paths.get(UPGRADED), "{\"version\": 99, \"habits\": []}");
+            assertThrows(JSONException.class, () -> new JsonReader(UPGRADED).read());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testUpgrade() {
+        try {
+            JsonMigrations.standard().upgrade(LEGACY, UPGRADED);
+            String upgraded = Files.readString(Paths.get(UPGRADED));
+            assertTrue(upgraded.startsWith("{\n    \"version\": " + JsonMigrations.CURRENT_VERSION + ","));
+            assertTrue(upgraded.contains("\"isArchived\": false"));
+            assertTrue(upgraded.contains("\"hideOnClose\": false"));
+
+            HabitManager hm = new JsonReader(UPGRADED, new JsonMigrations()).read();
+            assertEquals(6, hm.getSize());
+            assertEquals("Gavin", hm.getProfile().getUsername());
+            assertTrue(hm.getProfile().isAchievementToastsEnabled());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testUpgradeCurrentVersionUnchanged() {
+        try {
+            JsonMigrations.standard().upgrade("./data/testReaderGeneralHabitManager.json", UPGRADED);
+            HabitManager hm = new JsonReader(UPGRADED, new JsonMigrations()).read();
+            assertEquals(6, hm.getSize());
+            assertFalse(hm.getProfile().isAchievementToastsEnabled());
+            assertTrue(hm.getProfile().isHideOnClose());
+            requestCheckHabit1(hm);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
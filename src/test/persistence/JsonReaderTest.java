@@ -1,9 +1,14 @@
 package persistence;
 
 import model.HabitManager;
+import org.json.JSONException;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -24,10 +29,10 @@ public class JsonReaderTest extends JsonTest {
         reader = new JsonReader("./data/testReaderEmptyHabitManager.json");
         try {
             hm = reader.read();
-            assertEquals("gregor kiczales", HabitManager.getUsername());
-            assertFalse(HabitManager.isAutoSave());
-            assertTrue(HabitManager.isAchievementToastsEnabled());
-            assertFalse(HabitManager.isHideOnClose());
+            assertEquals("gregor kiczales", hm.getProfile().getUsername());
+            assertFalse(hm.getProfile().isAutoSave());
+            assertTrue(hm.getProfile().isAchievementToastsEnabled());
+            assertFalse(hm.getProfile().isHideOnClose());
             assertEquals(0, hm.getSize());
         } catch (IOException e) {
             fail("Couldn't read from file");
@@ -40,13 +45,70 @@ public class JsonReaderTest extends JsonTest {
         try {
             hm = reader.read();
             assertEquals(6, hm.getSize());
-            assertTrue(HabitManager.isAutoSave());
-            assertFalse(HabitManager.isAchievementToastsEnabled());
-            assertTrue(HabitManager.isHideOnClose());
-            assertEquals("Gavin", HabitManager.getUsername());
+            assertTrue(hm.getProfile().isAutoSave());
+            assertFalse(hm.getProfile().isAchievementToastsEnabled());
+            assertTrue(hm.getProfile().isHideOnClose());
+            assertEquals("Gavin", hm.getProfile().getUsername());
             requestCheckHabit1(hm);
         } catch (IOException e) {
             fail("Couldn't read from file");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReaderCorruptHabitManager() {
+        reader = new JsonReader("./data/testReaderCorruptHabitManager.json");
+        assertThrows(JSONException.class, reader::read);
+    }
+
+    @Test
+    void testReaderUnknownFieldsHabitManager() {
+        reader = new JsonReader("./data/testReaderUnknownFieldsHabitManager.json");
+        try {
+            hm = reader.read();
+            assertEquals("gregor kiczales", hm.getProfile().getUsername());
+            assertEquals(1, hm.getSize());
+            assertEquals("jogging", hm.getHabits().get(0).getName());
+            assertEquals(19, hm.getHabits().get(0).getHabitStats().getNumPeriod());
+            assertNull(hm.getHabits().get(0).getHabitReminder());
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderQuarantinesCorruptRecord() {
+        Path path = Paths.get("./data/testReaderChecksumHabitManager.json");
+        Quarantine quarantine = new Quarantine("./data/testQuarantine");
+        try {
+            new SaveFile(path.toString()).save(new JsonReader("./data/testReaderGeneralHabitManager.json").read());
+            String written = Files.readString(path);
+            assertEquals(6, written.split("\"checksum\"").length - 1);
+            Files.writeString(path, written.replace("\"jogging\"", "\"joggimg\""));
+            reader = new JsonReader(path.toString(), JsonMigrations.standard(), quarantine);
+            hm = reader.read();
+            assertEquals(5, hm.getSize());
+            assertEquals("math 200 grind", hm.getHabits().get(1).getName());
+            assertEquals(1, reader.getQuarantined().size());
+            assertEquals(1, quarantine.getEntries().size());
+            assertTrue(Files.readString(quarantine.getEntries().get(0)).contains("\"joggimg\""));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } finally {
+            deleteQuietly(path, quarantine);
+        }
+    }
+
+    // EFFECTS: deletes the file at path and the quarantine directory
+    private void deleteQuietly(Path path, Quarantine quarantine) {
+        try {
+            Files.deleteIfExists(path);
+            for (Path entry : quarantine.getEntries()) {
+                Files.deleteIfExists(entry);
+            }
+            Files.deleteIfExists(new File("./data/testQuarantine").toPath());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
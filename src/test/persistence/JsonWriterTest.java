@@ -1,9 +1,14 @@
 package persistence;
 
 import model.HabitManager;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,10 +34,10 @@ public class JsonWriterTest extends JsonTest {
 
             JsonReader reader2 = new JsonReader("./data/testWriterEmptyHabitManager.json");
             hm = reader2.read();
-            assertEquals("gregor kiczales", HabitManager.getUsername());
-            assertFalse(HabitManager.isAutoSave());
-            assertTrue(HabitManager.isAchievementToastsEnabled());
-            assertFalse(HabitManager.isHideOnClose());
+            assertEquals("gregor kiczales", hm.getProfile().getUsername());
+            assertFalse(hm.getProfile().isAutoSave());
+            assertTrue(hm.getProfile().isAchievementToastsEnabled());
+            assertFalse(hm.getProfile().isHideOnClose());
             assertEquals(0, hm.getSize());
         } catch (IOException e) {
             fail("Exception should not have been thrown");
@@ -44,6 +49,7 @@ public class JsonWriterTest extends JsonTest {
         try {
             JsonReader reader1 = new JsonReader("./data/testReaderGeneralHabitManager.json");
             HabitManager hm = reader1.read();
+            hm.getHabits().get(0).getCompletionLog().append(LocalDateTime.of(2024, 3, 1, 8, 30));
             JsonWriter writer = new JsonWriter("./data/testWriterGeneralHabitManager.json");
             writer.open();
             writer.write(hm);
@@ -51,13 +57,61 @@ public class JsonWriterTest extends JsonTest {
             JsonReader reader2 = new JsonReader("./data/testWriterGeneralHabitManager.json");
             hm = reader2.read();
             assertEquals(6, hm.getSize());
-            assertTrue(HabitManager.isAutoSave());
-            assertFalse(HabitManager.isAchievementToastsEnabled());
-            assertTrue(HabitManager.isHideOnClose());
-            assertEquals("Gavin", HabitManager.getUsername());
+            assertEquals(1, hm.getHabits().get(0).getCompletionLog().getCompletionCount());
+            assertEquals(0, hm.getHabits().get(1).getCompletionLog().getEntryCount());
+            assertTrue(hm.getProfile().isAutoSave());
+            assertFalse(hm.getProfile().isAchievementToastsEnabled());
+            assertTrue(hm.getProfile().isHideOnClose());
+            assertEquals("Gavin", hm.getProfile().getUsername());
             requestCheckHabit1(hm);
         } catch (IOException e) {
             fail("Exception should not have been thrown");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testWriterMatchesJsonTree() {
+        try {
+            HabitManager hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+            JsonWriter writer = new JsonWriter("./data/testWriterGeneralHabitManager.json");
+            writer.open();
+            writer.write(hm);
+            writer.close();
+            String written = Files.readString(Paths.get("./data/testWriterGeneralHabitManager.json"));
+            assertTrue(written.startsWith("{\n    \""));
+            assertTrue(withoutChecksums(written).similar(hm.toJson()));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterCompact() {
+        try {
+            HabitManager hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+            JsonWriter writer = new JsonWriter("./data/testWriterCompactHabitManager.json", true);
+            writer.open();
+            writer.write(hm);
+            writer.close();
+            String written = Files.readString(Paths.get("./data/testWriterCompactHabitManager.json"));
+            assertFalse(written.contains("\n"));
+            assertTrue(withoutChecksums(written).similar(hm.toJson()));
+            hm = new JsonReader("./data/testWriterCompactHabitManager.json").read();
+            assertEquals(6, hm.getSize());
+            requestCheckHabit1(hm);
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    // EFFECTS: returns the JSON object of written with the checksum of every habit removed,
+    //          fails if a habit has no checksum
+    private JSONObject withoutChecksums(String written) {
+        JSONObject json = new JSONObject(written);
+        JSONArray habits = json.getJSONArray("habits");
+        for (int i = 0; i < habits.length(); i++) {
+            assertNotNull(habits.getJSONObject(i).remove("checksum"));
+        }
+        return json;
+    }
+}
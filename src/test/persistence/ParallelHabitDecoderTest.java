@@ -0,0 +1,128 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.reminder.ReminderScheduler;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for ParallelHabitDecoder
+public class ParallelHabitDecoderTest extends JsonTest {
+    private BinaryCodec codec;
+    private List<byte[]> records;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        codec = new BinaryCodec(Clock.systemDefaultZone());
+        HabitManager hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+        records = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            for (Habit habit : hm.getHabits()) {
+                records.add(codec.encodeHabit(habit));
+            }
+        }
+    }
+
+    @Test
+    void testDecodeAllKeepsOrder() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Habit> habits = new ParallelHabitDecoder<>(codec::decodeHabit, pool, 4).decodeAll(records);
+            assertEquals(records.size(), habits.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(BinaryCodec.getRecordId(records.get(i)), habits.get(i).getId());
+            }
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDecodeStreamKeepsOrderAndBound() {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        AtomicInteger pulled = new AtomicInteger();
+        List<Habit> habits = new ArrayList<>();
+        Iterator<byte[]> source = records.iterator();
+        Iterator<byte[]> counted = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public byte[] next() {
+                pulled.incrementAndGet();
+                return source.next();
+            }
+        };
+        try {
+            new ParallelHabitDecoder<>(codec::decodeHabit, pool, 4).decodeAll(counted, habit -> {
+                assertTrue(pulled.get() - habits.size() <= 4 * 2);
+                habits.add(habit);
+            });
+            assertEquals(records.size(), habits.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(BinaryCodec.getRecordId(records.get(i)), habits.get(i).getId());
+            }
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDecodeStreamFailure() {
+        records.set(records.size() / 2, new byte[]{0});
+        ParallelHabitDecoder<byte[]> decoder =
+                new ParallelHabitDecoder<>(codec::decodeHabit, ForkJoinPool.commonPool(), 2);
+        assertThrows(IOException.class, () -> decoder.decodeAll(records.iterator(), habit -> { }));
+    }
+
+    @Test
+    void testRemindersLoadedWithoutScheduler() {
+        try {
+            List<Habit> habits = new ParallelHabitDecoder<>(codec::decodeHabit).decodeAll(records);
+            int withReminder = 0;
+            for (Habit habit : habits) {
+                if (habit.getHabitReminder() != null) {
+                    assertFalse(habit.getHabitReminder().hasReminderScheduler());
+                    withReminder++;
+                }
+            }
+            assertTrue(withReminder > 0);
+
+            ReminderScheduler.bindAll(habits);
+            ReminderScheduler shared = null;
+            for (Habit habit : habits) {
+                if (habit.getHabitReminder() != null) {
+                    assertTrue(habit.getHabitReminder().hasReminderScheduler());
+                    shared = shared == null ? habit.getHabitReminder().getReminderScheduler() : shared;
+                    assertSame(shared, habit.getHabitReminder().getReminderScheduler());
+                }
+            }
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testDecodeAllFailure() {
+        records.set(records.size() - 1, new byte[]{0});
+        ParallelHabitDecoder<byte[]> decoder =
+                new ParallelHabitDecoder<>(codec::decodeHabit, ForkJoinPool.commonPool(), 2);
+        assertThrows(IOException.class, () -> decoder.decodeAll(records));
+    }
+}
@@ -0,0 +1,84 @@
+package persistence;
+
+import model.log.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for RotatingEventAppender
+public class RotatingEventAppenderTest {
+    private static final String DIRECTORY = "./data/testLogs";
+
+    @AfterEach
+    void runAfter() throws IOException {
+        File[] files = new File(DIRECTORY).listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            Files.delete(file.toPath());
+        }
+        Files.deleteIfExists(Paths.get(DIRECTORY));
+    }
+
+    @Test
+    void testAppendAndFlush() {
+        RotatingEventAppender appender = new RotatingEventAppender(DIRECTORY);
+        appender.append(new Event("first"));
+        appender.append(new Event("second\nline"));
+        appender.flush();
+        try {
+            List<String> lines = Files.readAllLines(appender.getFile(0));
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).endsWith("\tfirst"));
+            assertTrue(lines.get(1).endsWith("\tsecond\\nline"));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+        appender.close();
+        appender.append(new Event("after close"));
+        appender.flush();
+        appender.close();
+        assertEquals(1, appender.getDroppedCount());
+    }
+
+    @Test
+    void testRotation() {
+        RotatingEventAppender appender = new RotatingEventAppender(DIRECTORY, 100, 3, 64);
+        for (int i = 0; i < 20; i++) {
+            appender.append(new Event("event number " + i));
+        }
+        appender.close();
+        try {
+            assertTrue(Files.exists(appender.getFile(0)));
+            assertTrue(Files.exists(appender.getFile(2)));
+            assertFalse(Files.exists(appender.getFile(3)));
+            for (int i = 0; i < 3; i++) {
+                assertTrue(Files.size(appender.getFile(i)) <= 100);
+            }
+            List<String> active = Files.readAllLines(appender.getFile(0));
+            assertTrue(active.get(active.size() - 1).endsWith("\tevent number 19"));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testContinuesExistingFile() {
+        RotatingEventAppender appender = new RotatingEventAppender(DIRECTORY);
+        appender.append(new Event("first run"));
+        appender.close();
+        appender = new RotatingEventAppender(DIRECTORY);
+        appender.append(new Event("second run"));
+        appender.close();
+        try {
+            assertEquals(2, Files.readAllLines(appender.getFile(0)).size());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package persistence;
+
+import model.HabitManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for SaveFile and SaveFormat
+public class SaveFileTest extends JsonTest {
+
+    @Test
+    void testForPath() {
+        assertEquals(SaveFormat.JSON, SaveFormat.forPath("./data/habitManager.json"));
+        assertEquals(SaveFormat.JSON, SaveFormat.forPath("./data/EXPORT.JSON"));
+        assertEquals(SaveFormat.BINARY, SaveFormat.forPath("./data/habitManager.dat"));
+    }
+
+    @Test
+    void testDetectNonExistentFile() {
+        assertThrows(IOException.class, () -> SaveFormat.detect("./data/noSuchFile.dat"));
+    }
+
+    @Test
+    void testSaveAndLoadBothFormats() {
+        try {
+            HabitManager hm = new SaveFile("./data/testReaderGeneralHabitManager.json").load();
+            SaveFile binary = new SaveFile("./data/testSaveFileGeneralHabitManager.dat");
+            SaveFile json = new SaveFile("./data/testWriterGeneralHabitManager.json");
+            binary.save(hm);
+            json.save(hm);
+            assertEquals(SaveFormat.BINARY, SaveFormat.detect(binary.getPath()));
+            assertEquals(SaveFormat.JSON, SaveFormat.detect(json.getPath()));
+            requestCheckHabit1(binary.load());
+            requestCheckHabit1(json.load());
+            assertEquals("Gavin", json.load().getProfile().getUsername());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package persistence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for SaveWriter
+public class SaveWriterTest {
+    private SaveWriter saveWriter;
+
+    @BeforeEach
+    void runBefore() {
+        saveWriter = new SaveWriter();
+    }
+
+    @AfterEach
+    void runAfter() {
+        saveWriter.close();
+    }
+
+    @Test
+    void testTasksRunInOrderOnWriterThread() {
+        List<Integer> order = new ArrayList<>();
+        List<String> threads = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int index = i;
+            saveWriter.submit(() -> {
+                order.add(index);
+                threads.add(Thread.currentThread().getName());
+            });
+        }
+        saveWriter.flush();
+        assertEquals(List.of(0, 1, 2, 3, 4), order);
+        for (String thread : threads) {
+            assertEquals("habit-save-writer", thread);
+        }
+    }
+
+    @Test
+    void testFailedTaskCompletesExceptionally() {
+        CompletableFuture<Void> failed = saveWriter.submit(() -> {
+            throw new IOException("disk full");
+        });
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertTrue(e.getCause() instanceof IOException);
+        assertNull(saveWriter.submit(() -> { }).join());
+    }
+}
@@ -0,0 +1,139 @@
+package persistence;
+
+import model.Habit;
+import model.HabitManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A test class for ShardedStore
+public class ShardedStoreTest extends JsonTest {
+    private static final String DIRECTORY = "./data/testShards";
+    private static final String JOURNAL = "./data/testShards.journal";
+    private BinaryCodec codec;
+    private ShardedStore store;
+    private HabitJournal journal;
+    private HabitManager hm;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        codec = new BinaryCodec(Clock.systemDefaultZone());
+        store = new ShardedStore(DIRECTORY);
+        journal = new HabitJournal(store, JOURNAL, HabitJournal.DEFAULT_COMPACTION_THRESHOLD);
+        hm = new JsonReader("./data/testReaderGeneralHabitManager.json").read();
+        journal.checkpoint(hm);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        journal.close();
+        File[] files = new File(DIRECTORY).listFiles();
+        for (File file : files == null ? new File[0] : files) {
+            Files.delete(file.toPath());
+        }
+        Files.deleteIfExists(Paths.get(DIRECTORY));
+        Files.deleteIfExists(Paths.get(JOURNAL));
+    }
+
+    @Test
+    void testArchivedHabitsLoadedLazily() {
+        try {
+            assertEquals(7, new File(DIRECTORY).listFiles().length);
+            HabitManager loaded = new HabitJournal(store, JOURNAL, HabitJournal.DEFAULT_COMPACTION_THRESHOLD).load();
+            assertEquals(3, loaded.getSize());
+            assertFalse(loaded.isArchivedLoaded());
+            assertEquals(3, loaded.getUnloadedArchivedIds().size());
+            for (Habit habit : loaded.getHabits()) {
+                assertFalse(habit.isArchived());
+            }
+            loaded.loadArchivedHabits();
+            assertTrue(loaded.isArchivedLoaded());
+            assertEquals(6, loaded.getSize());
+            assertEquals("jogging", loaded.getHabits().get(3).getName());
+            assertEquals("make personal project", loaded.getHabits().get(5).getName());
+            assertTrue(loaded.getHabits().get(4).isArchived());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testOnlyChangedShardWritten() {
+        try {
+            assertEquals(6, store.getShardWrites());
+            journal.checkpoint(hm);
+            assertEquals(6, store.getShardWrites());
+            hm.getHabits().get(2).setDescription("changed");
+            journal.checkpoint(hm);
+            assertEquals(7, store.getShardWrites());
+            assertEquals("changed", store.read(true).decode(codec).getHabits().get(2).getDescription());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testDeferredShardsKept() {
+        try {
+            HabitManager loaded = journal.load();
+            Habit deleted = loaded.getHabits().get(0);
+            loaded.deleteHabit(deleted);
+            journal.checkpoint(loaded);
+            assertFalse(Files.exists(Paths.get(DIRECTORY, deleted.getId() + ".habit")));
+
+            HabitManager reloaded = journal.load();
+            assertEquals(2, reloaded.getSize());
+            reloaded.loadArchivedHabits();
+            assertEquals(5, reloaded.getSize());
+            assertEquals("jogging", reloaded.getHabits().get(2).getName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCorruptArchivedShardSkipped() {
+        try {
+            UUID corrupt = hm.getHabits().get(1).getId();
+            Files.write(Paths.get(DIRECTORY, corrupt + ".habit"), new byte[]{1, 2, 3});
+            assertThrows(IOException.class, () -> store.readRecord(corrupt));
+            HabitManager loaded = journal.load();
+            loaded.loadArchivedHabits();
+            assertEquals(5, loaded.getSize());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testCorruptShardQuarantined() {
+        Quarantine quarantine = new Quarantine(DIRECTORY + ".quarantine");
+        try {
+            UUID corrupt = hm.getHabits().get(0).getId();
+            Files.write(Paths.get(DIRECTORY, corrupt + ".habit"), new byte[]{1, 2, 3});
+            ShardedStore quarantining = new ShardedStore(DIRECTORY, quarantine);
+            SnapshotRecords records = quarantining.read(false);
+            assertEquals(2, records.getSize());
+            assertFalse(records.getHabits().containsKey(corrupt));
+            assertEquals(1, quarantine.getEntries().size());
+            assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(quarantine.getEntries().get(0)));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        } finally {
+            for (Path entry : quarantine.getEntries()) {
+                new File(entry.toString()).delete();
+            }
+            new File(DIRECTORY + ".quarantine").delete();
+        }
+    }
+}